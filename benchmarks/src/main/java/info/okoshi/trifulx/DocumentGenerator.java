@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+/**
+ * Synthetic document generator for benchmarks.<br>
+ * Generated documents are deterministic, so results are comparable between runs.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+final class DocumentGenerator {
+
+  /**
+   * Instantiation isn't allowed.<br>
+   */
+  private DocumentGenerator() {
+  }
+
+  /**
+   * Generate a document nested specified depth.<br>
+   *
+   * <pre>
+   * {@code
+   * <root><level depth="1"><level depth="2">...</level></level></root>
+   * }
+   * </pre>
+   *
+   * @param depth
+   *          Number of nested levels
+   * @return XML text
+   */
+  static String deep(int depth) {
+    StringBuilder builder = new StringBuilder(depth * 40);
+    builder.append("<root>");
+    for (int i = 1; i <= depth; i++) {
+      builder.append("<level depth=\"").append(i).append("\">");
+    }
+    builder.append("<leaf>bottom</leaf>");
+    for (int i = 0; i < depth; i++) {
+      builder.append("</level>");
+    }
+    return builder.append("</root>").toString();
+  }
+
+  /**
+   * Generate a document of records with mixed attributes and child values.<br>
+   *
+   * <pre>
+   * {@code
+   * <records>
+   *   <record id="0" score="0.5" active="true">
+   *     <name>name-0</name>
+   *     <amount>0</amount>
+   *   </record>
+   * </records>
+   * }
+   * </pre>
+   *
+   * @param count
+   *          Number of records
+   * @return XML text
+   */
+  static String records(int count) {
+    StringBuilder builder = new StringBuilder(count * 120);
+    builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<records>\n");
+    for (int i = 0; i < count; i++) {
+      builder.append("  <record id=\"").append(i).append("\" score=\"").append(i * 0.5).append("\" active=\"")
+          .append(i % 2 == 0).append("\">\n");
+      builder.append("    <name>name-").append(i).append("</name>\n");
+      builder.append("    <amount>").append(i * 31L).append("</amount>\n");
+      builder.append("    <type>").append(RecordType.values()[i % RecordType.values().length]).append("</type>\n");
+      builder.append("  </record>\n");
+    }
+    return builder.append("</records>\n").toString();
+  }
+
+  /**
+   * Generate a document having specified number of children of root.<br>
+   * The last child is named differently from others.<br>
+   *
+   * @param count
+   *          Number of child nodes
+   * @return XML text
+   */
+  static String wide(int count) {
+    StringBuilder builder = new StringBuilder(count * 30);
+    builder.append("<root>");
+    for (int i = 0; i < count - 1; i++) {
+      builder.append("<child index=\"").append(i).append("\"/>");
+    }
+    return builder.append("<last index=\"").append(count - 1).append("\"/></root>").toString();
+  }
+
+  /**
+   * Type of generated records.<br>
+   *
+   * @version 1.0.0
+   * @author okosheep
+   */
+  enum RecordType {
+
+    /** Credit record */
+    CREDIT,
+
+    /** Debit record */
+    DEBIT,
+
+    /** Transfer record */
+    TRANSFER;
+  }
+}
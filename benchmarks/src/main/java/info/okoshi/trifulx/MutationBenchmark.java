@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of bulk edits.<br>
+ * A fresh document is parsed before each invocation, outside of measurement.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class MutationBenchmark {
+
+  /** Number of children */
+  private static final int COUNT = 100000;
+
+  /** Deep tree */
+  private Xml deep;
+
+  /** Text of deep tree */
+  private String deepText;
+
+  /** Wide tree */
+  private Xml wide;
+
+  /** Text of wide tree */
+  private String wideText;
+
+  /**
+   * Append many children at once.<br>
+   *
+   * @return Parent node
+   */
+  @Benchmark
+  public Node addChildren() {
+    return Xml.create("root").root().addChildren("child", COUNT).get(0).parent();
+  }
+
+  /**
+   * Copy deep subtree.<br>
+   *
+   * @return Copied node
+   */
+  @Benchmark
+  public Node copyTo() {
+    Node root = deep.root();
+    return root.node("level").copyTo(root);
+  }
+
+  /**
+   * Generate documents.<br>
+   */
+  @Setup(Level.Trial)
+  public void generate() {
+    deepText = DocumentGenerator.deep(1000);
+    wideText = DocumentGenerator.wide(COUNT);
+  }
+
+  /**
+   * Move deep subtree.<br>
+   *
+   * @return Moved node
+   */
+  @Benchmark
+  public Node moveTo() {
+    Node root = deep.root();
+    Node target = root.addChild("target");
+    return root.node("level").moveTo(target);
+  }
+
+  /**
+   * Remove every other child.<br>
+   *
+   * @return Parent node
+   */
+  @Benchmark
+  public Node removeChildren() {
+    return wide.root().removeChildren(node -> node.attrInt("index", 0) % 2 == 0);
+  }
+
+  /**
+   * Parse fresh documents.<br>
+   *
+   * @throws Exception
+   *           Any exception
+   */
+  @Setup(Level.Invocation)
+  public void setup() throws Exception {
+    deep = new Xml(deepText);
+    wide = new Xml(wideText);
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of navigating nodes on deep and wide trees.<br>
+ * Each benchmark runs on both mutable and frozen backends.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NavigationBenchmark {
+
+  /** Depth of deep tree */
+  private static final int DEPTH = 500;
+
+  /** Number of children of wide tree */
+  private static final int WIDTH = 10000;
+
+  /** Backend, "mutable" or "frozen" */
+  @Param({ "mutable", "frozen" })
+  private String backend;
+
+  /** Root of deep tree */
+  private Node deep;
+
+  /** Root of records */
+  private Node records;
+
+  /** Root of wide tree */
+  private Node wide;
+
+  /**
+   * Read attributes of all records.<br>
+   *
+   * @return Sum of attributes
+   */
+  @Benchmark
+  public double attrs() {
+    double sum = 0;
+    for (Node record : records.nodes("record")) {
+      sum += record.attrInt("id", 0) + record.attrDouble("score", 0);
+    }
+    return sum;
+  }
+
+  /**
+   * Walk down to the bottom of deep tree.<br>
+   *
+   * @return Bottom node
+   */
+  @Benchmark
+  public Node deepNode() {
+    Node node = deep;
+    for (int i = 0; i < DEPTH; i++) {
+      node = node.node("level");
+    }
+    return node.node("leaf");
+  }
+
+  /**
+   * Walk down to the bottom of deep tree without exception for missing nodes.<br>
+   *
+   * @return Bottom node
+   */
+  @Benchmark
+  public Node deepTryNode() {
+    Node node = deep;
+    for (int i = 0; i < DEPTH; i++) {
+      node = node.tryNode("level");
+    }
+    return node.tryNode("leaf");
+  }
+
+  /**
+   * Get the first child of wide tree.<br>
+   *
+   * @return Child node
+   */
+  @Benchmark
+  public Node wideFirst() {
+    return wide.node("child");
+  }
+
+  /**
+   * Get the last child of wide tree, scanning all siblings.<br>
+   *
+   * @return Child node
+   */
+  @Benchmark
+  public Node wideLast() {
+    return wide.node("last");
+  }
+
+  /**
+   * Lookup missing child of wide tree.<br>
+   *
+   * @return Non existence node
+   */
+  @Benchmark
+  public Node wideMiss() {
+    return wide.tryNode("missing");
+  }
+
+  /**
+   * List all children of wide tree.<br>
+   *
+   * @param blackhole
+   *          Blackhole
+   */
+  @Benchmark
+  public void wideNodes(Blackhole blackhole) {
+    for (Node node : wide.nodes("child")) {
+      blackhole.consume(node);
+    }
+  }
+
+  /**
+   * Lookup one of candidate names on wide tree.<br>
+   *
+   * @return Child node
+   */
+  @Benchmark
+  public Node wideTryNodeCandidates() {
+    return wide.tryNode("missing", "last");
+  }
+
+  /**
+   * Generate documents.<br>
+   *
+   * @throws Exception
+   *           Any exception
+   */
+  @Setup
+  public void setup() throws Exception {
+    deep = prepare(DocumentGenerator.deep(DEPTH));
+    records = prepare(DocumentGenerator.records(1000));
+    wide = prepare(DocumentGenerator.wide(WIDTH));
+  }
+
+  /**
+   * Parse document for the backend.<br>
+   *
+   * @param text
+   *          XML text
+   * @return Root node
+   * @throws Exception
+   *           Any exception
+   */
+  private Node prepare(String text) throws Exception {
+    Xml xml = new Xml(text);
+    return "frozen".equals(backend) ? xml.freeze().root() : xml.root();
+  }
+}
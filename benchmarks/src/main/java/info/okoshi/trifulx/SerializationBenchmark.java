@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of serializing {@link Xml} object.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+  /** Output format */
+  @Param({ "COMPACT", "STANDARD" })
+  private FormatTypes format;
+
+  /** Reused output buffer */
+  private ByteArrayOutputStream out;
+
+  /** Number of records */
+  @Param({ "100", "10000" })
+  private int size;
+
+  /** Document */
+  private Xml xml;
+
+  /**
+   * Save to {@link java.io.OutputStream}.<br>
+   *
+   * @return Number of written bytes
+   * @throws Exception
+   *           Any exception
+   */
+  @Benchmark
+  public int save() throws Exception {
+    out.reset();
+    xml.save(out);
+    return out.size();
+  }
+
+  /**
+   * Parse document.<br>
+   *
+   * @throws Exception
+   *           Any exception
+   */
+  @Setup
+  public void setup() throws Exception {
+    xml = new Xml(DocumentGenerator.records(size));
+    out = new ByteArrayOutputStream(size * 160);
+  }
+
+  /**
+   * Format as text.<br>
+   *
+   * @return Text
+   */
+  @Benchmark
+  public String text() {
+    return xml.text(format);
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link Value} conversions.<br>
+ * Inputs contain specified percentage of malformed values, to compare exception and default value paths.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValueBenchmark {
+
+  /** Number of values */
+  private static final int COUNT = 1024;
+
+  /** Percentage of malformed values */
+  @Param({ "0", "10", "50" })
+  private int malformed;
+
+  /** Class name values */
+  private Value[] classes;
+
+  /** Enum name values */
+  private Value[] enums;
+
+  /** Numeric values */
+  private Value[] numbers;
+
+  /** Numeric texts */
+  private String[] texts;
+
+  /**
+   * Resolve class names.<br>
+   *
+   * @return Number of resolved classes
+   */
+  @Benchmark
+  public int activateClass() {
+    int count = 0;
+    for (Value value : classes) {
+      try {
+        value.activateClass();
+        count++;
+      } catch (ParseException | ClassNotFoundException e) {
+        // Malformed value
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Parse as boxed double with exception for malformed values.<br>
+   *
+   * @return Sum of values
+   */
+  @Benchmark
+  public double doubleBoxed() {
+    double sum = 0;
+    for (Value value : numbers) {
+      try {
+        sum += value.doubleValue();
+      } catch (ParseException | NumberFormatException e) {
+        // Malformed value
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Parse as double with default value.<br>
+   *
+   * @return Sum of values
+   */
+  @Benchmark
+  public double doubleDefault() {
+    double sum = 0;
+    for (Value value : numbers) {
+      sum += value.doubleValue(0);
+    }
+    return sum;
+  }
+
+  /**
+   * Parse as enum constant.<br>
+   *
+   * @return Number of resolved constants
+   */
+  @Benchmark
+  public int enumValue() {
+    int count = 0;
+    for (Value value : enums) {
+      try {
+        if (value.enumValue(DocumentGenerator.RecordType.class, null) != null) {
+          count++;
+        }
+      } catch (ParseException e) {
+        // Malformed value
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Parse as boxed integer with exception for malformed values.<br>
+   *
+   * @return Sum of values
+   */
+  @Benchmark
+  public long integerBoxed() {
+    long sum = 0;
+    for (Value value : numbers) {
+      try {
+        sum += value.integerValue();
+      } catch (ParseException | NumberFormatException e) {
+        // Malformed value
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Parse as int with default value.<br>
+   *
+   * @return Sum of values
+   */
+  @Benchmark
+  public long integerDefault() {
+    long sum = 0;
+    for (Value value : numbers) {
+      sum += value.integerValue(0);
+    }
+    return sum;
+  }
+
+  /**
+   * Parse as optional int.<br>
+   *
+   * @return Sum of values
+   */
+  @Benchmark
+  public long integerTry() {
+    long sum = 0;
+    for (Value value : numbers) {
+      sum += value.tryInteger().orElse(0);
+    }
+    return sum;
+  }
+
+  /**
+   * Parse fresh values as int with default value, without cached results.<br>
+   *
+   * @return Sum of values
+   */
+  @Benchmark
+  public long integerUncached() {
+    long sum = 0;
+    for (String text : texts) {
+      sum += Value.valueOf(text).integerValue(0);
+    }
+    return sum;
+  }
+
+  /**
+   * Generate values.<br>
+   */
+  @Setup
+  public void setup() {
+    Random random = new Random(COUNT);
+    DocumentGenerator.RecordType[] types = DocumentGenerator.RecordType.values();
+    String[] names = { "java.lang.String", "java.util.ArrayList", "info.okoshi.trifulx.Xml" };
+    classes = new Value[COUNT];
+    enums = new Value[COUNT];
+    numbers = new Value[COUNT];
+    texts = new String[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      boolean bad = random.nextInt(100) < malformed;
+      classes[i] = Value.valueOf(bad ? "no.such.Clazz" : names[i % names.length]);
+      enums[i] = Value.valueOf(bad ? "UNKNOWN" : types[i % types.length].name());
+      texts[i] = bad ? "12x" + i : Integer.toString(random.nextInt());
+      numbers[i] = Value.valueOf(texts[i]);
+    }
+  }
+}
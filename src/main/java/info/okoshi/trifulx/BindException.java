@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+/**
+ * Exception in binding objects.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class BindException extends TrifulxException {
+
+  /** Serial version. */
+  private static final long serialVersionUID = -2851462239117204316L;
+
+  /**
+   * Create {@link BindException} instance.<br>
+   *
+   * @param message
+   *          message
+   */
+  public BindException(String message) {
+    super(message);
+  }
+
+  /**
+   * Create {@link BindException} instance.<br>
+   *
+   * @param message
+   *          message
+   * @param cause
+   *          cause
+   */
+  public BindException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
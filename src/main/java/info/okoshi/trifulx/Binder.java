@@ -0,0 +1,691 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.beans.ConstructorProperties;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Bind {@link Node} to java object.<br>
+ * Attributes and child nodes are bound to fields by name. Scalar fields are read from the attribute, or from the
+ * value of the child node if the attribute doesn't exist. Other fields are bound from the child node recursively,
+ * and {@link List} fields are bound from all child nodes of the name.<br>
+ * Objects are created by the no-args constructor and fields are set directly, or created by the constructor which
+ * has {@link ConstructorProperties} such as generated by Lombok.<br>
+ * Binding plan is built at once per class, and fields and constructors are invoked through {@link MethodHandle}.<br>
+ * Objects are written back in the same manner, into {@link Node} or directly into {@link XMLStreamWriter}. Scalar
+ * fields are written as attributes, and <code>null</code> fields are omitted.<br>
+ *
+ * <pre>
+ * {@code
+ * <config>
+ *   <server host="localhost" port="8080" />
+ *   <user name="foo" role="ADMIN" />
+ *   <user name="bar" role="GUEST" />
+ * </config>
+ *
+ * public class Config {
+ *   private Server server;
+ *   private List<User> user;
+ * }
+ *
+ * Config config = Binder.of(Config.class).read(xml.root());
+ * }
+ * </pre>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public final class Binder<T> {
+
+  /** Binders for each class */
+  private static final ClassValue<Binder<?>> BINDERS = new ClassValue<Binder<?>>() {
+
+    @Override
+    protected Binder<?> computeValue(Class<?> type) {
+      return new Binder<>(type);
+    }
+  };
+
+  /** Conversions from {@link Value} for scalar types */
+  private static final Map<Class<?>, Function<Value, Object>> CONVERTERS = new HashMap<>();
+
+  /** Marker of missing value */
+  private static final Object MISSING = new Object();
+
+  /** Factory of streaming writer */
+  private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+  static {
+    CONVERTERS.put(String.class, Value::stringValue);
+    CONVERTERS.put(Boolean.class, Value::booleanValue);
+    CONVERTERS.put(boolean.class, Value::booleanValue);
+    CONVERTERS.put(Byte.class, Value::byteValue);
+    CONVERTERS.put(byte.class, Value::byteValue);
+    CONVERTERS.put(Character.class, Value::characterValue);
+    CONVERTERS.put(char.class, Value::characterValue);
+    CONVERTERS.put(Double.class, Value::doubleValue);
+    CONVERTERS.put(double.class, Value::doubleValue);
+    CONVERTERS.put(Float.class, Value::floatValue);
+    CONVERTERS.put(float.class, Value::floatValue);
+    CONVERTERS.put(Integer.class, Value::integerValue);
+    CONVERTERS.put(int.class, Value::integerValue);
+    CONVERTERS.put(Long.class, Value::longValue);
+    CONVERTERS.put(long.class, Value::longValue);
+    CONVERTERS.put(Short.class, Value::shortValue);
+    CONVERTERS.put(short.class, Value::shortValue);
+    CONVERTERS.put(Class.class, value -> {
+      try {
+        return value.activateClass();
+      } catch (ClassNotFoundException e) {
+        throw new ParseException(e);
+      }
+    });
+  }
+
+  /**
+   * Get binder of class.<br>
+   *
+   * @param type
+   *          Class to bind
+   * @return {@link Binder} object
+   * @throws IllegalArgumentException
+   *           Class has neither no-args constructor nor constructor with {@link ConstructorProperties}
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Binder<T> of(Class<T> type) throws IllegalArgumentException {
+    return (Binder<T>) BINDERS.get(type);
+  }
+
+  /**
+   * Get conversion from {@link Value}.<br>
+   *
+   * @param type
+   *          Type of field
+   * @return Conversion, or <code>null</code> if type isn't scalar
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static Function<Value, Object> converter(Class<?> type) {
+    if (type.isEnum()) {
+      Class enumType = type;
+      return value -> value.enumValue(enumType, null);
+    }
+    return CONVERTERS.get(type);
+  }
+
+  /**
+   * Get element type of {@link List}.<br>
+   *
+   * @param type
+   *          Raw type
+   * @param genericType
+   *          Generic type
+   * @return Element type, or <code>null</code> if not list
+   */
+  private static Class<?> elementType(Class<?> type, Type genericType) {
+    if (type != List.class && type != Collection.class) {
+      return null;
+    }
+    if (genericType instanceof ParameterizedType) {
+      Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+      if (argument instanceof Class) {
+        return (Class<?>) argument;
+      }
+    }
+    throw new IllegalArgumentException("Can't bind list of unknown type: " + genericType);
+  }
+
+  /**
+   * Format scalar value as text.<br>
+   *
+   * @param value
+   *          Scalar value
+   * @return Text
+   */
+  private static String format(Object value) {
+    if (value instanceof Class) {
+      return ((Class<?>) value).getName();
+    } else if (value instanceof Enum) {
+      return ((Enum<?>) value).name();
+    }
+    return String.valueOf(value);
+  }
+
+  /**
+   * Find getter of property.<br>
+   * Field of the name is preferred, then <code>getXxx()</code>, <code>isXxx()</code> and <code>xxx()</code>
+   * methods.<br>
+   *
+   * @param lookup
+   *          Lookup of method handles
+   * @param type
+   *          Class to bind
+   * @param name
+   *          Property name
+   * @return Getter, or <code>null</code> if not found
+   * @throws IllegalAccessException
+   *           Can't access to getter
+   */
+  private static MethodHandle getter(MethodHandles.Lookup lookup, Class<?> type, String name)
+      throws IllegalAccessException {
+    MethodType getterType = MethodType.methodType(Object.class, Object.class);
+    for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        if (field.getName().equals(name) && !Modifier.isStatic(field.getModifiers())) {
+          field.setAccessible(true);
+          return lookup.unreflectGetter(field).asType(getterType);
+        }
+      }
+    }
+    String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    for (String methodName : new String[] { "get" + capitalized, "is" + capitalized, name }) {
+      try {
+        Method method = type.getMethod(methodName);
+        if (method.getReturnType() != void.class && !Modifier.isStatic(method.getModifiers())) {
+          return lookup.unreflect(method).asType(getterType);
+        }
+      } catch (NoSuchMethodException e) {
+        // try next candidate
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Wrap exception thrown by method handle.<br>
+   *
+   * @param type
+   *          Bound class
+   * @param cause
+   *          Thrown by method handle
+   * @return Unchecked exception to throw
+   */
+  private static RuntimeException rethrow(Class<?> type, Throwable cause) {
+    if (cause instanceof RuntimeException) {
+      return (RuntimeException) cause;
+    } else if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return new BindException("Can't bind " + type.getName(), cause);
+  }
+
+  /** Bound class */
+  private final Class<T> type;
+
+  /** Constructor, takes arguments as array if {@link #byConstructor} */
+  private final MethodHandle constructor;
+
+  /** Create object by constructor with arguments, or set fields after creation */
+  private final boolean byConstructor;
+
+  /** Bound properties */
+  private final Property[] properties;
+
+  /**
+   * Create {@link Binder} instance.<br>
+   *
+   * @param type
+   *          Class to bind
+   * @throws IllegalArgumentException
+   *           Class isn't bindable
+   */
+  private Binder(Class<T> type) throws IllegalArgumentException {
+    this.type = type;
+    if (type.isPrimitive() || type.isInterface() || type.isArray() || Modifier.isAbstract(type.getModifiers())) {
+      throw new IllegalArgumentException("Can't bind " + type.getName());
+    }
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try {
+      Constructor<?> noArgs = null;
+      Constructor<?> annotated = null;
+      for (Constructor<?> candidate : type.getDeclaredConstructors()) {
+        if (candidate.getParameterCount() == 0) {
+          noArgs = candidate;
+        } else if (candidate.isAnnotationPresent(ConstructorProperties.class)) {
+          annotated = candidate;
+        }
+      }
+      if (noArgs != null) {
+        noArgs.setAccessible(true);
+        this.constructor = lookup.unreflectConstructor(noArgs).asType(MethodType.methodType(Object.class));
+        this.byConstructor = false;
+        this.properties = fieldProperties(lookup, type);
+      } else if (annotated != null) {
+        annotated.setAccessible(true);
+        this.constructor = lookup.unreflectConstructor(annotated)
+            .asSpreader(Object[].class, annotated.getParameterCount())
+            .asType(MethodType.methodType(Object.class, Object[].class));
+        this.byConstructor = true;
+        this.properties = constructorProperties(lookup, annotated);
+      } else {
+        throw new IllegalArgumentException("No bindable constructor in " + type.getName());
+      }
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Can't bind " + type.getName(), e);
+    }
+  }
+
+  /**
+   * Bind node to new object.<br>
+   *
+   * @param node
+   *          {@link Node} object
+   * @return Bound object
+   * @throws ParseException
+   *           Can't convert value of attribute or node
+   * @throws BindException
+   *           Can't create object
+   */
+  @SuppressWarnings("unchecked")
+  public T read(Node node) throws ParseException, BindException {
+    try {
+      if (byConstructor) {
+        Object[] arguments = new Object[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+          Object value = read(node, properties[i]);
+          arguments[i] = value == MISSING ? properties[i].defaultValue : value;
+        }
+        return (T) (Object) constructor.invokeExact(arguments);
+      }
+      Object instance = (Object) constructor.invokeExact();
+      for (Property property : properties) {
+        Object value = read(node, property);
+        if (value != MISSING) {
+          property.setter.invokeExact(instance, value);
+        }
+      }
+      return (T) instance;
+    } catch (Throwable e) {
+      throw rethrow(type, e);
+    }
+  }
+
+  /**
+   * Write object into node.<br>
+   * Scalar properties are set as attributes, and other properties are appended as child nodes.<br>
+   *
+   * @param object
+   *          Object to write
+   * @param node
+   *          {@link Node} object to write into
+   * @return The node
+   * @throws BindException
+   *           Can't read property
+   */
+  public Node write(T object, Node node) throws BindException {
+    for (Property property : properties) {
+      Object value = get(object, property);
+      if (value == null) {
+        continue;
+      }
+      if (property.elementType != null) {
+        for (Object item : (Collection<?>) value) {
+          if (item == null) {
+            continue;
+          }
+          Node child = node.addChild(property.name);
+          if (property.converter != null) {
+            child.value(Value.valueOf(format(item)));
+          } else {
+            of(property.elementType).writeObject(item, child);
+          }
+        }
+      } else if (property.converter != null) {
+        node.attr(property.name, Value.valueOf(format(value)));
+      } else {
+        of(property.type).writeObject(value, node.addChild(property.name));
+      }
+    }
+    return node;
+  }
+
+  /**
+   * Write objects to output stream as XML document.<br>
+   * Each object is written to stream at once, so any number of objects can be written in constant memory if
+   * iterable is lazy.<br>
+   * Output stream will be closed on finally.<br>
+   *
+   * <pre>
+   * {@code
+   * Binder.of(User.class).write(users, "users", "user", out, StandardCharsets.UTF_8);
+   * }
+   * </pre>
+   *
+   * @param objects
+   *          Objects to write
+   * @param rootName
+   *          Tag name of root node
+   * @param name
+   *          Tag name of each object
+   * @param out
+   *          Output stream
+   * @param charset
+   *          Character set
+   * @throws IOException
+   *           I/O exception
+   * @throws BindException
+   *           Can't read property
+   */
+  public void write(Iterable<? extends T> objects, String rootName, String name, OutputStream out,
+      Charset charset) throws IOException, BindException {
+    try {
+      XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out, charset.name());
+      writer.writeStartDocument(charset.name(), "1.0");
+      writer.writeStartElement(rootName);
+      for (T object : objects) {
+        write(object, name, writer);
+      }
+      writer.writeEndElement();
+      writer.writeEndDocument();
+      writer.close();
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Write object to streaming writer as an element.<br>
+   *
+   * @param object
+   *          Object to write
+   * @param name
+   *          Tag name of element
+   * @param writer
+   *          Streaming writer
+   * @throws XMLStreamException
+   *           Exception in writing
+   * @throws BindException
+   *           Can't read property
+   */
+  public void write(T object, String name, XMLStreamWriter writer) throws XMLStreamException, BindException {
+    writer.writeStartElement(name);
+    Object[] values = new Object[properties.length];
+    for (int i = 0; i < properties.length; i++) {
+      values[i] = get(object, properties[i]);
+      if (values[i] != null && properties[i].elementType == null && properties[i].converter != null) {
+        writer.writeAttribute(properties[i].name, format(values[i]));
+      }
+    }
+    for (int i = 0; i < properties.length; i++) {
+      Property property = properties[i];
+      if (values[i] == null) {
+        continue;
+      }
+      if (property.elementType != null) {
+        for (Object item : (Collection<?>) values[i]) {
+          if (item == null) {
+            continue;
+          } else if (property.converter != null) {
+            writer.writeStartElement(property.name);
+            writer.writeCharacters(format(item));
+            writer.writeEndElement();
+          } else {
+            of(property.elementType).writeObject(item, property.name, writer);
+          }
+        }
+      } else if (property.converter == null) {
+        of(property.type).writeObject(values[i], property.name, writer);
+      }
+    }
+    writer.writeEndElement();
+  }
+
+  /**
+   * Create XML document from object.<br>
+   *
+   * @param object
+   *          Object to write
+   * @param rootName
+   *          Tag name of root node
+   * @return {@link Xml} object
+   * @throws BindException
+   *           Can't read property
+   */
+  public Xml xml(T object, String rootName) throws BindException {
+    Xml xml = Xml.create(rootName);
+    write(object, xml.root());
+    return xml;
+  }
+
+  /**
+   * Build properties bound by constructor.<br>
+   *
+   * @param lookup
+   *          Lookup of method handles
+   * @param constructor
+   *          Constructor with {@link ConstructorProperties}
+   * @return Properties
+   * @throws IllegalAccessException
+   *           Can't access to getter
+   */
+  private Property[] constructorProperties(MethodHandles.Lookup lookup, Constructor<?> constructor)
+      throws IllegalAccessException {
+    String[] names = constructor.getAnnotation(ConstructorProperties.class).value();
+    Class<?>[] types = constructor.getParameterTypes();
+    Type[] genericTypes = constructor.getGenericParameterTypes();
+    if (names.length != types.length || genericTypes.length != types.length) {
+      throw new IllegalArgumentException("Mismatched constructor properties in " + type.getName());
+    }
+    Property[] properties = new Property[names.length];
+    for (int i = 0; i < names.length; i++) {
+      properties[i] = new Property(names[i], types[i], genericTypes[i], null, getter(lookup, type, names[i]));
+    }
+    return properties;
+  }
+
+  /**
+   * Build properties bound to fields.<br>
+   * Static, transient, final and synthetic fields are ignored.<br>
+   *
+   * @param lookup
+   *          Lookup of method handles
+   * @param type
+   *          Class to bind
+   * @return Properties
+   * @throws IllegalAccessException
+   *           Can't access to field
+   */
+  private Property[] fieldProperties(MethodHandles.Lookup lookup, Class<?> type) throws IllegalAccessException {
+    List<Property> list = new ArrayList<>();
+    if (type.getSuperclass() != null && type.getSuperclass() != Object.class) {
+      for (Property property : fieldProperties(lookup, type.getSuperclass())) {
+        list.add(property);
+      }
+    }
+    for (Field field : type.getDeclaredFields()) {
+      int modifiers = field.getModifiers();
+      if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || Modifier.isFinal(modifiers)
+          || field.isSynthetic()) {
+        continue;
+      }
+      field.setAccessible(true);
+      MethodHandle setter = lookup.unreflectSetter(field)
+          .asType(MethodType.methodType(void.class, Object.class, Object.class));
+      MethodHandle getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+      list.add(new Property(field.getName(), field.getType(), field.getGenericType(), setter, getter));
+    }
+    return list.toArray(new Property[list.size()]);
+  }
+
+  /**
+   * Get value of property.<br>
+   *
+   * @param object
+   *          Object
+   * @param property
+   *          Property
+   * @return Value, or <code>null</code> if property isn't readable
+   * @throws BindException
+   *           Can't read property
+   */
+  private Object get(Object object, Property property) throws BindException {
+    if (property.getter == null) {
+      return null;
+    }
+    try {
+      return (Object) property.getter.invokeExact(object);
+    } catch (Throwable e) {
+      throw rethrow(type, e);
+    }
+  }
+
+  /**
+   * Read value of property from node.<br>
+   *
+   * @param node
+   *          {@link Node} object
+   * @param property
+   *          Property
+   * @return Value, or {@link #MISSING} if neither attribute nor child node exists
+   */
+  private Object read(Node node, Property property) {
+    if (property.elementType != null) {
+      List<Node> children = node.nodes(property.name);
+      List<Object> list = new ArrayList<>(children.size());
+      for (Node child : children) {
+        list.add(property.converter != null ? property.converter.apply(child.value())
+            : of(property.elementType).read(child));
+      }
+      return list;
+    }
+    if (property.converter != null) {
+      Value value = node.tryAttr(property.name).getValue();
+      if (!value.exists()) {
+        Node child = node.tryNode(property.name);
+        if (!child.exists()) {
+          return MISSING;
+        }
+        value = child.value();
+      }
+      return property.converter.apply(value);
+    }
+    Node child = node.tryNode(property.name);
+    return child.exists() ? of(property.type).read(child) : MISSING;
+  }
+
+  /**
+   * Write object of unchecked type into node.<br>
+   *
+   * @param object
+   *          Object to write
+   * @param node
+   *          {@link Node} object to write into
+   */
+  @SuppressWarnings("unchecked")
+  private void writeObject(Object object, Node node) {
+    write((T) object, node);
+  }
+
+  /**
+   * Write object of unchecked type to streaming writer.<br>
+   *
+   * @param object
+   *          Object to write
+   * @param name
+   *          Tag name of element
+   * @param writer
+   *          Streaming writer
+   * @throws XMLStreamException
+   *           Exception in writing
+   */
+  @SuppressWarnings("unchecked")
+  private void writeObject(Object object, String name, XMLStreamWriter writer) throws XMLStreamException {
+    write((T) object, name, writer);
+  }
+
+  /**
+   * Bound property.<br>
+   */
+  private static final class Property {
+
+    /** Name of attribute or node */
+    final String name;
+
+    /** Type of property */
+    final Class<?> type;
+
+    /** Element type if property is list, otherwise <code>null</code> */
+    final Class<?> elementType;
+
+    /** Conversion of scalar value, or <code>null</code> if bound to child node recursively */
+    final Function<Value, Object> converter;
+
+    /** Value for missing property on constructor */
+    final Object defaultValue;
+
+    /** Setter of field, or <code>null</code> if bound by constructor */
+    final MethodHandle setter;
+
+    /** Getter of property, or <code>null</code> if not readable */
+    final MethodHandle getter;
+
+    /**
+     * Create {@link Property} instance.<br>
+     *
+     * @param name
+     *          Name of attribute or node
+     * @param type
+     *          Type of property
+     * @param genericType
+     *          Generic type of property
+     * @param setter
+     *          Setter of field
+     * @param getter
+     *          Getter of property
+     */
+    Property(String name, Class<?> type, Type genericType, MethodHandle setter, MethodHandle getter) {
+      this.name = name;
+      this.type = type;
+      this.elementType = elementType(type, genericType);
+      this.converter = converter(elementType != null ? elementType : type);
+      this.defaultValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+      this.setter = setter;
+      this.getter = getter;
+    }
+  }
+}
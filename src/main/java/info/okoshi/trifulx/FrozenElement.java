@@ -0,0 +1,857 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jdom2.CDATA;
+import org.jdom2.Comment;
+import org.jdom2.Content;
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.Text;
+
+/**
+ * Immutable element data.<br>
+ * Normalized text, index of child elements and hash code are computed on construction, so instances can be
+ * shared between threads and documents without synchronization.<br>
+ * Comments, processing instructions and CDATA sections are kept as {@link Markup}, so the element is converted
+ * back by {@link #toElement()} to the same JDOM element.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+final class FrozenElement {
+
+  /** Empty array of contents */
+  private static final Object[] NO_CONTENT = new Object[0];
+
+  /** Empty array of child elements */
+  private static final FrozenElement[] NO_CHILDREN = new FrozenElement[0];
+
+  /** Empty array of strings */
+  private static final String[] NO_STRINGS = new String[0];
+
+  /** Empty array of namespaces */
+  private static final Namespace[] NO_NAMESPACES = new Namespace[0];
+
+  /**
+   * Immutable comment, processing instruction or CDATA section in contents.<br>
+   */
+  static final class Markup {
+
+    /** Comment */
+    private static final int COMMENT = 0;
+
+    /** Processing instruction */
+    private static final int PI = 1;
+
+    /** CDATA section */
+    private static final int CDATA = 2;
+
+    /** Type of markup */
+    private final int type;
+
+    /** Target of processing instruction, or <code>null</code> */
+    private final String target;
+
+    /** Text of comment or CDATA section, or data of processing instruction */
+    private final String data;
+
+    /**
+     * Create {@link Markup} instance.<br>
+     *
+     * @param type
+     *          Type of markup
+     * @param target
+     *          Target of processing instruction, or <code>null</code>
+     * @param data
+     *          Text or data
+     */
+    private Markup(int type, String target, String data) {
+      this.type = type;
+      this.target = target;
+      this.data = data;
+    }
+
+    /**
+     * Create {@link Markup} instance from JDOM content.<br>
+     *
+     * @param content
+     *          {@link Comment}, {@link ProcessingInstruction} or {@link CDATA}
+     * @return {@link Markup} object
+     */
+    static Markup of(Content content) {
+      if (content instanceof CDATA) {
+        return new Markup(CDATA, null, ((CDATA) content).getText());
+      } else if (content instanceof Comment) {
+        return new Markup(COMMENT, null, ((Comment) content).getText());
+      }
+      ProcessingInstruction pi = (ProcessingInstruction) content;
+      return new Markup(PI, pi.getTarget(), pi.getData());
+    }
+
+    /**
+     * Get text as a part of text of element.<br>
+     *
+     * @return Text of CDATA section, or <code>null</code> for comment and processing instruction
+     */
+    String text() {
+      return type == CDATA ? data : null;
+    }
+
+    /**
+     * Get number of characters.<br>
+     *
+     * @return Length of target and data
+     */
+    int length() {
+      return (target != null ? target.length() : 0) + data.length();
+    }
+
+    /**
+     * Create JDOM content from this markup.<br>
+     *
+     * @return JDOM {@link Content} object
+     */
+    Content toContent() {
+      switch (type) {
+      case COMMENT:
+        return new Comment(data);
+      case PI:
+        return new ProcessingInstruction(target, data);
+      default:
+        return new CDATA(data);
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+      return 31 * (31 * type + (target != null ? target.hashCode() : 0)) + data.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Markup)) {
+        return false;
+      }
+      Markup other = (Markup) obj;
+      return type == other.type && data.equals(other.data)
+          && (target == null ? other.target == null : target.equals(other.target));
+    }
+  }
+
+  /**
+   * Element being copied by {@link FrozenElement#of(Element)}.<br>
+   */
+  private static final class Frame {
+
+    /** JDOM element */
+    private final Element element;
+
+    /** Contents of JDOM element */
+    private final List<Content> contents;
+
+    /** Index of next content */
+    private int next;
+
+    /** Copied contents */
+    private final List<Object> content;
+
+    /** Text of adjacent text nodes, or <code>null</code> */
+    private StringBuilder text;
+
+    /**
+     * Create {@link Frame} instance.<br>
+     *
+     * @param element
+     *          JDOM element
+     */
+    private Frame(Element element) {
+      this.element = element;
+      this.contents = element.getContent();
+      this.content = new ArrayList<>(contents.size());
+    }
+
+    /**
+     * Append text of adjacent text nodes to copied contents.<br>
+     */
+    private void flushText() {
+      if (text != null) {
+        content.add(text.toString());
+        text = null;
+      }
+    }
+  }
+
+  /**
+   * Create {@link FrozenElement} instance from JDOM element.<br>
+   * Elements are copied with an explicit stack, so deep documents don't overflow the call stack.<br>
+   *
+   * @param element
+   *          JDOM {@link Element} object
+   * @return {@link FrozenElement} object
+   */
+  static FrozenElement of(Element element) {
+    Deque<Frame> stack = new ArrayDeque<>();
+    stack.push(new Frame(element));
+    while (true) {
+      Frame frame = stack.peek();
+      Element child = null;
+      while (child == null && frame.next < frame.contents.size()) {
+        Content item = frame.contents.get(frame.next++);
+        if (item instanceof CDATA || item instanceof Comment || item instanceof ProcessingInstruction) {
+          frame.flushText();
+          frame.content.add(Markup.of(item));
+        } else if (item instanceof Text) {
+          if (frame.text == null) {
+            frame.text = new StringBuilder();
+          }
+          frame.text.append(((Text) item).getText());
+        } else if (item instanceof Element) {
+          child = (Element) item;
+        }
+      }
+      if (child != null) {
+        frame.flushText();
+        stack.push(new Frame(child));
+        continue;
+      }
+      frame.flushText();
+      stack.pop();
+      FrozenElement frozen = of(frame.element, frame.content);
+      if (stack.isEmpty()) {
+        return frozen;
+      }
+      stack.peek().content.add(frozen);
+    }
+  }
+
+  /**
+   * Create {@link FrozenElement} instance from JDOM element and copied contents.<br>
+   *
+   * @param element
+   *          JDOM {@link Element} object
+   * @param content
+   *          Copied contents, each one is {@link String}, {@link Markup} or {@link FrozenElement}
+   * @return {@link FrozenElement} object
+   */
+  private static FrozenElement of(Element element, List<Object> content) {
+    List<org.jdom2.Attribute> attributes = element.getAttributes();
+    int attributeSize = attributes.size();
+    String[] attrNames = attributeSize == 0 ? NO_STRINGS : new String[attributeSize];
+    String[] attrValues = attributeSize == 0 ? NO_STRINGS : new String[attributeSize];
+    Namespace[] attrNamespaces = attributeSize == 0 ? NO_NAMESPACES : new Namespace[attributeSize];
+    for (int i = 0; i < attributeSize; i++) {
+      org.jdom2.Attribute attribute = attributes.get(i);
+      attrNames[i] = attribute.getName();
+      attrValues[i] = attribute.getValue();
+      attrNamespaces[i] = attribute.getNamespace();
+    }
+    List<Namespace> additional = element.getAdditionalNamespaces();
+    return new FrozenElement(element.getName(), element.getNamespace(),
+        additional.isEmpty() ? NO_NAMESPACES : additional.toArray(new Namespace[additional.size()]), attrNames,
+        attrValues, attrNamespaces, content.isEmpty() ? NO_CONTENT : content.toArray());
+  }
+
+  /**
+   * Create {@link FrozenElement} instance which has only name and empty text.<br>
+   *
+   * @param name
+   *          Tag name
+   * @return {@link FrozenElement} object
+   */
+  static FrozenElement fake(String name) {
+    return new FrozenElement(name, Namespace.NO_NAMESPACE, NO_NAMESPACES, NO_STRINGS, NO_STRINGS, NO_NAMESPACES,
+        new Object[] { NodeImplCreator.NodeImpl.EMPTY });
+  }
+
+  /** Tag name */
+  private final String name;
+
+  /** Namespace */
+  private final Namespace namespace;
+
+  /** Additional namespace declarations */
+  private final Namespace[] additionalNamespaces;
+
+  /** Attribute names */
+  private final String[] attrNames;
+
+  /** Attribute values */
+  private final Value[] attrValues;
+
+  /** Attribute namespaces */
+  private final Namespace[] attrNamespaces;
+
+  /** Contents, each one is {@link String}, {@link Markup} or {@link FrozenElement} */
+  private final Object[] content;
+
+  /** Child elements */
+  private final FrozenElement[] children;
+
+  /** Indexes of child elements by tag name, must not be modified */
+  private final Map<String, int[]> childIndexes;
+
+  /** Concatenated text */
+  private final String text;
+
+  /** Normalized text */
+  private final Value value;
+
+  /** Hash code */
+  private final int hash;
+
+  /**
+   * Create {@link FrozenElement} instance.<br>
+   *
+   * @param name
+   *          Tag name
+   * @param namespace
+   *          Namespace
+   * @param additionalNamespaces
+   *          Additional namespace declarations
+   * @param attrNames
+   *          Attribute names
+   * @param attrValues
+   *          Attribute values
+   * @param attrNamespaces
+   *          Attribute namespaces
+   * @param content
+   *          Contents, each one is {@link String}, {@link Markup} or {@link FrozenElement}
+   */
+  FrozenElement(String name, Namespace namespace, Namespace[] additionalNamespaces, String[] attrNames,
+      String[] attrValues, Namespace[] attrNamespaces, Object[] content) {
+    this.name = name;
+    this.namespace = namespace;
+    this.additionalNamespaces = additionalNamespaces;
+    this.attrNames = attrNames;
+    this.attrValues = new Value[attrValues.length];
+    for (int i = 0; i < attrValues.length; i++) {
+      this.attrValues[i] = Value.valueOf(attrValues[i]);
+    }
+    this.attrNamespaces = attrNamespaces;
+    this.content = content;
+
+    int childSize = 0;
+    StringBuilder builder = null;
+    String single = null;
+    for (Object item : content) {
+      if (item instanceof FrozenElement) {
+        childSize++;
+        continue;
+      }
+      String part = item instanceof String ? (String) item : ((Markup) item).text();
+      if (part == null) {
+        continue;
+      } else if (single == null) {
+        single = part;
+      } else {
+        if (builder == null) {
+          builder = new StringBuilder(single);
+        }
+        builder.append(part);
+      }
+    }
+    this.text = builder != null ? builder.toString() : single != null ? single : NodeImplCreator.NodeImpl.EMPTY;
+    this.value = Value.valueOf(Text.normalizeString(text));
+
+    this.children = childSize == 0 ? NO_CHILDREN : new FrozenElement[childSize];
+    int index = 0;
+    for (Object item : content) {
+      if (item instanceof FrozenElement) {
+        children[index++] = (FrozenElement) item;
+      }
+    }
+    this.childIndexes = indexes(children);
+
+    int h = headHash(name, namespace, attrNames, this.attrValues);
+    for (Object item : content) {
+      h = 31 * h + item.hashCode();
+    }
+    this.hash = h;
+  }
+
+  /**
+   * Create {@link FrozenElement} instance sharing tag name, namespaces, index of child elements and text with
+   * base element.<br>
+   * Tag names of child elements must be the same as base element.<br>
+   *
+   * @param base
+   *          Base element
+   * @param attrNames
+   *          Attribute names
+   * @param attrValues
+   *          Attribute values
+   * @param attrNamespaces
+   *          Attribute namespaces
+   * @param content
+   *          Contents
+   * @param children
+   *          Child elements
+   * @param hash
+   *          Hash code
+   */
+  private FrozenElement(FrozenElement base, String[] attrNames, Value[] attrValues, Namespace[] attrNamespaces,
+      Object[] content, FrozenElement[] children, int hash) {
+    this.name = base.name;
+    this.namespace = base.namespace;
+    this.additionalNamespaces = base.additionalNamespaces;
+    this.attrNames = attrNames;
+    this.attrValues = attrValues;
+    this.attrNamespaces = attrNamespaces;
+    this.content = content;
+    this.children = children;
+    this.childIndexes = base.childIndexes;
+    this.text = base.text;
+    this.value = base.value;
+    this.hash = hash;
+  }
+
+  /**
+   * Make index of child elements by tag name.<br>
+   * No map is allocated for no children, and a singleton map is used if all children have the same tag name.
+   * Indexes are collected into <code>int[]</code> by their rank among children of the same name, without
+   * boxing.<br>
+   *
+   * @param children
+   *          Child elements
+   * @return Indexes of child elements by tag name
+   */
+  private static Map<String, int[]> indexes(FrozenElement[] children) {
+    if (children.length == 0) {
+      return Collections.emptyMap();
+    }
+    String first = children[0].name;
+    boolean same = true;
+    for (int i = 1; i < children.length && same; i++) {
+      same = children[i].name.equals(first);
+    }
+    if (same) {
+      int[] all = new int[children.length];
+      for (int i = 0; i < all.length; i++) {
+        all[i] = i;
+      }
+      return Collections.singletonMap(first, all);
+    }
+    // Count children of each name, then fill each array at the rank of child
+    Map<String, int[]> indexes = new HashMap<>();
+    int[] ranks = new int[children.length];
+    for (int i = 0; i < children.length; i++) {
+      int[] count = indexes.get(children[i].name);
+      if (count == null) {
+        count = new int[1];
+        indexes.put(children[i].name, count);
+      }
+      ranks[i] = count[0]++;
+    }
+    indexes.replaceAll((name, count) -> new int[count[0]]);
+    for (int i = 0; i < children.length; i++) {
+      indexes.get(children[i].name)[ranks[i]] = i;
+    }
+    return indexes;
+  }
+
+  /**
+   * Compute hash code of tag name, namespace and attributes, which precedes contents.<br>
+   *
+   * @param name
+   *          Tag name
+   * @param namespace
+   *          Namespace
+   * @param attrNames
+   *          Attribute names
+   * @param attrValues
+   *          Attribute values
+   * @return Hash code
+   */
+  private static int headHash(String name, Namespace namespace, String[] attrNames, Value[] attrValues) {
+    int h = name.hashCode();
+    h = 31 * h + namespace.getURI().hashCode();
+    for (int i = 0; i < attrNames.length; i++) {
+      h = 31 * h + attrNames[i].hashCode();
+      h = 31 * h + attrValues[i].hashCode();
+    }
+    return h;
+  }
+
+  /**
+   * Compute 31 to the power of exponent, with overflow as hash codes do.<br>
+   *
+   * @param exponent
+   *          Exponent
+   * @return Power
+   */
+  private static int power31(int exponent) {
+    int result = 1;
+    int base = 31;
+    for (int e = exponent; e > 0; e >>>= 1) {
+      if ((e & 1) != 0) {
+        result *= base;
+      }
+      base *= base;
+    }
+    return result;
+  }
+
+  /**
+   * Get tag name.<br>
+   *
+   * @return Tag name
+   */
+  String name() {
+    return name;
+  }
+
+  /**
+   * Get namespace.<br>
+   *
+   * @return Namespace
+   */
+  Namespace namespace() {
+    return namespace;
+  }
+
+  /**
+   * Get number of attributes.<br>
+   *
+   * @return Number of attributes
+   */
+  int attrSize() {
+    return attrNames.length;
+  }
+
+  /**
+   * Get attribute name.<br>
+   *
+   * @param index
+   *          Index of attribute
+   * @return Attribute name
+   */
+  String attrName(int index) {
+    return attrNames[index];
+  }
+
+  /**
+   * Get attribute value.<br>
+   *
+   * @param index
+   *          Index of attribute
+   * @return Attribute value
+   */
+  Value attrValue(int index) {
+    return attrValues[index];
+  }
+
+  /**
+   * Find attribute which has no namespace.<br>
+   *
+   * @param name
+   *          Attribute name
+   * @return Index of attribute, or <code>-1</code> if not found
+   */
+  int attrIndex(String name) {
+    for (int i = 0; i < attrNames.length; i++) {
+      if (attrNames[i].equals(name) && attrNamespaces[i] == Namespace.NO_NAMESPACE) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Get child elements.<br>
+   *
+   * @return Child elements, must not be modified
+   */
+  FrozenElement[] children() {
+    return children;
+  }
+
+  /**
+   * Get indexes of child elements.<br>
+   *
+   * @param name
+   *          Tag name
+   * @return Indexes of child elements, or <code>null</code> if not found
+   */
+  int[] childIndexes(String name) {
+    return childIndexes.get(name);
+  }
+
+  /**
+   * Get concatenated text.<br>
+   *
+   * @return Text
+   */
+  String text() {
+    return text;
+  }
+
+  /**
+   * Get normalized text.<br>
+   *
+   * @return Normalized text
+   */
+  Value value() {
+    return value;
+  }
+
+  /**
+   * Get attribute values as strings.<br>
+   *
+   * @return Attribute values
+   */
+  String[] attrValueStrings() {
+    String[] values = new String[attrValues.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = attrValues[i].stringValue();
+    }
+    return values;
+  }
+
+  /**
+   * Get attribute names.<br>
+   *
+   * @return Attribute names, must not be modified
+   */
+  String[] attrNames() {
+    return attrNames;
+  }
+
+  /**
+   * Get attribute namespaces.<br>
+   *
+   * @return Attribute namespaces, must not be modified
+   */
+  Namespace[] attrNamespaces() {
+    return attrNamespaces;
+  }
+
+  /**
+   * Get contents.<br>
+   *
+   * @return Contents, each one is {@link String}, {@link Markup} or {@link FrozenElement}, must not be modified
+   */
+  Object[] content() {
+    return content;
+  }
+
+  /**
+   * Create copy of this element with new attributes and contents.<br>
+   * Tag name and namespaces are kept.<br>
+   *
+   * @param attrNames
+   *          Attribute names
+   * @param attrValues
+   *          Attribute values
+   * @param attrNamespaces
+   *          Attribute namespaces
+   * @param content
+   *          Contents, each one is {@link String}, {@link Markup} or {@link FrozenElement}
+   * @return {@link FrozenElement} object
+   */
+  FrozenElement with(String[] attrNames, String[] attrValues, Namespace[] attrNamespaces, Object[] content) {
+    return new FrozenElement(name, namespace, additionalNamespaces, attrNames, attrValues, attrNamespaces, content);
+  }
+
+  /**
+   * Create copy of this element with new attributes.<br>
+   * Contents, index of child elements and text are shared, and hash code is updated without visiting
+   * contents.<br>
+   *
+   * @param attrNames
+   *          Attribute names
+   * @param attrValues
+   *          Attribute values
+   * @param attrNamespaces
+   *          Attribute namespaces
+   * @return {@link FrozenElement} object
+   */
+  FrozenElement withAttributes(String[] attrNames, String[] attrValues, Namespace[] attrNamespaces) {
+    Value[] values = new Value[attrValues.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = Value.valueOf(attrValues[i]);
+    }
+    int delta = headHash(name, namespace, attrNames, values)
+        - headHash(name, namespace, this.attrNames, this.attrValues);
+    return new FrozenElement(this, attrNames, values, attrNamespaces, content, children,
+        hash + delta * power31(content.length));
+  }
+
+  /**
+   * Create copy of this element with replaced child elements.<br>
+   * Each replacement must have the same tag name as the replaced one, so index of child elements, text and
+   * attributes are shared, and hash code is updated only for replaced child elements.<br>
+   *
+   * @param replacements
+   *          Child elements, same length as {@link #children()}
+   * @return {@link FrozenElement} object
+   */
+  FrozenElement withChildren(FrozenElement[] replacements) {
+    Object[] replaced = content.clone();
+    int h = hash;
+    int index = 0;
+    for (int i = 0; i < replaced.length; i++) {
+      if (!(replaced[i] instanceof FrozenElement)) {
+        continue;
+      }
+      FrozenElement replacement = replacements[index++];
+      if (replacement != replaced[i]) {
+        h += (replacement.hash - replaced[i].hashCode()) * power31(replaced.length - 1 - i);
+        replaced[i] = replacement;
+      }
+    }
+    return new FrozenElement(this, attrNames, attrValues, attrNamespaces, replaced, replacements, h);
+  }
+
+  /**
+   * Create JDOM element from this element.<br>
+   * Elements are created from the leaves with an explicit stack, so deep documents don't overflow the call stack
+   * and each element is appended before its parent has ancestors.<br>
+   *
+   * @return JDOM {@link Element} object
+   */
+  Element toElement() {
+    Deque<FrozenElement> sources = new ArrayDeque<>();
+    Deque<Integer> nexts = new ArrayDeque<>();
+    Deque<List<Content>> targets = new ArrayDeque<>();
+    sources.push(this);
+    nexts.push(0);
+    targets.push(new ArrayList<>(content.length));
+    while (true) {
+      FrozenElement source = sources.peek();
+      List<Content> contents = targets.peek();
+      int next = nexts.pop();
+      while (next < source.content.length && !(source.content[next] instanceof FrozenElement)) {
+        Object item = source.content[next++];
+        contents.add(item instanceof String ? new Text((String) item) : ((Markup) item).toContent());
+      }
+      if (next < source.content.length) {
+        FrozenElement child = (FrozenElement) source.content[next];
+        nexts.push(next + 1);
+        sources.push(child);
+        nexts.push(0);
+        targets.push(new ArrayList<>(child.content.length));
+        continue;
+      }
+      sources.pop();
+      targets.pop();
+      Element element = source.shell();
+      element.addContent(contents);
+      if (sources.isEmpty()) {
+        return element;
+      }
+      targets.peek().add(element);
+    }
+  }
+
+  /**
+   * Create JDOM element which has name, namespaces and attributes of this element, without contents.<br>
+   *
+   * @return JDOM {@link Element} object
+   */
+  private Element shell() {
+    Element element = new TrifulxElement(name, namespace);
+    for (Namespace additional : additionalNamespaces) {
+      element.addNamespaceDeclaration(additional);
+    }
+    for (int i = 0; i < attrNames.length; i++) {
+      element.setAttribute(attrNames[i], attrValues[i].stringValue(), attrNamespaces[i]);
+    }
+    return element;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see java.lang.Object#hashCode()
+   */
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  /**
+   * {@inheritDoc}
+   * Descendants are compared with an explicit stack, so deep documents don't overflow the call stack.<br>
+   *
+   * @see java.lang.Object#equals(java.lang.Object)
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof FrozenElement)) {
+      return false;
+    }
+    Deque<FrozenElement> lefts = new ArrayDeque<>();
+    Deque<FrozenElement> rights = new ArrayDeque<>();
+    lefts.push(this);
+    rights.push((FrozenElement) obj);
+    while (!lefts.isEmpty()) {
+      FrozenElement left = lefts.pop();
+      FrozenElement right = rights.pop();
+      if (left == right) {
+        continue;
+      }
+      if (left.hash != right.hash || !left.name.equals(right.name) || !left.namespace.equals(right.namespace)
+          || !Arrays.equals(left.attrNames, right.attrNames) || !Arrays.equals(left.attrValues, right.attrValues)
+          || !Arrays.equals(left.attrNamespaces, right.attrNamespaces)
+          || left.content.length != right.content.length) {
+        return false;
+      }
+      for (int i = 0; i < left.content.length; i++) {
+        Object l = left.content[i];
+        Object r = right.content[i];
+        if (l instanceof FrozenElement && r instanceof FrozenElement) {
+          lefts.push((FrozenElement) l);
+          rights.push((FrozenElement) r);
+        } else if (!l.equals(r)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
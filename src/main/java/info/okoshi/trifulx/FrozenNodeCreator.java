@@ -0,0 +1,713 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+
+/**
+ * Read-only {@link Node} implementation creator.<br>
+ * Created nodes are views of an immutable snapshot of the element, so any number of threads can read them
+ * without synchronization.<br>
+ * Each call of {@link #create(Element, boolean)} copies the whole element, so this creator isn't loaded by
+ * {@link NodeCreatorLoader}. Use it through {@link Xml#freeze()} or {@link Xml#creator(NodeCreator)}.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class FrozenNodeCreator implements NodeCreator {
+
+  /**
+   * Read-only {@link Node} implementation.<br>
+   * All methods to modify the tree throw {@link UnsupportedOperationException}.<br>
+   *
+   * @version 1.0.0
+   * @author okosheep
+   */
+  public static class FrozenNode implements Node {
+
+    /** Element data */
+    private final FrozenElement data;
+
+    /** Parent node, or <code>null</code> if root node */
+    private final FrozenNode parent;
+
+    /** Index in child elements of parent node, or <code>-1</code> if root node or non existence object */
+    private final int index;
+
+    /** Existence */
+    private final boolean exists;
+
+    /**
+     * Create {@link FrozenNode} instance.<br>
+     *
+     * @param data
+     *          Element data
+     * @param parent
+     *          Parent node, or <code>null</code> if root node
+     * @param index
+     *          Index in child elements of parent node, or <code>-1</code> if root node or non existence object
+     * @param exists
+     *          Existence
+     */
+    FrozenNode(FrozenElement data, FrozenNode parent, int index, boolean exists) {
+      this.data = data;
+      this.parent = parent;
+      this.index = index;
+      this.exists = exists;
+      XmlMetrics.wrapperCreated();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#addChild(java.lang.String)
+     */
+    @Override
+    public Node addChild(String name) {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#addChildren(java.lang.String, int)
+     */
+    @Override
+    public List<Node> addChildren(String name, int count) {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attr(info.okoshi.trifulx.Attribute)
+     */
+    @Override
+    public Node attr(Attribute attribute) {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attr(java.lang.String)
+     */
+    @Override
+    public Attribute attr(String name) {
+      int i = data.attrIndex(name);
+      if (i < 0) {
+        throw ParseException.of("\"" + name + "\" attribute is not found.");
+      }
+      return new AttributeImpl(name, data.attrValue(i));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attr(java.lang.String, info.okoshi.trifulx.Value)
+     */
+    @Override
+    public Node attr(String name, Value value) {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attrBool(java.lang.String, boolean)
+     */
+    @Override
+    public boolean attrBool(String name, boolean defaultValue) {
+      return Primitives.parseBoolean(attrText(name), false, defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attrDouble(java.lang.String, double)
+     */
+    @Override
+    public double attrDouble(String name, double defaultValue) {
+      return Primitives.parseDouble(attrText(name), defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attrInt(java.lang.String, int)
+     */
+    @Override
+    public int attrInt(String name, int defaultValue) {
+      return Primitives.parseInt(attrText(name), false, defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attrLong(java.lang.String, long)
+     */
+    @Override
+    public long attrLong(String name, long defaultValue) {
+      return Primitives.parseLong(attrText(name), false, defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attrNames()
+     */
+    @Override
+    public List<String> attrNames() {
+      List<String> list = new ArrayList<>(data.attrSize());
+      for (int i = 0; i < data.attrSize(); i++) {
+        list.add(data.attrName(i));
+      }
+      return list;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attrs()
+     */
+    @Override
+    public List<Attribute> attrs() {
+      List<Attribute> list = new ArrayList<>(data.attrSize());
+      for (int i = 0; i < data.attrSize(); i++) {
+        list.add(new AttributeImpl(data.attrName(i), data.attrValue(i)));
+      }
+      return list;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attrs(java.util.function.Predicate)
+     */
+    @Override
+    public List<Attribute> attrs(Predicate<Attribute> predicate) {
+      return attrs().stream().filter(predicate).collect(Collectors.toList());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#copyTo(info.okoshi.trifulx.Node)
+     */
+    @Override
+    public Node copyTo(Node node) throws UnsupportedOperationException, IllegalArgumentException {
+      if (!exists()) {
+        throw new UnsupportedOperationException("Can't move non existence object.");
+      }
+      if (!node.exists()) {
+        throw new IllegalArgumentException("Can't move to non existence object.");
+      }
+      node.node(this);
+      return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#edit(java.util.function.Consumer)
+     */
+    @Override
+    public Node edit(Consumer<NodeBatch> editor) {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#exists()
+     */
+    @Override
+    public boolean exists() {
+      return exists;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#moveTo(info.okoshi.trifulx.Node)
+     */
+    @Override
+    public Node moveTo(Node node) throws UnsupportedOperationException, IllegalArgumentException {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#node(info.okoshi.trifulx.Node)
+     */
+    @Override
+    public Node node(Node node) {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#node(java.lang.String)
+     */
+    @Override
+    public Node node(String name) {
+      Node child = child(name);
+      if (child == null) {
+        throw ParseException.of("\"" + name + "\" node is not found.");
+      }
+      return child;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#nodes()
+     */
+    @Override
+    public List<Node> nodes() {
+      FrozenElement[] children = data.children();
+      List<Node> list = new ArrayList<>(children.length);
+      for (int i = 0; i < children.length; i++) {
+        list.add(new FrozenNode(children[i], this, i, true));
+      }
+      return list;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#nodes(java.util.function.Predicate)
+     */
+    @Override
+    public List<Node> nodes(Predicate<Node> predicate) {
+      return nodes().stream().filter(predicate).collect(Collectors.toList());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#nodes(java.lang.String)
+     */
+    @Override
+    public List<Node> nodes(String name) {
+      int[] indexes = data.childIndexes(name);
+      if (indexes == null) {
+        return new ArrayList<>();
+      }
+      FrozenElement[] children = data.children();
+      List<Node> list = new ArrayList<>(indexes.length);
+      for (int i : indexes) {
+        list.add(new FrozenNode(children[i], this, i, true));
+      }
+      return list;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#parallelVisit(java.util.function.Supplier, java.util.function.BinaryOperator)
+     */
+    @Override
+    public <R> R parallelVisit(Supplier<? extends XmlVisitor<R>> factory, BinaryOperator<R> combiner) {
+      return parallelVisit(ForkJoinPool.commonPool(), factory, combiner);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#parallelVisit(java.util.concurrent.ForkJoinPool, java.util.function.Supplier,
+     *      java.util.function.BinaryOperator)
+     */
+    @Override
+    public <R> R parallelVisit(ForkJoinPool pool, Supplier<? extends XmlVisitor<R>> factory,
+        BinaryOperator<R> combiner) {
+      return pool.invoke(new VisitTask<>(this, factory, combiner));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#parent()
+     */
+    @Override
+    public Node parent() {
+      return parent;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#rawValue()
+     */
+    @Override
+    public Value rawValue() {
+      return Value.valueOf(data.text());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#remove()
+     */
+    @Override
+    public Node remove() throws UnsupportedOperationException {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#removeAttr(info.okoshi.trifulx.Attribute)
+     */
+    @Override
+    public Node removeAttr(Attribute attribute) {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#removeAttr(java.lang.String)
+     */
+    @Override
+    public Node removeAttr(String name) {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#removeAttr(java.lang.String[])
+     */
+    @Override
+    public Node removeAttr(String... candidateNames) {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#removeAttrs(java.util.function.Predicate)
+     */
+    @Override
+    public Node removeAttrs(Predicate<Attribute> predicate) {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#removeChildren()
+     */
+    @Override
+    public Node removeChildren() {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#removeChildren(java.util.function.Predicate)
+     */
+    @Override
+    public Node removeChildren(Predicate<Node> predicate) {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#removeChildren(java.lang.String)
+     */
+    @Override
+    public Node removeChildren(String name) {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#tagName()
+     */
+    @Override
+    public String tagName() {
+      return data.name();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#tryAttr(java.lang.String[])
+     */
+    @Override
+    public Attribute tryAttr(String... candidateNames) {
+      if (candidateNames.length == 0) {
+        throw new IllegalArgumentException("Argument is empty.");
+      }
+      for (String name : candidateNames) {
+        Attribute attr = tryAttr(name);
+        if (attr.exists()) {
+          return attr;
+        }
+      }
+      return tryAttr(candidateNames[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#tryAttr(java.lang.String)
+     */
+    @Override
+    public Attribute tryAttr(String name) {
+      int i = data.attrIndex(name);
+      return new AttributeImpl(name, i < 0 ? Value.valueOf((String) null) : data.attrValue(i));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#tryNode(java.lang.String[])
+     */
+    @Override
+    public Node tryNode(String... candidateNames) {
+      if (candidateNames.length == 0) {
+        throw new IllegalArgumentException("Argument is empty.");
+      }
+      for (String name : candidateNames) {
+        Node node = child(name);
+        if (node != null) {
+          return node;
+        }
+      }
+      return tryNode(candidateNames[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#tryNode(java.lang.String)
+     */
+    @Override
+    public Node tryNode(String name) {
+      Node child = child(name);
+      if (child == null) {
+        XmlMetrics.lookupMissed(name);
+        return new FrozenNode(FrozenElement.fake(name), this, -1, false);
+      }
+      return child;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#value()
+     */
+    @Override
+    public Value value() {
+      return data.value();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#value(info.okoshi.trifulx.Value)
+     */
+    @Override
+    public Node value(Value value) {
+      throw frozen();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#valueBool(boolean)
+     */
+    @Override
+    public boolean valueBool(boolean defaultValue) {
+      return Primitives.parseBoolean(data.text(), true, defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#valueDouble(double)
+     */
+    @Override
+    public double valueDouble(double defaultValue) {
+      return Primitives.parseDouble(data.text(), defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#valueInt(int)
+     */
+    @Override
+    public int valueInt(int defaultValue) {
+      return Primitives.parseInt(data.text(), true, defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#valueLong(long)
+     */
+    @Override
+    public long valueLong(long defaultValue) {
+      return Primitives.parseLong(data.text(), true, defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#visit(info.okoshi.trifulx.XmlVisitor)
+     */
+    @Override
+    public <R> R visit(XmlVisitor<R> visitor) {
+      VisitTask.walk(visitor, this);
+      return visitor.result();
+    }
+
+    /**
+     * Structural hash code of this subtree.<br>
+     * This is computed on freezing, so this takes constant time.<br>
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+      return data.hashCode();
+    }
+
+    /**
+     * Structural equality of this subtree.<br>
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof FrozenNode)) {
+        return false;
+      }
+      FrozenNode other = (FrozenNode) obj;
+      return exists == other.exists && data.equals(other.data);
+    }
+
+    /**
+     * Get element data.<br>
+     *
+     * @return Element data
+     */
+    FrozenElement data() {
+      return data;
+    }
+
+    /**
+     * Get parent node.<br>
+     *
+     * @return Parent node, or <code>null</code> if root node
+     */
+    FrozenNode parentNode() {
+      return parent;
+    }
+
+    /**
+     * Get index in child elements of parent node.<br>
+     *
+     * @return Index, or <code>-1</code> if root node or non existence object
+     */
+    int index() {
+      return index;
+    }
+
+    /**
+     * Get attribute text.<br>
+     *
+     * @param name
+     *          Attribute name
+     * @return Attribute text, or <code>null</code> if not found
+     */
+    private String attrText(String name) {
+      int i = data.attrIndex(name);
+      return i < 0 ? null : data.attrValue(i).stringValue();
+    }
+
+    /**
+     * Find first child node which has no namespace.<br>
+     *
+     * @param name
+     *          Tag name
+     * @return Child node, or <code>null</code> if not found
+     */
+    private Node child(String name) {
+      int[] indexes = data.childIndexes(name);
+      if (indexes == null) {
+        return null;
+      }
+      FrozenElement[] children = data.children();
+      for (int i : indexes) {
+        if (children[i].namespace() == Namespace.NO_NAMESPACE) {
+          return new FrozenNode(children[i], this, i, true);
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Create exception for modification.<br>
+     *
+     * @return Exception
+     */
+    private UnsupportedOperationException frozen() {
+      return new UnsupportedOperationException("Can't modify frozen node.");
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * The element is copied into an immutable snapshot, so later changes of the element aren't visible.<br>
+   *
+   * @see info.okoshi.trifulx.NodeCreator#create(org.jdom2.Element, boolean)
+   */
+  @Override
+  public Node create(Element element, boolean exists) {
+    return new FrozenNode(FrozenElement.of(element), null, -1, exists);
+  }
+}
@@ -0,0 +1,295 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.Iterator;
+
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.filter.Filters;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * {@link XmlEvents} recorded by JDK Flight Recorder.<br>
+ * Events are allocated only while Flight Recorder is initialized and the event type is enabled, and element counts
+ * are computed only when the event is committed. The enabled state is read from the cached {@link EventType}, so
+ * nothing is allocated while no recording enables the event.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+final class JfrXmlEvents extends XmlEvents {
+
+  /** Type of {@link BulkEvent} */
+  private final LazyType bulkType = new LazyType(BulkEvent.class);
+
+  /** Type of {@link ParseEvent} */
+  private final LazyType parseType = new LazyType(ParseEvent.class);
+
+  /** Type of {@link SerializeEvent} */
+  private final LazyType serializeType = new LazyType(SerializeEvent.class);
+
+  /**
+   * Count elements in document.<br>
+   *
+   * @param document
+   *          Document
+   * @return Count of elements
+   */
+  private static int countElements(Document document) {
+    int count = 0;
+    for (Iterator<Element> i = document.getDescendants(Filters.element()); i.hasNext(); i.next()) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Begin event.<br>
+   *
+   * @param event
+   *          Event
+   * @return Event
+   */
+  private static Event begin(Event event) {
+    event.begin();
+    return event;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlEvents#beginBulk()
+   */
+  @Override
+  Object beginBulk() {
+    return bulkType.isEnabled() ? begin(new BulkEvent()) : null;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlEvents#beginParse()
+   */
+  @Override
+  Object beginParse() {
+    return parseType.isEnabled() ? begin(new ParseEvent()) : null;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlEvents#beginSerialize()
+   */
+  @Override
+  Object beginSerialize() {
+    return serializeType.isEnabled() ? begin(new SerializeEvent()) : null;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlEvents#endBulk(java.lang.Object, java.lang.String, java.lang.String, long)
+   */
+  @Override
+  void endBulk(Object event, String operation, String node, long count) {
+    if (event == null) {
+      return;
+    }
+    BulkEvent bulk = (BulkEvent) event;
+    bulk.end();
+    if (bulk.shouldCommit()) {
+      bulk.operation = operation;
+      bulk.node = node;
+      bulk.count = count;
+      bulk.commit();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlEvents#endParse(java.lang.Object, long, org.jdom2.Document, java.lang.String)
+   */
+  @Override
+  void endParse(Object event, long bytes, Document document, String charset) {
+    if (event == null) {
+      return;
+    }
+    ParseEvent parse = (ParseEvent) event;
+    parse.end();
+    if (parse.shouldCommit()) {
+      parse.size = bytes;
+      parse.elements = countElements(document);
+      parse.charset = charset;
+      parse.commit();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlEvents#endSerialize(java.lang.Object, java.lang.String, long, org.jdom2.Document,
+   *      java.lang.String, info.okoshi.trifulx.FormatTypes)
+   */
+  @Override
+  void endSerialize(Object event, String operation, long size, Document document, String charset,
+      FormatTypes types) {
+    if (event == null) {
+      return;
+    }
+    SerializeEvent serialize = (SerializeEvent) event;
+    serialize.end();
+    if (serialize.shouldCommit()) {
+      serialize.operation = operation;
+      serialize.size = size;
+      serialize.elements = countElements(document);
+      serialize.charset = charset;
+      serialize.format = types.name();
+      serialize.commit();
+    }
+  }
+
+  /**
+   * {@link EventType} looked up on first use after Flight Recorder is initialized.<br>
+   */
+  private static final class LazyType {
+
+    /** Event class */
+    private final Class<? extends Event> eventClass;
+
+    /** Event type, or <code>null</code> if not looked up yet */
+    private volatile EventType type;
+
+    /**
+     * Create {@link LazyType} instance.<br>
+     *
+     * @param eventClass
+     *          Event class
+     */
+    LazyType(Class<? extends Event> eventClass) {
+      this.eventClass = eventClass;
+    }
+
+    /**
+     * Enabled or not.<br>
+     *
+     * @return <code>true</code> means Flight Recorder is initialized and the event type is enabled
+     */
+    boolean isEnabled() {
+      EventType current = type;
+      if (current == null) {
+        if (!FlightRecorder.isInitialized()) {
+          return false;
+        }
+        current = EventType.getEventType(eventClass);
+        type = current;
+      }
+      return current.isEnabled();
+    }
+  }
+
+  /**
+   * Event of bulk operation of nodes.<br>
+   */
+  @Name("info.okoshi.trifulx.Bulk")
+  @Label("XML Bulk Operation")
+  @Category({ "trifulx" })
+  @Description("Bulk operation of nodes, such as adding or removing children and batched edits")
+  static final class BulkEvent extends Event {
+
+    /** Name of operation */
+    @Label("Operation")
+    String operation;
+
+    /** Tag name of target node */
+    @Label("Node")
+    String node;
+
+    /** Count of affected nodes or edits */
+    @Label("Count")
+    long count;
+  }
+
+  /**
+   * Event of parsing.<br>
+   */
+  @Name("info.okoshi.trifulx.Parse")
+  @Label("XML Parse")
+  @Category({ "trifulx" })
+  @Description("Parsing XML document")
+  static final class ParseEvent extends Event {
+
+    /** Size of input */
+    @Label("Document Size")
+    @DataAmount
+    long size;
+
+    /** Count of elements */
+    @Label("Element Count")
+    int elements;
+
+    /** Detected character set */
+    @Label("Charset")
+    String charset;
+  }
+
+  /**
+   * Event of serialization.<br>
+   */
+  @Name("info.okoshi.trifulx.Serialize")
+  @Label("XML Serialize")
+  @Category({ "trifulx" })
+  @Description("Saving XML document to stream or converting it to text")
+  static final class SerializeEvent extends Event {
+
+    /** Name of operation, save or text */
+    @Label("Operation")
+    String operation;
+
+    /** Size of output, in bytes for saving, and in characters for text */
+    @Label("Output Size")
+    long size;
+
+    /** Count of elements */
+    @Label("Element Count")
+    int elements;
+
+    /** Character set */
+    @Label("Charset")
+    String charset;
+
+    /** Type of formatting */
+    @Label("Format")
+    String format;
+  }
+}
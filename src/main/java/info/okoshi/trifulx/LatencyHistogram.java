@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in power of two buckets.<br>
+ * Bucket <code>i</code> counts latencies in <code>[2^(i-1), 2^i)</code> nanoseconds, and bucket <code>0</code>
+ * counts zero.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+final class LatencyHistogram {
+
+  /** Number of buckets */
+  static final int BUCKETS = Long.SIZE;
+
+  /** Counts of buckets */
+  private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+  /** Total count */
+  private final LongAdder count = new LongAdder();
+
+  /** Total latency in nanoseconds */
+  private final LongAdder totalNanos = new LongAdder();
+
+  /**
+   * Create {@link LatencyHistogram} instance.<br>
+   */
+  LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Get counts of buckets.<br>
+   *
+   * @return Counts
+   */
+  long[] buckets() {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+    }
+    return counts;
+  }
+
+  /**
+   * Get total count.<br>
+   *
+   * @return Count
+   */
+  long count() {
+    return count.sum();
+  }
+
+  /**
+   * Record latency.<br>
+   *
+   * @param nanos
+   *          Latency in nanoseconds
+   */
+  void record(long nanos) {
+    long value = Math.max(nanos, 0);
+    buckets[Math.min(BUCKETS - Long.numberOfLeadingZeros(value), BUCKETS - 1)].increment();
+    count.increment();
+    totalNanos.add(value);
+  }
+
+  /**
+   * Clear all counts.<br>
+   */
+  void reset() {
+    for (LongAdder bucket : buckets) {
+      bucket.reset();
+    }
+    count.reset();
+    totalNanos.reset();
+  }
+
+  /**
+   * Get total latency.<br>
+   *
+   * @return Total latency in nanoseconds
+   */
+  long totalNanos() {
+    return totalNanos.sum();
+  }
+}
@@ -24,7 +24,11 @@
 package info.okoshi.trifulx;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * The trifulx node interface.<br>
@@ -36,6 +40,35 @@ import java.util.function.Predicate;
  */
 public interface Node {
 
+  /**
+   * Append a new child node.<br>
+   * Unlike {@link #node(Node)}, the appended node isn't a copy but the live child node.<br>
+   *
+   * <pre>
+   * {@code
+   * Xml xml = Xml.create("root");
+   * xml.root().addChild("data").value(Value.valueOf("foobar"));
+   * }
+   * </pre>
+   *
+   * @param name
+   *          Tag name
+   * @return Appended child node
+   */
+  Node addChild(String name);
+
+  /**
+   * Append new child nodes at once.<br>
+   * The list of child nodes is extended only once for all nodes.<br>
+   *
+   * @param name
+   *          Tag name
+   * @param count
+   *          Number of child nodes
+   * @return List of appended child nodes
+   */
+  List<Node> addChildren(String name, int count);
+
   /**
    * Set attribute to node.<br>
    *
@@ -65,6 +98,63 @@ public interface Node {
    */
   Node attr(String name, Value value);
 
+  /**
+   * Get attribute as boolean.<br>
+   * Parsed same as {@link Value#booleanValue()} without any allocation.<br>
+   *
+   * @param name
+   *          Attribute name
+   * @param defaultValue
+   *          Default value for non existence or empty attribute
+   * @return Attribute value
+   */
+  boolean attrBool(String name, boolean defaultValue);
+
+  /**
+   * Get attribute as double.<br>
+   * Parsed without any allocation for most decimal values.<br>
+   * Leading and trailing white spaces are ignored, as {@link Value#doubleValue()} does.<br>
+   *
+   * @param name
+   *          Attribute name
+   * @param defaultValue
+   *          Default value for non existence, empty or malformed attribute
+   * @return Attribute value
+   */
+  double attrDouble(String name, double defaultValue);
+
+  /**
+   * Get attribute as int.<br>
+   * Parsed without any allocation.<br>
+   *
+   * <pre>
+   * {@code
+   * <any size="10" />
+   *
+   * int size = foo.attrInt("size", 0); // "foo" is a node object.
+   * }
+   * </pre>
+   *
+   * @param name
+   *          Attribute name
+   * @param defaultValue
+   *          Default value for non existence, empty or malformed attribute
+   * @return Attribute value
+   */
+  int attrInt(String name, int defaultValue);
+
+  /**
+   * Get attribute as long.<br>
+   * Parsed without any allocation.<br>
+   *
+   * @param name
+   *          Attribute name
+   * @param defaultValue
+   *          Default value for non existence, empty or malformed attribute
+   * @return Attribute value
+   */
+  long attrLong(String name, long defaultValue);
+
   /**
    * Makeing a list of attribute names.<br>
    *
@@ -99,6 +189,27 @@ public interface Node {
    */
   Node copyTo(Node node) throws UnsupportedOperationException, IllegalArgumentException;
 
+  /**
+   * Edit nodes in one pass.<br>
+   * Edits recorded by the editor are applied after the editor returns.<br>
+   *
+   * <pre>
+   * {@code
+   * root.edit(batch -> {
+   *   for (Node node : root.nodes("item")) {
+   *     batch.attr(node, "checked", Value.valueOf(true));
+   *   }
+   *   batch.remove(root.node("obsolete"));
+   * });
+   * }
+   * </pre>
+   *
+   * @param editor
+   *          Editor records edits to {@link NodeBatch}
+   * @return Self object
+   */
+  Node edit(Consumer<NodeBatch> editor);
+
   /**
    * Node existence.<br>
    *
@@ -108,14 +219,15 @@ public interface Node {
 
   /**
    * Move to child of specified node.<br>
+   * Self node is detached from current parent and appended to specified node without copying.<br>
    *
    * @param node
    *          {@link Node} object
    * @return Self object
    * @throws UnsupportedOperationException
-   *           Tried move non existence object
+   *           Tried move non existence object or root node
    * @throws IllegalArgumentException
-   *           Tried move to non existence object
+   *           Tried move to non existence object or own descendant
    */
   Node moveTo(Node node) throws UnsupportedOperationException, IllegalArgumentException;
 
@@ -163,6 +275,34 @@ public interface Node {
    */
   List<Node> nodes(String name);
 
+  /**
+   * Visit this subtree in parallel.<br>
+   * Sibling subtrees are split across {@link ForkJoinPool#commonPool()}, and results of each visitor are
+   * combined in document order.<br>
+   * The tree must not be modified while visiting.<br>
+   *
+   * @param factory
+   *          Factory of visitors, called once per forked part of the tree
+   * @param combiner
+   *          Associative function to combine results
+   * @return Combined result
+   */
+  <R> R parallelVisit(Supplier<? extends XmlVisitor<R>> factory, BinaryOperator<R> combiner);
+
+  /**
+   * Visit this subtree in parallel on specified pool.<br>
+   *
+   * @param pool
+   *          Fork-join pool
+   * @param factory
+   *          Factory of visitors, called once per forked part of the tree
+   * @param combiner
+   *          Associative function to combine results
+   * @return Combined result
+   * @see #parallelVisit(Supplier, BinaryOperator)
+   */
+  <R> R parallelVisit(ForkJoinPool pool, Supplier<? extends XmlVisitor<R>> factory, BinaryOperator<R> combiner);
+
   /**
    * Get parent node.<br>
    *
@@ -170,6 +310,15 @@ public interface Node {
    */
   Node parent();
 
+  /**
+   * Get value inside tag text without normalizing white spaces.<br>
+   * Faster than {@link #value()} when callers don't need normalization.<br>
+   *
+   * @return Value
+   * @see #value()
+   */
+  Value rawValue();
+
   /**
    * Remove self node from parent.<be>
    * 
@@ -217,8 +366,22 @@ public interface Node {
    */
   Node removeChildren();
 
+  /**
+   * Remove child nodes matching the predicate.<br>
+   *
+   * @param predicate
+   *          Predicate
+   * @return Self object
+   */
   Node removeChildren(Predicate<Node> predicate);
 
+  /**
+   * Remove child nodes using specified tag name.<br>
+   *
+   * @param name
+   *          Tag name
+   * @return Self object
+   */
   Node removeChildren(String name);
 
   /**
@@ -236,6 +399,15 @@ public interface Node {
 
   Node tryNode(String... candidateNames);
 
+  /**
+   * Visit this subtree in depth-first order.<br>
+   *
+   * @param visitor
+   *          Visitor
+   * @return Result of visitor
+   */
+  <R> R visit(XmlVisitor<R> visitor);
+
   /**
    * Get value inside tag text.<br>
    * 
@@ -250,6 +422,8 @@ public interface Node {
    * }
    * </pre>
    *
+   * Normalized text is cached until content of the node is modified.<br>
+   *
    * @return Value
    */
   Value value();
@@ -278,4 +452,44 @@ public interface Node {
    * @return Self object
    */
   Node value(Value value);
+
+  /**
+   * Get value inside tag text as boolean.<br>
+   * Leading and trailing white spaces are ignored.<br>
+   *
+   * @param defaultValue
+   *          Default value for empty text
+   * @return Value
+   */
+  boolean valueBool(boolean defaultValue);
+
+  /**
+   * Get value inside tag text as double.<br>
+   * Leading and trailing white spaces are ignored.<br>
+   *
+   * @param defaultValue
+   *          Default value for empty or malformed text
+   * @return Value
+   */
+  double valueDouble(double defaultValue);
+
+  /**
+   * Get value inside tag text as int.<br>
+   * Leading and trailing white spaces are ignored.<br>
+   *
+   * @param defaultValue
+   *          Default value for empty or malformed text
+   * @return Value
+   */
+  int valueInt(int defaultValue);
+
+  /**
+   * Get value inside tag text as long.<br>
+   * Leading and trailing white spaces are ignored.<br>
+   *
+   * @param defaultValue
+   *          Default value for empty or malformed text
+   * @return Value
+   */
+  long valueLong(long defaultValue);
 }
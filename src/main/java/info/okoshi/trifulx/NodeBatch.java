@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+/**
+ * Recorder of node edits applied at once.<br>
+ * Edits are not visible until the batch is committed by {@link Node#edit(java.util.function.Consumer)}.<br>
+ * Edits are applied in recorded order, so the result is the same as calling them one by one. Child edits are
+ * grouped by parent node so each parent's child list is rebuilt only once, unless a node copied later contains
+ * the parent.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public interface NodeBatch {
+
+  /**
+   * Set attribute to node.<br>
+   *
+   * @param node
+   *          Target node
+   * @param name
+   *          Attribute name
+   * @param value
+   *          Attribute value
+   * @return Self object
+   */
+  NodeBatch attr(Node node, String name, Value value);
+
+  /**
+   * Append a copy of child node.<br>
+   * The child node is copied on commit, including edits recorded before this call but not the ones after it.<br>
+   * This method does nothing if specified child node isn't exists.<br>
+   *
+   * @param parent
+   *          Parent node
+   * @param child
+   *          Child node
+   * @return Self object
+   * @throws IllegalArgumentException
+   *           Tried append to non existence object
+   */
+  NodeBatch node(Node parent, Node child) throws IllegalArgumentException;
+
+  /**
+   * Remove node from parent.<br>
+   *
+   * @param node
+   *          Target node
+   * @return Self object
+   * @throws UnsupportedOperationException
+   *           Target node is root node or non existence object
+   */
+  NodeBatch remove(Node node) throws UnsupportedOperationException;
+
+  /**
+   * Remove attribute.<br>
+   *
+   * @param node
+   *          Target node
+   * @param name
+   *          Attribute name
+   * @return Self object
+   */
+  NodeBatch removeAttr(Node node, String name);
+
+  /**
+   * Set value to inside XML.<br>
+   * This replaces all contents of the node, including child nodes appended before in this batch.<br>
+   *
+   * @param node
+   *          Target node
+   * @param value
+   *          Value
+   * @return Self object
+   */
+  NodeBatch value(Node node, Value value);
+}
@@ -43,4 +43,14 @@ public interface NodeCreator {
    * @return
    */
   Node create(Element element, boolean exists);
+
+  /**
+   * Priority to be chosen by {@link NodeCreatorLoader}.<br>
+   * The provider which has the highest priority is chosen.<br>
+   *
+   * @return Priority, default is <code>0</code>
+   */
+  default int priority() {
+    return 0;
+  }
 }
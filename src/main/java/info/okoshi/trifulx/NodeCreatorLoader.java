@@ -27,21 +27,103 @@ import java.util.ServiceLoader;
 
 /**
  * {@link NodeCreator} implementaion loader.<br>
+ * The implementation is resolved on first use, and cached. If resolution fails, nothing is cached and every
+ * later call fails in the same way.<br>
+ * If system property {@value #PROPERTY} is set, the {@link NodeCreator} of the class name is used. Otherwise,
+ * the provider which has the highest {@link NodeCreator#priority()} among providers registered to
+ * {@link ServiceLoader} is used.<br>
+ * Providers and classes are looked up by the context class loader of the calling thread, and then by the class
+ * loader of this library.<br>
+ * {@link FrozenNodeCreator} is never used, because it copies the whole element on each call of
+ * {@link Xml#root()}. Use {@link Xml#freeze()} or {@link Xml#creator(NodeCreator)} for frozen nodes instead.<br>
  *
  * @version 1.0.0
  * @author okosheep
  */
 public class NodeCreatorLoader {
 
-  /** Service loader object */
-  private static final ServiceLoader<NodeCreator> LOADER = ServiceLoader.load(NodeCreator.class);
+  /** System property name to specify class name of {@link NodeCreator} */
+  public static final String PROPERTY = "info.okoshi.trifulx.nodeCreator";
+
+  /** Resolved {@link NodeCreator}, or <code>null</code> if not resolved yet */
+  private static volatile NodeCreator creator;
 
   /**
    * Load {@link NodeCreator} object.<br>
    *
    * @return {@link NodeCreator} object.
+   * @throws IllegalStateException
+   *           {@link NodeCreator} specified by system property can't be loaded
+   */
+  public static NodeCreator load() throws IllegalStateException {
+    NodeCreator resolved = creator;
+    if (resolved == null) {
+      synchronized (NodeCreatorLoader.class) {
+        resolved = creator;
+        if (resolved == null) {
+          resolved = resolve(System.getProperty(PROPERTY));
+          creator = resolved;
+        }
+      }
+    }
+    return resolved;
+  }
+
+  /**
+   * Resolve {@link NodeCreator} object.<br>
+   *
+   * @param className
+   *          Class name of {@link NodeCreator}, or <code>null</code> to choose by priority
+   * @return {@link NodeCreator} object
+   * @throws IllegalStateException
+   *           {@link NodeCreator} of the class name can't be loaded, or is {@link FrozenNodeCreator}
+   */
+  static NodeCreator resolve(String className) throws IllegalStateException {
+    if (FrozenNodeCreator.class.getName().equals(className)) {
+      throw new IllegalStateException("Can't load node creator: " + className
+          + ", use Xml.freeze() or Xml.creator(NodeCreator) instead.");
+    }
+    NodeCreator resolved = null;
+    for (ClassLoader loader : loaders()) {
+      for (NodeCreator provider : ServiceLoader.load(NodeCreator.class, loader)) {
+        if (provider instanceof FrozenNodeCreator) {
+          continue;
+        } else if (className != null) {
+          if (provider.getClass().getName().equals(className)) {
+            return provider;
+          }
+        } else if (resolved == null || provider.priority() > resolved.priority()) {
+          resolved = provider;
+        }
+      }
+    }
+    if (className != null) {
+      ReflectiveOperationException cause = null;
+      for (ClassLoader loader : loaders()) {
+        try {
+          return (NodeCreator) TypeCache.newInstance(TypeCache.forName(className, loader));
+        } catch (ReflectiveOperationException e) {
+          cause = e;
+        } catch (ClassCastException e) {
+          throw new IllegalStateException("Can't load node creator: " + className, e);
+        }
+      }
+      throw new IllegalStateException("Can't load node creator: " + className, cause);
+    }
+    return resolved != null ? resolved : new NodeImplCreator();
+  }
+
+  /**
+   * Get class loaders to look up {@link NodeCreator}.<br>
+   *
+   * @return Context class loader of the current thread if set, and class loader of this library
    */
-  public static NodeCreator load() {
-    return LOADER.iterator().next();
+  private static ClassLoader[] loaders() {
+    ClassLoader library = NodeCreatorLoader.class.getClassLoader();
+    ClassLoader context = Thread.currentThread().getContextClassLoader();
+    if (context == null || context == library) {
+      return new ClassLoader[] { library };
+    }
+    return new ClassLoader[] { context, library };
   }
 }
@@ -24,14 +24,23 @@
 package info.okoshi.trifulx;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.jdom2.Content;
 import org.jdom2.Element;
+import org.jdom2.Namespace;
 
 /**
  * {@link Node} implementation creator.<br>
@@ -69,6 +78,39 @@ public class NodeImplCreator implements NodeCreator {
     private NodeImpl(Element element, boolean exists) {
       this.element = element;
       this.exists = exists;
+      XmlMetrics.wrapperCreated();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#addChild(java.lang.String)
+     */
+    @Override
+    public Node addChild(String name) {
+      Element child = new TrifulxElement(name);
+      element.addContent(child);
+      return new NodeImpl(child, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#addChildren(java.lang.String, int)
+     */
+    @Override
+    public List<Node> addChildren(String name, int count) {
+      Object event = XmlEvents.INSTANCE.beginBulk();
+      List<Element> children = new ArrayList<>(count);
+      List<Node> list = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        Element child = new TrifulxElement(name);
+        children.add(child);
+        list.add(new NodeImpl(child, true));
+      }
+      element.addContent(children);
+      XmlEvents.INSTANCE.endBulk(event, "addChildren", element.getName(), count);
+      return list;
     }
 
     /**
@@ -91,7 +133,7 @@ public class NodeImplCreator implements NodeCreator {
     public Attribute attr(String name) {
       Value value = Value.valueOf(element.getAttributeValue(name));
       if (!value.exists()) {
-        throw new ParseException("\"" + name + "\" attribute is not found.");
+        throw ParseException.of("\"" + name + "\" attribute is not found.");
       }
       return new AttributeImpl(name, value);
     }
@@ -113,6 +155,46 @@ public class NodeImplCreator implements NodeCreator {
       return this;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attrBool(java.lang.String, boolean)
+     */
+    @Override
+    public boolean attrBool(String name, boolean defaultValue) {
+      return Primitives.parseBoolean(element.getAttributeValue(name), false, defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attrDouble(java.lang.String, double)
+     */
+    @Override
+    public double attrDouble(String name, double defaultValue) {
+      return Primitives.parseDouble(element.getAttributeValue(name), defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attrInt(java.lang.String, int)
+     */
+    @Override
+    public int attrInt(String name, int defaultValue) {
+      return Primitives.parseInt(element.getAttributeValue(name), false, defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#attrLong(java.lang.String, long)
+     */
+    @Override
+    public long attrLong(String name, long defaultValue) {
+      return Primitives.parseLong(element.getAttributeValue(name), false, defaultValue);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -160,9 +242,23 @@ public class NodeImplCreator implements NodeCreator {
       if (!node.exists()) {
         throw new IllegalArgumentException("Can't move to non existence object.");
       }
-      Element copied = element.clone();
-      copied.detach();
-      node.node(new NodeImpl(copied, exists));
+
+      target(node).addContent(element.clone());
+      return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#edit(java.util.function.Consumer)
+     */
+    @Override
+    public Node edit(Consumer<NodeBatch> editor) {
+      NodeBatchImpl batch = new NodeBatchImpl();
+      editor.accept(batch);
+      Object event = XmlEvents.INSTANCE.beginBulk();
+      int count = batch.commit();
+      XmlEvents.INSTANCE.endBulk(event, "edit", element.getName(), count);
       return this;
     }
 
@@ -189,8 +285,18 @@ public class NodeImplCreator implements NodeCreator {
       if (!node.exists()) {
         throw new IllegalArgumentException("Can't move to non existence object.");
       }
-      node.node(this);
-      remove();
+      if (element.isRootElement()) {
+        throw new UnsupportedOperationException("Can't move root node.");
+      }
+
+      Element target = target(node);
+      for (Element ancestor = target; ancestor != null; ancestor = ancestor.getParentElement()) {
+        if (ancestor == element) {
+          throw new IllegalArgumentException("Can't move to own descendant.");
+        }
+      }
+      element.detach();
+      target.addContent(element);
       return this;
     }
 
@@ -205,8 +311,9 @@ public class NodeImplCreator implements NodeCreator {
         return this;
       }
 
-      // If developer uses NodeImpl class, developer can only use NodeImpl class.
-      return ((NodeImpl) node).append(element);
+      Element copied = copy(node);
+      element.addContent(copied);
+      return new NodeImpl(copied, true);
     }
 
     /**
@@ -218,7 +325,7 @@ public class NodeImplCreator implements NodeCreator {
     public Node node(String name) {
       Element child = element.getChild(name);
       if (child == null) {
-        throw new ParseException("\"" + name + "\" node is not found.");
+        throw ParseException.of("\"" + name + "\" node is not found.");
       }
       return new NodeImpl(child, true);
     }
@@ -257,6 +364,28 @@ public class NodeImplCreator implements NodeCreator {
       return nodes(node -> node.tagName().equals(name));
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#parallelVisit(java.util.function.Supplier, java.util.function.BinaryOperator)
+     */
+    @Override
+    public <R> R parallelVisit(Supplier<? extends XmlVisitor<R>> factory, BinaryOperator<R> combiner) {
+      return parallelVisit(ForkJoinPool.commonPool(), factory, combiner);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#parallelVisit(java.util.concurrent.ForkJoinPool, java.util.function.Supplier,
+     *      java.util.function.BinaryOperator)
+     */
+    @Override
+    public <R> R parallelVisit(ForkJoinPool pool, Supplier<? extends XmlVisitor<R>> factory,
+        BinaryOperator<R> combiner) {
+      return pool.invoke(new VisitTask<>(this, factory, combiner));
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -268,6 +397,16 @@ public class NodeImplCreator implements NodeCreator {
       return new NodeImpl(parent, true);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#rawValue()
+     */
+    @Override
+    public Value rawValue() {
+      return Value.valueOf(element.getText());
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -336,14 +475,7 @@ public class NodeImplCreator implements NodeCreator {
      */
     @Override
     public Node removeChildren() {
-      List<Element> children = element.getChildren();
-      Set<String> names = new HashSet<>();
-      for (Element child : children) {
-        names.add(child.getName());
-      }
-      for (String name : names) {
-        element.removeChildren(name);
-      }
+      removeChildElements(element, child -> true);
       return this;
     }
 
@@ -354,7 +486,7 @@ public class NodeImplCreator implements NodeCreator {
      */
     @Override
     public Node removeChildren(Predicate<Node> predicate) {
-      nodes().stream().filter(predicate).forEach(n -> removeChildren(n.tagName()));
+      removeChildElements(element, child -> predicate.test(new NodeImpl(child, true)));
       return this;
     }
 
@@ -365,7 +497,7 @@ public class NodeImplCreator implements NodeCreator {
      */
     @Override
     public Node removeChildren(String name) {
-      element.removeChildren(name);
+      removeChildElements(element, child -> child.getName().equals(name) && child.getNamespace() == Namespace.NO_NAMESPACE);
       return this;
     }
 
@@ -405,7 +537,7 @@ public class NodeImplCreator implements NodeCreator {
      */
     @Override
     public Attribute tryAttr(String name) {
-      Value v = Value.valueOf(Optional.ofNullable(element.getAttributeValue(name)));
+      Value v = Value.valueOf(element.getAttributeValue(name));
       return new AttributeImpl(name, v);
     }
 
@@ -437,11 +569,63 @@ public class NodeImplCreator implements NodeCreator {
     public Node tryNode(String name) {
       Element child = element.getChild(name);
       if (child == null) {
+        XmlMetrics.lookupMissed(name);
         return new NodeImpl(createFakeElement(name), false);
       }
       return new NodeImpl(child, true);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#valueBool(boolean)
+     */
+    @Override
+    public boolean valueBool(boolean defaultValue) {
+      return Primitives.parseBoolean(element.getText(), true, defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#valueDouble(double)
+     */
+    @Override
+    public double valueDouble(double defaultValue) {
+      return Primitives.parseDouble(element.getText(), defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#valueInt(int)
+     */
+    @Override
+    public int valueInt(int defaultValue) {
+      return Primitives.parseInt(element.getText(), true, defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#valueLong(long)
+     */
+    @Override
+    public long valueLong(long defaultValue) {
+      return Primitives.parseLong(element.getText(), true, defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.Node#visit(info.okoshi.trifulx.XmlVisitor)
+     */
+    @Override
+    public <R> R visit(XmlVisitor<R> visitor) {
+      VisitTask.walk(visitor, this);
+      return visitor.result();
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -449,7 +633,7 @@ public class NodeImplCreator implements NodeCreator {
      */
     @Override
     public Value value() {
-      return Value.valueOf(Optional.ofNullable(element.getTextNormalize()));
+      return Value.valueOf(element.getTextNormalize());
     }
 
     /**
@@ -463,11 +647,76 @@ public class NodeImplCreator implements NodeCreator {
       return this;
     }
 
-    private Node append(Element target) {
-      Element newElement = element.clone();
-      newElement.detach();
-      target.addContent(newElement);
-      return new NodeImpl(newElement, true);
+    /**
+     * Get element.<br>
+     *
+     * @return JDOM {@link Element} object
+     */
+    Element element() {
+      return element;
+    }
+
+    /**
+     * Copy element of node.<br>
+     *
+     * @param node
+     *          Existing node
+     * @return Detached copy of element
+     * @throws IllegalArgumentException
+     *           Node is neither {@link NodeImpl} nor {@link FrozenNodeCreator.FrozenNode}
+     */
+    private static Element copy(Node node) throws IllegalArgumentException {
+      if (node instanceof FrozenNodeCreator.FrozenNode) {
+        return ((FrozenNodeCreator.FrozenNode) node).data().toElement();
+      }
+      if (node instanceof NodeImpl) {
+        return ((NodeImpl) node).element.clone();
+      }
+      throw new IllegalArgumentException("Can't copy node of " + node.getClass().getName() + ".");
+    }
+
+    /**
+     * Get element of node to modify.<br>
+     *
+     * @param node
+     *          Target node
+     * @return JDOM {@link Element} object
+     * @throws IllegalArgumentException
+     *           Node isn't {@link NodeImpl}, such as a node of frozen XML
+     */
+    private static Element target(Node node) throws IllegalArgumentException {
+      if (!(node instanceof NodeImpl)) {
+        throw new IllegalArgumentException("Can't modify node of " + node.getClass().getName() + ".");
+      }
+      return ((NodeImpl) node).element;
+    }
+
+    /**
+     * Remove child elements matching the predicate in a single pass.<br>
+     * The predicate is evaluated for all children before the content list is modified, and the
+     * remaining content (including text and comments) is put back at once, so this takes linear time
+     * regardless of how many children are removed.<br>
+     *
+     * @param element
+     *          Parent element
+     * @param predicate
+     *          Condition of child elements to remove
+     */
+    private static void removeChildElements(Element element, Predicate<Element> predicate) {
+      Object event = XmlEvents.INSTANCE.beginBulk();
+      List<Content> contents = element.getContent();
+      List<Content> remains = new ArrayList<>(contents.size());
+      for (Content content : contents) {
+        if (!(content instanceof Element) || !predicate.test((Element) content)) {
+          remains.add(content);
+        }
+      }
+      int removed = contents.size() - remains.size();
+      if (removed > 0) {
+        element.removeContent();
+        element.addContent(remains);
+      }
+      XmlEvents.INSTANCE.endBulk(event, "removeChildren", element.getName(), removed);
     }
 
     /**
@@ -484,6 +733,217 @@ public class NodeImplCreator implements NodeCreator {
     }
   }
 
+  /**
+   * {@link NodeBatch} implementation for {@link NodeImpl}.<br>
+   *
+   * @version 1.0.0
+   * @author okosheep
+   */
+  private static class NodeBatchImpl implements NodeBatch {
+
+    /**
+     * Child edits of a parent element.<br>
+     */
+    private static class ChildEdits {
+
+      /** Text replacing all contents, or <code>null</code> */
+      private String text;
+
+      /** Child elements to remove */
+      private final Set<Element> removals = Collections.newSetFromMap(new IdentityHashMap<>());
+
+      /** Child elements to append */
+      private final List<Element> appends = new ArrayList<>();
+    }
+
+    /** Edits in recorded order, applied by {@link #commit()} */
+    private final List<Runnable> recorded = new ArrayList<>();
+
+    /** Child edits grouped by parent element, pending until flushed on commit */
+    private final Map<Element, ChildEdits> pending = new LinkedHashMap<>();
+
+    /** Count of applied edits */
+    private int count;
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.NodeBatch#attr(info.okoshi.trifulx.Node, java.lang.String, info.okoshi.trifulx.Value)
+     */
+    @Override
+    public NodeBatch attr(Node node, String name, Value value) {
+      if (name == null) {
+        throw new IllegalArgumentException("Argument \"name\" is not must be null.");
+      }
+      if (value == null) {
+        throw new IllegalArgumentException("Argument \"value\" is not must be null.");
+      }
+      Element element = NodeImpl.target(node);
+      String text = value.stringValue();
+      recorded.add(() -> {
+        element.setAttribute(name, text);
+        count++;
+      });
+      return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.NodeBatch#node(info.okoshi.trifulx.Node, info.okoshi.trifulx.Node)
+     */
+    @Override
+    public NodeBatch node(Node parent, Node child) throws IllegalArgumentException {
+      if (!parent.exists()) {
+        throw new IllegalArgumentException("Can't append to non existence object.");
+      }
+      if (!child.exists()) {
+        return this;
+      }
+      Element target = NodeImpl.target(parent);
+      if (!(child instanceof NodeImpl)) {
+        Element copied = NodeImpl.copy(child);
+        recorded.add(() -> edits(target).appends.add(copied));
+        return this;
+      }
+      Element source = ((NodeImpl) child).element;
+      recorded.add(() -> {
+        flush(source);
+        edits(target).appends.add(source.clone());
+      });
+      return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.NodeBatch#remove(info.okoshi.trifulx.Node)
+     */
+    @Override
+    public NodeBatch remove(Node node) throws UnsupportedOperationException {
+      if (!node.exists()) {
+        throw new UnsupportedOperationException("Can't remove non existence object.");
+      }
+      Element element = NodeImpl.target(node);
+      if (element.isRootElement()) {
+        throw new UnsupportedOperationException("Can't remove root node.");
+      }
+      recorded.add(() -> {
+        Element parent = element.getParentElement();
+        if (parent != null) {
+          edits(parent).removals.add(element);
+        }
+      });
+      return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.NodeBatch#removeAttr(info.okoshi.trifulx.Node, java.lang.String)
+     */
+    @Override
+    public NodeBatch removeAttr(Node node, String name) {
+      Element element = NodeImpl.target(node);
+      recorded.add(() -> {
+        element.removeAttribute(name);
+        count++;
+      });
+      return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.NodeBatch#value(info.okoshi.trifulx.Node, info.okoshi.trifulx.Value)
+     */
+    @Override
+    public NodeBatch value(Node node, Value value) {
+      Element element = NodeImpl.target(node);
+      String text = value.stringValue();
+      recorded.add(() -> {
+        ChildEdits edits = edits(element);
+        edits.text = text;
+        edits.removals.clear();
+        edits.appends.clear();
+      });
+      return this;
+    }
+
+    /**
+     * Apply recorded edits in recorded order.<br>
+     * Child edits are held per parent element and flushed at the end, so each parent's contents are rebuilt at
+     * most once, unless a node copied later in the batch contains the parent.<br>
+     *
+     * @return Count of applied edits
+     */
+    private int commit() {
+      recorded.forEach(Runnable::run);
+      flush(null);
+      return count;
+    }
+
+    /**
+     * Get child edits of the parent element.<br>
+     *
+     * @param parent
+     *          Parent element
+     * @return Child edits
+     */
+    private ChildEdits edits(Element parent) {
+      return pending.computeIfAbsent(parent, p -> new ChildEdits());
+    }
+
+    /**
+     * Apply pending child edits of parent elements in the subtree.<br>
+     *
+     * @param subtree
+     *          Root element of subtree, or <code>null</code> to apply all pending child edits
+     */
+    private void flush(Element subtree) {
+      Iterator<Map.Entry<Element, ChildEdits>> iterator = pending.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<Element, ChildEdits> entry = iterator.next();
+        Element parent = entry.getKey();
+        if (subtree != null && !isDescendant(parent, subtree)) {
+          continue;
+        }
+        iterator.remove();
+        ChildEdits edits = entry.getValue();
+        if (edits.text != null) {
+          parent.setText(edits.text);
+          count++;
+        }
+        if (!edits.removals.isEmpty()) {
+          NodeImpl.removeChildElements(parent, edits.removals::contains);
+          count += edits.removals.size();
+        }
+        if (!edits.appends.isEmpty()) {
+          parent.addContent(edits.appends);
+          count += edits.appends.size();
+        }
+      }
+    }
+
+    /**
+     * Element is in the subtree or not.<br>
+     *
+     * @param element
+     *          Element
+     * @param subtree
+     *          Root element of subtree
+     * @return <code>true</code> means the element is the root of subtree or its descendant
+     */
+    private static boolean isDescendant(Element element, Element subtree) {
+      for (Element ancestor = element; ancestor != null; ancestor = ancestor.getParentElement()) {
+        if (ancestor == subtree) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
   /**
    * {@inheritDoc}
    *
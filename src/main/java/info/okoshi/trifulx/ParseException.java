@@ -34,6 +34,25 @@ public class ParseException extends TrifulxException {
   /** Serial version. */
   private static final long serialVersionUID = 3048365317600485383L;
 
+  /** System property name to enable stackless mode */
+  public static final String STACKLESS_PROPERTY = "info.okoshi.trifulx.stacklessParseException";
+
+  /** Stackless mode */
+  private static final boolean STACKLESS = Boolean.getBoolean(STACKLESS_PROPERTY);
+
+  /**
+   * Create {@link ParseException} instance for failure of parsing values.<br>
+   * If system property {@value #STACKLESS_PROPERTY} is <code>true</code>, stack trace isn't filled. This makes
+   * throwing much cheaper for dirty data, which fails parsing frequently.<br>
+   *
+   * @param message
+   *          message
+   * @return {@link ParseException} object
+   */
+  static ParseException of(String message) {
+    return STACKLESS ? new ParseException(message, false) : new ParseException(message);
+  }
+
   /**
    * Create {@link ParseException} instance.<br>
    *
@@ -56,6 +75,18 @@ public class ParseException extends TrifulxException {
     super(message, cause);
   }
 
+  /**
+   * Create {@link ParseException} instance.<br>
+   *
+   * @param message
+   *          message
+   * @param writableStackTrace
+   *          <code>false</code> means stack trace isn't filled
+   */
+  protected ParseException(String message, boolean writableStackTrace) {
+    super(message, writableStackTrace);
+  }
+
   /**
    * Create {@link ParseException} instance.<br>
    *
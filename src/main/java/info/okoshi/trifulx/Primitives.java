@@ -0,0 +1,358 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+/**
+ * Parser of primitive values from characters.<br>
+ * These methods don't allocate any object and don't throw any exception for malformed values, but return the
+ * default value instead.<br>
+ * Only ASCII digits are accepted.<br>
+ * White spaces follow the parsers of <code>java.lang</code>, so accessors of attributes and {@link Value} agree
+ * with {@link Double#parseDouble(String)}, {@link Long#parseLong(String)} and {@link Boolean#parseBoolean(String)}:
+ * double always ignores leading and trailing white spaces, while int, long and boolean ignore them only if
+ * <code>trim</code> is specified, as accessors of element text do.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+final class Primitives {
+
+  /** Powers of ten which are exactly representable as double */
+  private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+  /** Maximum number of digits which are exactly representable as double */
+  private static final int MAX_EXACT_DIGITS = 15;
+
+  /**
+   * Boolean literal or not.<br>
+   * Leading and trailing white spaces are ignored.<br>
+   *
+   * @param text
+   *          Text, or <code>null</code>
+   * @return <code>true</code> means "true" or "false" ignoring case
+   */
+  static boolean isBoolean(String text) {
+    if (text == null) {
+      return false;
+    }
+    int begin = skipLeading(text);
+    int length = skipTrailing(text, begin) - begin;
+    return (length == 4 && text.regionMatches(true, begin, "true", 0, 4))
+        || (length == 5 && text.regionMatches(true, begin, "false", 0, 5));
+  }
+
+  /**
+   * Parse as boolean.<br>
+   * Same as {@link Boolean#parseBoolean(String)} except empty value.<br>
+   *
+   * @param text
+   *          Text, or <code>null</code>
+   * @param trim
+   *          <code>true</code> means ignore leading and trailing white spaces
+   * @param defaultValue
+   *          Default value for <code>null</code> or empty text
+   * @return Parsed value
+   */
+  static boolean parseBoolean(String text, boolean trim, boolean defaultValue) {
+    if (text == null) {
+      return defaultValue;
+    }
+    int begin = trim ? skipLeading(text) : 0;
+    int end = trim ? skipTrailing(text, begin) : text.length();
+    if (begin == end) {
+      return defaultValue;
+    }
+    return end - begin == 4 && text.regionMatches(true, begin, "true", 0, 4);
+  }
+
+  /**
+   * Parse as double.<br>
+   * Decimal values up to 15 significant digits are parsed without any allocation, and others are delegated to
+   * {@link Double#parseDouble(String)}.<br>
+   * Leading and trailing white spaces are always ignored, as {@link Double#parseDouble(String)} does.<br>
+   *
+   * @param text
+   *          Text, or <code>null</code>
+   * @param defaultValue
+   *          Default value for <code>null</code>, empty or malformed text
+   * @return Parsed value
+   */
+  static double parseDouble(String text, double defaultValue) {
+    if (text == null) {
+      return defaultValue;
+    }
+    int begin = skipLeading(text);
+    int end = skipTrailing(text, begin);
+    if (begin == end) {
+      return defaultValue;
+    }
+
+    int i = begin;
+    boolean negative = false;
+    char c = text.charAt(i);
+    if (c == '-' || c == '+') {
+      negative = c == '-';
+      i++;
+    }
+    long mantissa = 0;
+    int digits = 0;
+    int scale = 0;
+    boolean anyDigit = false;
+    boolean point = false;
+    for (; i < end; i++) {
+      c = text.charAt(i);
+      if (c >= '0' && c <= '9') {
+        anyDigit = true;
+        if (mantissa == 0 && c == '0') {
+          if (point) {
+            scale--;
+          }
+          continue;
+        }
+        if (digits >= MAX_EXACT_DIGITS) {
+          return fallbackDouble(text, begin, end, defaultValue);
+        }
+        mantissa = mantissa * 10 + (c - '0');
+        digits++;
+        if (point) {
+          scale--;
+        }
+      } else if (c == '.' && !point) {
+        point = true;
+      } else {
+        break;
+      }
+    }
+    if (!anyDigit) {
+      return isFallbackChar(i < end ? text.charAt(i) : ' ') ? fallbackDouble(text, begin, end, defaultValue)
+          : defaultValue;
+    }
+    if (i < end && (c == 'e' || c == 'E')) {
+      i++;
+      boolean negativeExponent = false;
+      if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+        negativeExponent = text.charAt(i) == '-';
+        i++;
+      }
+      if (i == end) {
+        return defaultValue;
+      }
+      int exponent = 0;
+      for (; i < end; i++) {
+        c = text.charAt(i);
+        if (c < '0' || c > '9') {
+          return isFallbackChar(c) ? fallbackDouble(text, begin, end, defaultValue) : defaultValue;
+        }
+        if (exponent > 1000) {
+          return fallbackDouble(text, begin, end, defaultValue);
+        }
+        exponent = exponent * 10 + (c - '0');
+      }
+      scale += negativeExponent ? -exponent : exponent;
+    }
+    if (i < end) {
+      return isFallbackChar(text.charAt(i)) ? fallbackDouble(text, begin, end, defaultValue) : defaultValue;
+    }
+
+    double value;
+    if (mantissa == 0) {
+      value = 0.0;
+    } else if (scale == 0) {
+      value = mantissa;
+    } else if (scale > 0 && scale <= 22) {
+      value = mantissa * POWERS_OF_TEN[scale];
+    } else if (scale < 0 && scale >= -22) {
+      value = mantissa / POWERS_OF_TEN[-scale];
+    } else {
+      return fallbackDouble(text, begin, end, defaultValue);
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parse as int.<br>
+   * Same as {@link Integer#parseInt(String)} except malformed value.<br>
+   *
+   * @param text
+   *          Text, or <code>null</code>
+   * @param trim
+   *          <code>true</code> means ignore leading and trailing white spaces
+   * @param defaultValue
+   *          Default value for <code>null</code>, empty, malformed or overflowed text
+   * @return Parsed value
+   */
+  static int parseInt(String text, boolean trim, int defaultValue) {
+    long value = parseLong(text, trim, Long.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    return value == Long.MIN_VALUE ? defaultValue : (int) value;
+  }
+
+  /**
+   * Parse as long.<br>
+   * Same as {@link Long#parseLong(String)} except malformed value.<br>
+   *
+   * @param text
+   *          Text, or <code>null</code>
+   * @param trim
+   *          <code>true</code> means ignore leading and trailing white spaces
+   * @param defaultValue
+   *          Default value for <code>null</code>, empty, malformed or overflowed text
+   * @return Parsed value
+   */
+  static long parseLong(String text, boolean trim, long defaultValue) {
+    return parseLong(text, trim, defaultValue, Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  /**
+   * Parse as long in range.<br>
+   *
+   * @param text
+   *          Text, or <code>null</code>
+   * @param trim
+   *          <code>true</code> means ignore leading and trailing white spaces
+   * @param defaultValue
+   *          Default value for <code>null</code>, empty, malformed or out of range text
+   * @param min
+   *          Minimum value
+   * @param max
+   *          Maximum value
+   * @return Parsed value
+   */
+  private static long parseLong(String text, boolean trim, long defaultValue, long min, long max) {
+    if (text == null) {
+      return defaultValue;
+    }
+    int begin = trim ? skipLeading(text) : 0;
+    int end = trim ? skipTrailing(text, begin) : text.length();
+    if (begin == end) {
+      return defaultValue;
+    }
+    int i = begin;
+    boolean negative = false;
+    char c = text.charAt(i);
+    if (c == '-' || c == '+') {
+      negative = c == '-';
+      if (++i == end) {
+        return defaultValue;
+      }
+    }
+
+    // Accumulate negatively to hold Long.MIN_VALUE
+    long limit = negative ? min : -max;
+    long value = 0;
+    for (; i < end; i++) {
+      c = text.charAt(i);
+      if (c < '0' || c > '9') {
+        return defaultValue;
+      }
+      int digit = c - '0';
+      if (value < (limit + digit) / 10) {
+        return defaultValue;
+      }
+      value = value * 10 - digit;
+    }
+    return negative ? value : -value;
+  }
+
+  /**
+   * Parse as double by {@link Double#parseDouble(String)}.<br>
+   *
+   * @param text
+   *          Text
+   * @param begin
+   *          Begin index (inclusive)
+   * @param end
+   *          End index (exclusive)
+   * @param defaultValue
+   *          Default value for malformed text
+   * @return Parsed value
+   */
+  private static double fallbackDouble(String text, int begin, int end, double defaultValue) {
+    try {
+      return Double.parseDouble(text.substring(begin, end));
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Character may be a part of number format which is accepted only by {@link Double#parseDouble(String)}.<br>
+   *
+   * @param c
+   *          Character
+   * @return <code>true</code> means should be delegated
+   */
+  private static boolean isFallbackChar(char c) {
+    return "NIxXpPdDfF".indexOf(c) >= 0;
+  }
+
+  /**
+   * Skip leading white spaces.<br>
+   *
+   * @param text
+   *          Text
+   * @return Index of first non white space character
+   */
+  private static int skipLeading(String text) {
+    int i = 0;
+    while (i < text.length() && isWhitespace(text.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Skip trailing white spaces.<br>
+   *
+   * @param text
+   *          Text
+   * @param begin
+   *          Begin index
+   * @return Index after last non white space character
+   */
+  private static int skipTrailing(String text, int begin) {
+    int i = text.length();
+    while (i > begin && isWhitespace(text.charAt(i - 1))) {
+      i--;
+    }
+    return i;
+  }
+
+  /**
+   * XML white space or not.<br>
+   *
+   * @param c
+   *          Character
+   * @return <code>true</code> means white space
+   */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+  }
+
+  /**
+   * Can't create instance.<br>
+   */
+  private Primitives() {
+  }
+}
@@ -0,0 +1,344 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.jdom2.Content;
+import org.jdom2.DefaultJDOMFactory;
+import org.jdom2.Element;
+import org.jdom2.IllegalAddException;
+import org.jdom2.JDOMFactory;
+import org.jdom2.Namespace;
+import org.jdom2.Parent;
+import org.jdom2.Text;
+import org.jdom2.filter.Filter;
+
+/**
+ * JDOM {@link Element} which caches text.<br>
+ * Concatenated text and normalized text are computed once, and cleared by modification of content through
+ * {@link Element} methods.<br>
+ * Modification through the live list of {@link #getContent()} or {@link Text#setText(String)} of child text isn't
+ * tracked, so trifulx doesn't modify content by them.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+class TrifulxElement extends Element {
+
+  /** Factory to create {@link TrifulxElement} on building document */
+  static final JDOMFactory FACTORY = new DefaultJDOMFactory() {
+
+    @Override
+    public Element element(int line, int col, String name) {
+      return new TrifulxElement(name);
+    }
+
+    @Override
+    public Element element(int line, int col, String name, Namespace namespace) {
+      return new TrifulxElement(name, namespace);
+    }
+
+    @Override
+    public Element element(int line, int col, String name, String uri) {
+      return new TrifulxElement(name, uri);
+    }
+
+    @Override
+    public Element element(int line, int col, String name, String prefix, String uri) {
+      return new TrifulxElement(name, prefix, uri);
+    }
+  };
+
+  /** Serial version */
+  private static final long serialVersionUID = -4524431853017014567L;
+
+  /** Cache of concatenated text, or <code>null</code> if not computed */
+  private transient String text;
+
+  /** Cache of normalized text, or <code>null</code> if not computed */
+  private transient String textNormalize;
+
+  /**
+   * Create {@link TrifulxElement} instance with no namespace.<br>
+   *
+   * @param name
+   *          Element name
+   */
+  TrifulxElement(String name) {
+    super(name);
+    XmlMetrics.elementCreated();
+  }
+
+  /**
+   * Create {@link TrifulxElement} instance.<br>
+   *
+   * @param name
+   *          Element name
+   * @param namespace
+   *          Namespace
+   */
+  TrifulxElement(String name, Namespace namespace) {
+    super(name, namespace);
+    XmlMetrics.elementCreated();
+  }
+
+  /**
+   * Create {@link TrifulxElement} instance.<br>
+   *
+   * @param name
+   *          Element name
+   * @param uri
+   *          Namespace URI
+   */
+  TrifulxElement(String name, String uri) {
+    super(name, uri);
+    XmlMetrics.elementCreated();
+  }
+
+  /**
+   * Create {@link TrifulxElement} instance.<br>
+   *
+   * @param name
+   *          Element name
+   * @param prefix
+   *          Namespace prefix
+   * @param uri
+   *          Namespace URI
+   */
+  TrifulxElement(String name, String prefix, String uri) {
+    super(name, prefix, uri);
+    XmlMetrics.elementCreated();
+  }
+
+  /**
+   * Get cached concatenated text.<br>
+   *
+   * @return Cached text, or <code>null</code> if not computed
+   */
+  String cachedText() {
+    return text;
+  }
+
+  /**
+   * Get cached normalized text.<br>
+   *
+   * @return Cached normalized text, or <code>null</code> if not computed
+   */
+  String cachedTextNormalize() {
+    return textNormalize;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#canContainContent(org.jdom2.Content, int, boolean)
+   */
+  @Override
+  public void canContainContent(Content child, int index, boolean replace) throws IllegalAddException {
+    super.canContainContent(child, index, replace);
+    // Every addition and replacement through content list comes here
+    invalidate();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#clone()
+   */
+  @Override
+  public TrifulxElement clone() {
+    TrifulxElement element = (TrifulxElement) super.clone();
+    element.invalidate();
+    return element;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#coalesceText(boolean)
+   */
+  @Override
+  public boolean coalesceText(boolean recursively) {
+    invalidate();
+    return super.coalesceText(recursively);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#getText()
+   */
+  @Override
+  public String getText() {
+    if (text == null) {
+      text = super.getText();
+    }
+    return text;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#getTextNormalize()
+   */
+  @Override
+  public String getTextNormalize() {
+    if (textNormalize == null) {
+      textNormalize = Text.normalizeString(getText());
+    }
+    return textNormalize;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#removeContent()
+   */
+  @Override
+  public List<Content> removeContent() {
+    invalidate();
+    return super.removeContent();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#removeContent(org.jdom2.Content)
+   */
+  @Override
+  public boolean removeContent(Content child) {
+    invalidate();
+    return super.removeContent(child);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#removeContent(org.jdom2.filter.Filter)
+   */
+  @Override
+  public <F extends Content> List<F> removeContent(Filter<F> filter) {
+    invalidate();
+    return super.removeContent(filter);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#removeContent(int)
+   */
+  @Override
+  public Content removeContent(int index) {
+    invalidate();
+    return super.removeContent(index);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#setContent(java.util.Collection)
+   */
+  @Override
+  public Element setContent(Collection<? extends Content> newContent) {
+    invalidate();
+    return super.setContent(newContent);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#setContent(org.jdom2.Content)
+   */
+  @Override
+  public Element setContent(Content child) {
+    invalidate();
+    return super.setContent(child);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#setContent(int, java.util.Collection)
+   */
+  @Override
+  public Parent setContent(int index, Collection<? extends Content> newContent) {
+    invalidate();
+    return super.setContent(index, newContent);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#setContent(int, org.jdom2.Content)
+   */
+  @Override
+  public Element setContent(int index, Content child) {
+    invalidate();
+    return super.setContent(index, child);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#setText(java.lang.String)
+   */
+  @Override
+  public Element setText(String text) {
+    invalidate();
+    return super.setText(text);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#sortContent(java.util.Comparator)
+   */
+  @Override
+  public void sortContent(Comparator<? super Content> comparator) {
+    invalidate();
+    super.sortContent(comparator);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.jdom2.Element#sortContent(org.jdom2.filter.Filter, java.util.Comparator)
+   */
+  @Override
+  public <E extends Content> void sortContent(Filter<E> filter, Comparator<? super E> comparator) {
+    invalidate();
+    super.sortContent(filter, comparator);
+  }
+
+  /**
+   * Clear cached text.<br>
+   */
+  private void invalidate() {
+    text = null;
+    textNormalize = null;
+  }
+}
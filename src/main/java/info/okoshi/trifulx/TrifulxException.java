@@ -56,6 +56,18 @@ public abstract class TrifulxException extends RuntimeException {
     super(message, cause);
   }
 
+  /**
+   * Create {@link TrifulxException} instance.<br>
+   *
+   * @param message
+   *          message
+   * @param writableStackTrace
+   *          <code>false</code> means stack trace isn't filled
+   */
+  protected TrifulxException(String message, boolean writableStackTrace) {
+    super(message, null, true, writableStackTrace);
+  }
+
   /**
    * Create {@link TrifulxException} instance.<br>
    *
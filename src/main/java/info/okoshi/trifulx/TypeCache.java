@@ -0,0 +1,173 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches of resolved classes, constructors and enum constants.<br>
+ * Classes are cached per class loader. Classes of other than the default class loader are weakly referenced, so
+ * caches don't prevent unloading of them.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+final class TypeCache {
+
+  /** No-args constructors as {@link MethodHandle}, or {@link ReflectiveOperationException} on failure */
+  private static final ClassValue<Object> CONSTRUCTORS = new ClassValue<Object>() {
+
+    @Override
+    protected Object computeValue(Class<?> type) {
+      if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers())) {
+        return new InstantiationException(type.getName());
+      }
+      try {
+        return MethodHandles.lookup().findConstructor(type, MethodType.methodType(void.class))
+            .asType(MethodType.methodType(Object.class));
+      } catch (NoSuchMethodException e) {
+        return new InstantiationException(type.getName());
+      } catch (IllegalAccessException e) {
+        return e;
+      }
+    }
+  };
+
+  /** Classes resolved by the default class loader */
+  private static final ConcurrentMap<String, Class<?>> DEFAULT_CLASSES = new ConcurrentHashMap<>();
+
+  /** The default class loader, which loads trifulx */
+  private static final ClassLoader DEFAULT_LOADER = TypeCache.class.getClassLoader();
+
+  /** Enum constants by name */
+  private static final ClassValue<Map<String, Enum<?>>> ENUMS = new ClassValue<Map<String, Enum<?>>>() {
+
+    @Override
+    protected Map<String, Enum<?>> computeValue(Class<?> type) {
+      Map<String, Enum<?>> constants = new HashMap<>();
+      for (Object constant : type.getEnumConstants()) {
+        constants.put(((Enum<?>) constant).name(), (Enum<?>) constant);
+      }
+      return constants;
+    }
+  };
+
+  /** Classes resolved by other class loaders, guarded by itself */
+  private static final Map<ClassLoader, ConcurrentMap<String, WeakReference<Class<?>>>> LOADER_CLASSES =
+      new WeakHashMap<>();
+
+  /**
+   * Get enum constant by name.<br>
+   *
+   * @param enumType
+   *          Enum type
+   * @param name
+   *          Name of constant
+   * @return Enum constant, or <code>null</code> if not found
+   */
+  @SuppressWarnings("unchecked")
+  static <T extends Enum<T>> T enumConstant(Class<T> enumType, String name) {
+    return (T) ENUMS.get(enumType).get(name);
+  }
+
+  /**
+   * Resolve and initialize class.<br>
+   * Same as {@link Class#forName(String, boolean, ClassLoader)} with initialization.<br>
+   *
+   * @param name
+   *          Class name
+   * @param loader
+   *          Class loader, or <code>null</code> for the default class loader
+   * @return {@link Class} object
+   * @throws ClassNotFoundException
+   *           Class name is not found in the class loader
+   */
+  static Class<?> forName(String name, ClassLoader loader) throws ClassNotFoundException {
+    if (loader == null || loader == DEFAULT_LOADER) {
+      Class<?> clazz = DEFAULT_CLASSES.get(name);
+      if (clazz == null) {
+        clazz = Class.forName(name, true, DEFAULT_LOADER);
+        DEFAULT_CLASSES.putIfAbsent(name, clazz);
+      }
+      return clazz;
+    }
+    ConcurrentMap<String, WeakReference<Class<?>>> classes;
+    synchronized (LOADER_CLASSES) {
+      classes = LOADER_CLASSES.computeIfAbsent(loader, key -> new ConcurrentHashMap<>());
+    }
+    WeakReference<Class<?>> reference = classes.get(name);
+    Class<?> clazz = reference != null ? reference.get() : null;
+    if (clazz == null) {
+      clazz = Class.forName(name, true, loader);
+      classes.put(name, new WeakReference<>(clazz));
+    }
+    return clazz;
+  }
+
+  /**
+   * Create new instance by no-args constructor.<br>
+   * Same as {@link Class#newInstance()} except checked exceptions thrown by the constructor are wrapped by
+   * {@link InstantiationException}.<br>
+   *
+   * @param type
+   *          Class to instantiate
+   * @return New instance
+   * @throws InstantiationException
+   *           Class has no no-args constructor, or constructor failed
+   * @throws IllegalAccessException
+   *           Constructor isn't accessible
+   */
+  static Object newInstance(Class<?> type) throws InstantiationException, IllegalAccessException {
+    Object constructor = CONSTRUCTORS.get(type);
+    if (constructor instanceof InstantiationException) {
+      throw new InstantiationException(((InstantiationException) constructor).getMessage());
+    } else if (constructor instanceof IllegalAccessException) {
+      throw new IllegalAccessException(((IllegalAccessException) constructor).getMessage());
+    }
+    try {
+      return (Object) ((MethodHandle) constructor).invokeExact();
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      InstantiationException exception = new InstantiationException(type.getName());
+      exception.initCause(e);
+      throw exception;
+    }
+  }
+
+  /**
+   * Instantiation isn't allowed.<br>
+   */
+  private TypeCache() {
+  }
+}
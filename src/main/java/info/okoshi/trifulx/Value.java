@@ -25,6 +25,9 @@ package info.okoshi.trifulx;
 
 import java.io.Serializable;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -35,16 +38,40 @@ import lombok.ToString;
  * @version 1.0.0
  * @author okosheep
  */
-@ToString
+@ToString(exclude = { "cacheState", "cachedDouble", "cachedLong" })
 @EqualsAndHashCode
 public class Value implements Serializable {
 
+  /** Cache state: {@link #cachedDouble} holds parsed value */
+  private static final int DOUBLE_CACHED = 1;
+
+  /** Cache state: value can't parse as double */
+  private static final int DOUBLE_MALFORMED = 2;
+
   /** Constants of empty string */
   private static final String EMPTY = "";
 
+  /** Shared instance of empty value */
+  private static final Value EMPTY_VALUE = new Value(EMPTY, true);
+
+  /** Shared instance of <code>false</code> value */
+  private static final Value FALSE_VALUE = new Value(Boolean.FALSE.toString(), true);
+
+  /** Cache state: {@link #cachedLong} holds parsed value */
+  private static final int LONG_CACHED = 4;
+
+  /** Cache state: value can't parse as long */
+  private static final int LONG_MALFORMED = 8;
+
+  /** Shared instance of non-existent value */
+  private static final Value NONE_VALUE = new Value(null, false);
+
   /** Serial version */
   private static final long serialVersionUID = 3665368380556518285L;
 
+  /** Shared instance of <code>true</code> value */
+  private static final Value TRUE_VALUE = new Value(Boolean.TRUE.toString(), true);
+
   /**
    * Convert to {@link Value} as {@link Boolean}.<br>
    *
@@ -53,7 +80,7 @@ public class Value implements Serializable {
    * @return {@link Value} object
    */
   public static Value valueOf(Boolean booleanValue) {
-    return valueOf(Optional.ofNullable(String.valueOf(booleanValue.booleanValue())));
+    return booleanValue.booleanValue() ? TRUE_VALUE : FALSE_VALUE;
   }
 
   /**
@@ -64,7 +91,7 @@ public class Value implements Serializable {
    * @return {@link Value} object
    */
   public static Value valueOf(Byte byteValue) {
-    return valueOf(Optional.ofNullable(String.valueOf(byteValue.byteValue())));
+    return valueOf(String.valueOf(byteValue.byteValue()));
   }
 
   /**
@@ -75,7 +102,7 @@ public class Value implements Serializable {
    * @return {@link Value} object
    */
   public static Value valueOf(Character characterValue) {
-    return valueOf(Optional.ofNullable(String.valueOf(characterValue.charValue())));
+    return valueOf(String.valueOf(characterValue.charValue()));
   }
 
   /**
@@ -86,7 +113,7 @@ public class Value implements Serializable {
    * @return {@link Value} object
    */
   public static Value valueOf(Class<?> clazz) {
-    return valueOf(Optional.ofNullable(clazz.getName()));
+    return valueOf(clazz.getName());
   }
 
   /**
@@ -97,7 +124,7 @@ public class Value implements Serializable {
    * @return {@link Value} object
    */
   public static Value valueOf(Double doubleValue) {
-    return valueOf(Optional.ofNullable(String.valueOf(doubleValue.doubleValue())));
+    return valueOf(String.valueOf(doubleValue.doubleValue()));
   }
 
   /**
@@ -108,7 +135,7 @@ public class Value implements Serializable {
    * @return {@link Value} object
    */
   public static Value valueOf(Float floatValue) {
-    return valueOf(Optional.ofNullable(String.valueOf(floatValue.floatValue())));
+    return valueOf(String.valueOf(floatValue.floatValue()));
   }
 
   /**
@@ -119,7 +146,7 @@ public class Value implements Serializable {
    * @return {@link Value} object
    */
   public static Value valueOf(Integer integerValue) {
-    return valueOf(Optional.ofNullable(String.valueOf(integerValue.intValue())));
+    return valueOf(String.valueOf(integerValue.intValue()));
   }
 
   /**
@@ -130,7 +157,7 @@ public class Value implements Serializable {
    * @return {@link Value} object
    */
   public static Value valueOf(Long longValue) {
-    return valueOf(Optional.ofNullable(String.valueOf(longValue.longValue())));
+    return valueOf(String.valueOf(longValue.longValue()));
   }
 
   /**
@@ -141,7 +168,7 @@ public class Value implements Serializable {
    * @return {@link Value} object
    */
   public static Value valueOf(Short shortValue) {
-    return valueOf(Optional.ofNullable(String.valueOf(shortValue.shortValue())));
+    return valueOf(String.valueOf(shortValue.shortValue()));
   }
 
   /**
@@ -152,7 +179,11 @@ public class Value implements Serializable {
    * @return {@link Value} object
    */
   public static Value valueOf(String stringValue) {
-    return valueOf(Optional.ofNullable(stringValue));
+    if (stringValue == null) {
+      return NONE_VALUE;
+    }
+    Value shared = shared(stringValue);
+    return shared != null ? shared : new Value(stringValue, true);
   }
 
   /**
@@ -163,7 +194,7 @@ public class Value implements Serializable {
    * @return {@link Value} object
    */
   public static <T extends Enum<T>> Value valueOf(T enumValue) {
-    return valueOf(Optional.ofNullable(String.valueOf(enumValue.name())));
+    return valueOf(String.valueOf(enumValue.name()));
   }
 
   /**
@@ -174,12 +205,36 @@ public class Value implements Serializable {
    * @return {@link Value} object
    */
   static Value valueOf(Optional<String> optionalStringValue) {
-    if (optionalStringValue.isPresent()) {
-      return new Value(optionalStringValue.get(), true);
+    return valueOf(optionalStringValue.orElse(null));
+  }
+
+  /**
+   * Find shared instance for frequently used value.<br>
+   *
+   * @param stringValue
+   *          Value
+   * @return Shared {@link Value} object, or <code>null</code> if not shared
+   */
+  private static Value shared(String stringValue) {
+    if (stringValue.isEmpty()) {
+      return EMPTY_VALUE;
+    } else if (TRUE_VALUE.value.equals(stringValue)) {
+      return TRUE_VALUE;
+    } else if (FALSE_VALUE.value.equals(stringValue)) {
+      return FALSE_VALUE;
     }
-    return new Value(null, false);
+    return null;
   }
 
+  /** Parsed state of {@link #cachedDouble} and {@link #cachedLong} */
+  private transient volatile int cacheState;
+
+  /** Parsed double value */
+  private transient double cachedDouble;
+
+  /** Parsed long value */
+  private transient long cachedLong;
+
   /** Existence */
   private boolean exists;
 
@@ -201,6 +256,7 @@ public class Value implements Serializable {
 
   /**
    * Activate class type.<br>
+   * Resolved classes are cached.<br>
    *
    * @return {@link Class} object
    * @throws ParseException
@@ -210,7 +266,24 @@ public class Value implements Serializable {
    */
   public Class<?> activateClass() throws ParseException, ClassNotFoundException {
     guard();
-    return Class.forName(value);
+    return TypeCache.forName(value, null);
+  }
+
+  /**
+   * Activate class type by specified class loader.<br>
+   * Resolved classes are cached per class loader.<br>
+   *
+   * @param loader
+   *          Class loader
+   * @return {@link Class} object
+   * @throws ParseException
+   *           Value is empty
+   * @throws ClassNotFoundException
+   *           Class name is not found in the class loader
+   */
+  public Class<?> activateClass(ClassLoader loader) throws ParseException, ClassNotFoundException {
+    guard();
+    return TypeCache.forName(value, loader);
   }
 
   /**
@@ -225,6 +298,17 @@ public class Value implements Serializable {
     return Boolean.valueOf(value);
   }
 
+  /**
+   * Parse value as boolean without exception.<br>
+   *
+   * @param defaultValue
+   *          Default value for empty value
+   * @return Value
+   */
+  public boolean booleanValue(boolean defaultValue) {
+    return Primitives.parseBoolean(value, false, defaultValue);
+  }
+
   /**
    * Parse value as {@link Byte}.<br>
    *
@@ -234,6 +318,9 @@ public class Value implements Serializable {
    */
   public Byte byteValue() throws ParseException {
     guard();
+    if (cacheLong() && cachedLong >= Byte.MIN_VALUE && cachedLong <= Byte.MAX_VALUE) {
+      return Byte.valueOf((byte) cachedLong);
+    }
     return Byte.valueOf(value);
   }
 
@@ -258,9 +345,23 @@ public class Value implements Serializable {
    */
   public Double doubleValue() throws ParseException {
     guard();
+    if (cacheDouble()) {
+      return Double.valueOf(cachedDouble);
+    }
     return Double.valueOf(value);
   }
 
+  /**
+   * Parse value as double without exception.<br>
+   *
+   * @param defaultValue
+   *          Default value for empty or malformed value
+   * @return Value
+   */
+  public double doubleValue(double defaultValue) {
+    return cacheDouble() ? cachedDouble : defaultValue;
+  }
+
   /**
    * Parse value as {@link Enum} type.<br>
    *
@@ -272,12 +373,9 @@ public class Value implements Serializable {
     if (enumType == null) {
       return defaultValue;
     }
-    try {
-      guard();
-      return Enum.valueOf(enumType, value);
-    } catch (IllegalArgumentException e) {
-      return defaultValue;
-    }
+    guard();
+    T constant = TypeCache.enumConstant(enumType, value);
+    return constant != null ? constant : defaultValue;
   }
 
   /**
@@ -310,9 +408,23 @@ public class Value implements Serializable {
    */
   public Integer integerValue() throws ParseException {
     guard();
+    if (cacheInt()) {
+      return Integer.valueOf((int) cachedLong);
+    }
     return Integer.valueOf(value);
   }
 
+  /**
+   * Parse value as int without exception.<br>
+   *
+   * @param defaultValue
+   *          Default value for empty, malformed or overflowed value
+   * @return Value
+   */
+  public int integerValue(int defaultValue) {
+    return cacheInt() ? (int) cachedLong : defaultValue;
+  }
+
   /**
    * Parse value as {@link Long}.<br>
    *
@@ -322,9 +434,23 @@ public class Value implements Serializable {
    */
   public Long longValue() throws ParseException {
     guard();
+    if (cacheLong()) {
+      return Long.valueOf(cachedLong);
+    }
     return Long.valueOf(value);
   }
 
+  /**
+   * Parse value as long without exception.<br>
+   *
+   * @param defaultValue
+   *          Default value for empty, malformed or overflowed value
+   * @return Value
+   */
+  public long longValue(long defaultValue) {
+    return cacheLong() ? cachedLong : defaultValue;
+  }
+
   /**
    * Create new instance from element value.<br>
    *
@@ -344,7 +470,7 @@ public class Value implements Serializable {
   public <T> T newInstance(Class<T> type)
       throws InstantiationException, IllegalAccessException, ParseException, ClassNotFoundException {
     Class<?> clazz = activateClass();
-    return (T) clazz.newInstance();
+    return (T) TypeCache.newInstance(clazz);
   }
 
   /**
@@ -372,6 +498,9 @@ public class Value implements Serializable {
    */
   public Short shortValue() throws ParseException {
     guard();
+    if (cacheLong() && cachedLong >= Short.MIN_VALUE && cachedLong <= Short.MAX_VALUE) {
+      return Short.valueOf((short) cachedLong);
+    }
     return Short.valueOf(value);
   }
 
@@ -384,11 +513,88 @@ public class Value implements Serializable {
    */
   public String stringValue() throws ParseException {
     if (value == null) {
-      throw new ParseException("Can't parse null value.");
+      throw ParseException.of("Can't parse null value.");
     }
     return value;
   }
 
+  /**
+   * Try to parse value as double.<br>
+   *
+   * @return Value, or empty if value is empty or malformed
+   */
+  public OptionalDouble tryDouble() {
+    return cacheDouble() ? OptionalDouble.of(cachedDouble) : OptionalDouble.empty();
+  }
+
+  /**
+   * Try to parse value as int.<br>
+   *
+   * @return Value, or empty if value is empty, malformed or overflowed
+   */
+  public OptionalInt tryInteger() {
+    return cacheInt() ? OptionalInt.of((int) cachedLong) : OptionalInt.empty();
+  }
+
+  /**
+   * Try to parse value as long.<br>
+   *
+   * @return Value, or empty if value is empty, malformed or overflowed
+   */
+  public OptionalLong tryLong() {
+    return cacheLong() ? OptionalLong.of(cachedLong) : OptionalLong.empty();
+  }
+
+  /**
+   * Parse value as double once, and cache it.<br>
+   *
+   * @return <code>true</code> means {@link #cachedDouble} holds parsed value
+   */
+  private boolean cacheDouble() {
+    int state = cacheState;
+    if ((state & (DOUBLE_CACHED | DOUBLE_MALFORMED)) == 0) {
+      double parsed = Primitives.parseDouble(value, Double.NaN);
+      if (!Double.isNaN(parsed) || Double.isNaN(Primitives.parseDouble(value, 0))) {
+        cachedDouble = parsed;
+        state |= DOUBLE_CACHED;
+      } else {
+        state |= DOUBLE_MALFORMED;
+      }
+      // Racing threads may drop each other's flag, which only causes parsing again
+      cacheState = state;
+    }
+    return (state & DOUBLE_CACHED) != 0;
+  }
+
+  /**
+   * Parse value as int once, and cache it.<br>
+   *
+   * @return <code>true</code> means {@link #cachedLong} holds parsed value in int range
+   */
+  private boolean cacheInt() {
+    return cacheLong() && cachedLong >= Integer.MIN_VALUE && cachedLong <= Integer.MAX_VALUE;
+  }
+
+  /**
+   * Parse value as long once, and cache it.<br>
+   *
+   * @return <code>true</code> means {@link #cachedLong} holds parsed value
+   */
+  private boolean cacheLong() {
+    int state = cacheState;
+    if ((state & (LONG_CACHED | LONG_MALFORMED)) == 0) {
+      long parsed = Primitives.parseLong(value, false, 0);
+      if (parsed != 0 || Primitives.parseLong(value, false, 1) == 0) {
+        cachedLong = parsed;
+        state |= LONG_CACHED;
+      } else {
+        state |= LONG_MALFORMED;
+      }
+      cacheState = state;
+    }
+    return (state & LONG_CACHED) != 0;
+  }
+
   /**
    * Guard for empty value.<br>
    *
@@ -397,7 +603,20 @@ public class Value implements Serializable {
    */
   private void guard() throws ParseException {
     if (value == null || EMPTY.equals(value)) {
-      throw new ParseException("Can't parse empty value.");
+      throw ParseException.of("Can't parse empty value.");
+    }
+  }
+
+  /**
+   * Resolve shared instance on deserialization.<br>
+   *
+   * @return Shared {@link Value} object, or this
+   */
+  private Object readResolve() {
+    if (!exists) {
+      return NONE_VALUE;
     }
+    Value shared = value != null ? shared(value) : null;
+    return shared != null ? shared : this;
   }
 }
@@ -0,0 +1,482 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.jdom2.Document;
+import org.jdom2.Namespace;
+
+/**
+ * Copy-on-write versioned XML.<br>
+ * Each commit produces a new immutable {@link Version}, which shares unchanged subtrees with the previous
+ * version. Only the elements on the paths from the root to edited elements are copied, so memory grows with the
+ * size of the change, not the size of the document.<br>
+ * Readers pin a version by {@link #current()} and can read it without locking while a writer commits new
+ * versions.<br>
+ *
+ * <pre>
+ * {@code
+ * VersionedXml versioned = new VersionedXml(new Xml(in));
+ *
+ * // reader thread
+ * Node root = versioned.current().root();
+ *
+ * // writer thread
+ * versioned.commit(batch -> {
+ *   Node root = versioned.current().root();
+ *   batch.attr(root.node("server"), "port", Value.valueOf(8080));
+ * });
+ * }
+ * </pre>
+ *
+ * Comments and processing instructions outside the root element of the source XML aren't kept.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class VersionedXml {
+
+  /**
+   * Immutable version of XML.<br>
+   *
+   * @version 1.0.0
+   * @author okosheep
+   */
+  public static class Version {
+
+    /** Version number */
+    private final long number;
+
+    /** Root element data */
+    private final FrozenElement root;
+
+    /**
+     * Create {@link Version} instance.<br>
+     *
+     * @param number
+     *          Version number
+     * @param root
+     *          Root element data
+     */
+    private Version(long number, FrozenElement root) {
+      this.number = number;
+      this.root = root;
+    }
+
+    /**
+     * Get version number.<br>
+     * The first version is <code>0</code>, and each commit increments it.<br>
+     *
+     * @return Version number
+     */
+    public long number() {
+      return number;
+    }
+
+    /**
+     * Get read-only root node of this version.<br>
+     *
+     * @return Root node
+     */
+    public Node root() {
+      return new FrozenNodeCreator.FrozenNode(root, null, -1, true);
+    }
+
+    /**
+     * Make a mutable copy of this version.<br>
+     *
+     * @return {@link Xml} object
+     */
+    public Xml toXml() {
+      return new Xml(new Document(root.toElement()));
+    }
+  }
+
+  /**
+   * Edits of an element and its descendants.<br>
+   */
+  private static class Edits {
+
+    /** Attribute edits in recorded order, value is <code>null</code> means removal */
+    private final List<String[]> attributes = new ArrayList<>();
+
+    /** Text replacing all contents, or <code>null</code> */
+    private String text;
+
+    /** Indexes of child elements to remove */
+    private final Set<Integer> removals = new HashSet<>();
+
+    /** Child elements to append */
+    private final List<FrozenElement> appends = new ArrayList<>();
+
+    /** Edits of child elements by index */
+    private final Map<Integer, Edits> children = new TreeMap<>();
+  }
+
+  /**
+   * {@link NodeBatch} implementation recording edits of a version.<br>
+   */
+  private static class VersionBatch implements NodeBatch {
+
+    /** Base version */
+    private final Version base;
+
+    /** Edits of root element */
+    private final Edits root = new Edits();
+
+    /**
+     * Create {@link VersionBatch} instance.<br>
+     *
+     * @param base
+     *          Base version
+     */
+    private VersionBatch(Version base) {
+      this.base = base;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.NodeBatch#attr(info.okoshi.trifulx.Node, java.lang.String, info.okoshi.trifulx.Value)
+     */
+    @Override
+    public NodeBatch attr(Node node, String name, Value value) {
+      if (name == null) {
+        throw new IllegalArgumentException("Argument \"name\" is not must be null.");
+      }
+      if (value == null) {
+        throw new IllegalArgumentException("Argument \"value\" is not must be null.");
+      }
+      edits(node).attributes.add(new String[] { name, value.stringValue() });
+      return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.NodeBatch#node(info.okoshi.trifulx.Node, info.okoshi.trifulx.Node)
+     */
+    @Override
+    public NodeBatch node(Node parent, Node child) throws IllegalArgumentException {
+      if (!parent.exists()) {
+        throw new IllegalArgumentException("Can't append to non existence object.");
+      }
+      if (!child.exists()) {
+        return this;
+      }
+      FrozenElement data;
+      if (child instanceof FrozenNodeCreator.FrozenNode) {
+        data = pending((FrozenNodeCreator.FrozenNode) child);
+      } else if (child instanceof NodeImplCreator.NodeImpl) {
+        data = FrozenElement.of(((NodeImplCreator.NodeImpl) child).element());
+      } else {
+        throw new IllegalArgumentException("Can't copy node of " + child.getClass().getName() + ".");
+      }
+      edits(parent).appends.add(data);
+      return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.NodeBatch#remove(info.okoshi.trifulx.Node)
+     */
+    @Override
+    public NodeBatch remove(Node node) throws UnsupportedOperationException {
+      if (!node.exists()) {
+        throw new UnsupportedOperationException("Can't remove non existence object.");
+      }
+      FrozenNodeCreator.FrozenNode frozen = frozen(node);
+      if (frozen.parentNode() == null) {
+        throw new UnsupportedOperationException("Can't remove root node.");
+      }
+      edits(frozen.parentNode()).removals.add(frozen.index());
+      return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.NodeBatch#removeAttr(info.okoshi.trifulx.Node, java.lang.String)
+     */
+    @Override
+    public NodeBatch removeAttr(Node node, String name) {
+      edits(node).attributes.add(new String[] { name, null });
+      return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see info.okoshi.trifulx.NodeBatch#value(info.okoshi.trifulx.Node, info.okoshi.trifulx.Value)
+     */
+    @Override
+    public NodeBatch value(Node node, Value value) {
+      Edits edits = edits(node);
+      edits.text = value.stringValue();
+      edits.removals.clear();
+      edits.appends.clear();
+      edits.children.clear();
+      return this;
+    }
+
+    /**
+     * Get edits of the node, following the path from root node.<br>
+     *
+     * @param node
+     *          Target node
+     * @return Edits
+     */
+    private Edits edits(Node node) {
+      FrozenNodeCreator.FrozenNode frozen = frozen(node);
+      if (!frozen.exists()) {
+        throw new IllegalArgumentException("Can't edit non existence object.");
+      }
+      List<Integer> path = new ArrayList<>();
+      FrozenNodeCreator.FrozenNode current = frozen;
+      while (current.parentNode() != null) {
+        path.add(current.index());
+        current = current.parentNode();
+      }
+      if (current.data() != base.root) {
+        throw new IllegalArgumentException("Node doesn't belong to the current version.");
+      }
+      Edits edits = root;
+      for (int i = path.size() - 1; i >= 0; i--) {
+        edits = edits.children.computeIfAbsent(path.get(i), k -> new Edits());
+      }
+      return edits;
+    }
+
+    /**
+     * Get element data of the node with edits recorded so far.<br>
+     * Edits of the node and its descendants are applied, and edits recorded later aren't.<br>
+     *
+     * @param node
+     *          Frozen node
+     * @return Element data
+     */
+    private FrozenElement pending(FrozenNodeCreator.FrozenNode node) {
+      List<Integer> path = new ArrayList<>();
+      FrozenNodeCreator.FrozenNode current = node;
+      while (current.parentNode() != null) {
+        path.add(current.index());
+        current = current.parentNode();
+      }
+      if (current.data() != base.root) {
+        return node.data();
+      }
+      Edits edits = root;
+      for (int i = path.size() - 1; i >= 0 && edits != null; i--) {
+        edits = edits.children.get(path.get(i));
+      }
+      return edits != null ? apply(node.data(), edits) : node.data();
+    }
+
+    /**
+     * Cast to frozen node.<br>
+     *
+     * @param node
+     *          Node
+     * @return Frozen node
+     */
+    private FrozenNodeCreator.FrozenNode frozen(Node node) {
+      if (!(node instanceof FrozenNodeCreator.FrozenNode)) {
+        throw new IllegalArgumentException("Node doesn't belong to the current version.");
+      }
+      return (FrozenNodeCreator.FrozenNode) node;
+    }
+  }
+
+  /**
+   * Apply edits to the element.<br>
+   * Elements without edits are shared. If the contents aren't replaced, removed nor appended, the index of child
+   * elements and the text are shared too, and the hash code is updated only for the changes.<br>
+   *
+   * @param data
+   *          Element data
+   * @param edits
+   *          Edits of the element
+   * @return New element data
+   */
+  private static FrozenElement apply(FrozenElement data, Edits edits) {
+    if (edits.text != null || !edits.removals.isEmpty() || !edits.appends.isEmpty()) {
+      return rebuild(data, edits);
+    }
+    FrozenElement result = data;
+    if (!edits.children.isEmpty()) {
+      FrozenElement[] children = data.children().clone();
+      for (Map.Entry<Integer, Edits> entry : edits.children.entrySet()) {
+        int index = entry.getKey();
+        children[index] = apply(children[index], entry.getValue());
+      }
+      result = result.withChildren(children);
+    }
+    if (!edits.attributes.isEmpty()) {
+      List<String> names = new ArrayList<>(Arrays.asList(data.attrNames()));
+      List<String> values = new ArrayList<>(Arrays.asList(data.attrValueStrings()));
+      List<Namespace> namespaces = new ArrayList<>(Arrays.asList(data.attrNamespaces()));
+      applyAttributes(edits, names, values, namespaces);
+      result = result.withAttributes(names.toArray(new String[names.size()]),
+          values.toArray(new String[values.size()]), namespaces.toArray(new Namespace[namespaces.size()]));
+    }
+    return result;
+  }
+
+  /**
+   * Apply attribute edits in recorded order.<br>
+   *
+   * @param edits
+   *          Edits of the element
+   * @param names
+   *          Attribute names
+   * @param values
+   *          Attribute values
+   * @param namespaces
+   *          Attribute namespaces
+   */
+  private static void applyAttributes(Edits edits, List<String> names, List<String> values,
+      List<Namespace> namespaces) {
+    for (String[] attribute : edits.attributes) {
+      int index = -1;
+      for (int i = 0; i < names.size(); i++) {
+        if (names.get(i).equals(attribute[0]) && namespaces.get(i) == Namespace.NO_NAMESPACE) {
+          index = i;
+          break;
+        }
+      }
+      if (attribute[1] == null) {
+        if (index >= 0) {
+          names.remove(index);
+          values.remove(index);
+          namespaces.remove(index);
+        }
+      } else if (index >= 0) {
+        values.set(index, attribute[1]);
+      } else {
+        names.add(attribute[0]);
+        values.add(attribute[1]);
+        namespaces.add(Namespace.NO_NAMESPACE);
+      }
+    }
+  }
+
+  /**
+   * Apply edits to the element, rebuilding its contents.<br>
+   *
+   * @param data
+   *          Element data
+   * @param edits
+   *          Edits of the element
+   * @return New element data
+   */
+  private static FrozenElement rebuild(FrozenElement data, Edits edits) {
+    List<String> names = new ArrayList<>(Arrays.asList(data.attrNames()));
+    List<String> values = new ArrayList<>(Arrays.asList(data.attrValueStrings()));
+    List<Namespace> namespaces = new ArrayList<>(Arrays.asList(data.attrNamespaces()));
+    applyAttributes(edits, names, values, namespaces);
+
+    List<Object> content = new ArrayList<>();
+    if (edits.text != null) {
+      if (!edits.text.isEmpty()) {
+        content.add(edits.text);
+      }
+    } else {
+      int index = 0;
+      for (Object item : data.content()) {
+        if (!(item instanceof FrozenElement)) {
+          content.add(item);
+          continue;
+        }
+        int childIndex = index++;
+        if (edits.removals.contains(childIndex)) {
+          continue;
+        }
+        Edits childEdits = edits.children.get(childIndex);
+        content.add(childEdits == null ? item : apply((FrozenElement) item, childEdits));
+      }
+    }
+    content.addAll(edits.appends);
+
+    return data.with(names.toArray(new String[names.size()]), values.toArray(new String[values.size()]),
+        namespaces.toArray(new Namespace[namespaces.size()]), content.toArray());
+  }
+
+  /** Current version */
+  private volatile Version current;
+
+  /**
+   * Create {@link VersionedXml} instance.<br>
+   * The first version is a snapshot of specified XML.<br>
+   *
+   * @param xml
+   *          {@link Xml} object
+   */
+  public VersionedXml(Xml xml) {
+    Node root = xml.root();
+    if (root instanceof FrozenNodeCreator.FrozenNode) {
+      current = new Version(0, ((FrozenNodeCreator.FrozenNode) root).data());
+    } else {
+      current = new Version(0, FrozenElement.of(xml.document().getRootElement()));
+    }
+  }
+
+  /**
+   * Commit edits as a new version.<br>
+   * Edits must target nodes of the current version. Commits are serialized, and readers of older versions aren't
+   * affected.<br>
+   *
+   * @param editor
+   *          Editor records edits to {@link NodeBatch}
+   * @return New version
+   * @throws IllegalArgumentException
+   *           Edits target nodes not belonging to the current version
+   */
+  public synchronized Version commit(Consumer<NodeBatch> editor) throws IllegalArgumentException {
+    Version base = current;
+    VersionBatch batch = new VersionBatch(base);
+    editor.accept(batch);
+    Version version = new Version(base.number + 1, apply(base.root, batch.root));
+    current = version;
+    return version;
+  }
+
+  /**
+   * Get current version.<br>
+   * The returned version is never changed, even if new versions are committed.<br>
+   *
+   * @return Current version
+   */
+  public Version current() {
+    return current;
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Fork-join task visiting sibling subtrees.<br>
+ * Each task has one visitor. While the pool is hungry for tasks, the task forks the latter half of its sibling
+ * range and descends into the first node of the rest, so enter and leave of every node are called on the
+ * visitor of one task. Once the pool has enough tasks, the rest is visited sequentially.<br>
+ * Results are combined in document order, except that leave of the ancestors of a forked range is counted in
+ * the result of the forking task.<br>
+ *
+ * @param <R>
+ *          Type of result
+ * @version 1.0.0
+ * @author okosheep
+ */
+class VisitTask<R> extends RecursiveTask<R> {
+
+  /** Serial version */
+  private static final long serialVersionUID = -1496302829384176032L;
+
+  /** Number of queued tasks to stop splitting */
+  private static final int SURPLUS = 3;
+
+  /**
+   * Visit subtree sequentially.<br>
+   *
+   * @param visitor
+   *          Visitor
+   * @param node
+   *          Root node of subtree
+   */
+  static void walk(XmlVisitor<?> visitor, Node node) {
+    if (!visitor.enter(node)) {
+      visitor.leave(node);
+      return;
+    }
+    Deque<Node> path = new ArrayDeque<>();
+    Deque<Iterator<Node>> iterators = new ArrayDeque<>();
+    path.push(node);
+    iterators.push(node.nodes().iterator());
+    while (!iterators.isEmpty()) {
+      Iterator<Node> iterator = iterators.peek();
+      if (!iterator.hasNext()) {
+        iterators.pop();
+        visitor.leave(path.pop());
+        continue;
+      }
+      Node child = iterator.next();
+      if (visitor.enter(child)) {
+        path.push(child);
+        iterators.push(child.nodes().iterator());
+      } else {
+        visitor.leave(child);
+      }
+    }
+  }
+
+  /** Sibling nodes */
+  private final List<Node> nodes;
+
+  /** Start index of sibling nodes (inclusive) */
+  private final int from;
+
+  /** End index of sibling nodes (exclusive) */
+  private final int to;
+
+  /** Factory of visitors */
+  private final Supplier<? extends XmlVisitor<R>> factory;
+
+  /** Combiner of results */
+  private final BinaryOperator<R> combiner;
+
+  /**
+   * Create {@link VisitTask} instance for a subtree.<br>
+   *
+   * @param node
+   *          Root node of subtree
+   * @param factory
+   *          Factory of visitors
+   * @param combiner
+   *          Combiner of results
+   */
+  VisitTask(Node node, Supplier<? extends XmlVisitor<R>> factory, BinaryOperator<R> combiner) {
+    this(Collections.singletonList(node), 0, 1, factory, combiner);
+  }
+
+  /**
+   * Create {@link VisitTask} instance for sibling nodes.<br>
+   *
+   * @param nodes
+   *          Sibling nodes
+   * @param from
+   *          Start index of sibling nodes (inclusive)
+   * @param to
+   *          End index of sibling nodes (exclusive)
+   * @param factory
+   *          Factory of visitors
+   * @param combiner
+   *          Combiner of results
+   */
+  private VisitTask(List<Node> nodes, int from, int to, Supplier<? extends XmlVisitor<R>> factory,
+      BinaryOperator<R> combiner) {
+    this.nodes = nodes;
+    this.from = from;
+    this.to = to;
+    this.factory = factory;
+    this.combiner = combiner;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see java.util.concurrent.RecursiveTask#compute()
+   */
+  @Override
+  protected R compute() {
+    XmlVisitor<R> visitor = factory.get();
+    Deque<VisitTask<R>> forks = new ArrayDeque<>();
+    visit(visitor, forks);
+    R result = visitor.result();
+    for (VisitTask<R> fork : forks) {
+      result = combiner.apply(result, fork.join());
+    }
+    return result;
+  }
+
+  /**
+   * Visit sibling nodes of this task with forking the latter parts.<br>
+   * Every forked task precedes the former forked tasks in document order.<br>
+   *
+   * @param visitor
+   *          Visitor of this task
+   * @param forks
+   *          Forked tasks, the first one is the first in document order
+   */
+  private void visit(XmlVisitor<R> visitor, Deque<VisitTask<R>> forks) {
+    Deque<Node> path = new ArrayDeque<>();
+    List<Node> siblings = nodes;
+    int start = from;
+    int end = to;
+    while (end > start) {
+      if (getSurplusQueuedTaskCount() > SURPLUS) {
+        for (int i = start; i < end; i++) {
+          walk(visitor, siblings.get(i));
+        }
+        break;
+      }
+      if (end - start > 1) {
+        int middle = (start + end) >>> 1;
+        VisitTask<R> fork = new VisitTask<>(siblings, middle, end, factory, combiner);
+        fork.fork();
+        forks.push(fork);
+        end = middle;
+        continue;
+      }
+      Node node = siblings.get(start);
+      if (!visitor.enter(node)) {
+        visitor.leave(node);
+        break;
+      }
+      path.push(node);
+      siblings = node.nodes();
+      start = 0;
+      end = siblings.size();
+    }
+    while (!path.isEmpty()) {
+      visitor.leave(path.pop());
+    }
+  }
+}
@@ -32,11 +32,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
+import org.jdom2.Content;
 import org.jdom2.Document;
+import org.jdom2.Element;
 import org.jdom2.input.DOMBuilder;
 import org.jdom2.output.Format;
 import org.jdom2.output.XMLOutputter;
@@ -50,8 +53,68 @@ import org.xml.sax.SAXException;
  */
 public class Xml {
 
-  /** JDOM {@link Document} object */
-  private Document document;
+  /**
+   * Create new XML which has only the root node.<br>
+   *
+   * <pre>
+   * {@code
+   * Xml xml = Xml.create("root");
+   * Node root = xml.root();
+   * for (Node item : root.addChildren("item", 3)) {
+   *   item.attr("key", Value.valueOf("value"));
+   * }
+   * }
+   * </pre>
+   *
+   * @param rootName
+   *          Tag name of root node
+   * @return {@link Xml} object
+   */
+  public static Xml create(String rootName) {
+    return new Xml(new Document(new TrifulxElement(rootName)));
+  }
+
+  /** {@link NodeCreator} for this XML, or <code>null</code> to use {@link NodeCreatorLoader#load()} */
+  private NodeCreator creator;
+
+  /** JDOM {@link Document} object, or <code>null</code> if frozen */
+  private final Document document;
+
+  /** Root node of frozen snapshot, or <code>null</code> if not frozen */
+  private final FrozenNodeCreator.FrozenNode frozenRoot;
+
+  /**
+   * Detached copies of contents of frozen document, such as document type and comments, with <code>null</code>
+   * at the root element, or <code>null</code> if not frozen
+   */
+  private final Content[] frozenContent;
+
+  /**
+   * Create {@link Xml} instance.<br>
+   *
+   * @param document
+   *          JDOM {@link Document} object
+   */
+  Xml(Document document) {
+    this.document = document;
+    this.frozenRoot = null;
+    this.frozenContent = null;
+  }
+
+  /**
+   * Create frozen {@link Xml} instance.<br>
+   * Only the frozen snapshot is retained, and it's safely published to any thread by the final field.<br>
+   *
+   * @param root
+   *          Root element data
+   * @param content
+   *          Detached copies of contents of document, with <code>null</code> at the root element
+   */
+  private Xml(FrozenElement root, Content[] content) {
+    this.document = null;
+    this.frozenRoot = new FrozenNodeCreator.FrozenNode(root, null, -1, true);
+    this.frozenContent = content;
+  }
 
   /**
    * Create {@link Xml} instance.<br>
@@ -65,9 +128,20 @@ public class Xml {
    *           Exception in parsing
    */
   public Xml(InputStream in) throws IOException, ParseException {
+    frozenRoot = null;
+    frozenContent = null;
+    long start = XmlMetrics.start();
+    Object event = XmlEvents.INSTANCE.beginParse();
+    InputStream input = event != null ? new CountingInputStream(in) : XmlMetrics.input(in);
     try {
       DOMBuilder domBuilder = new DOMBuilder();
-      document = domBuilder.build(DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(in));
+      domBuilder.setFactory(TrifulxElement.FACTORY);
+      org.w3c.dom.Document dom = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(input);
+      document = domBuilder.build(dom);
+      XmlMetrics.parsed(input, start);
+      if (event != null) {
+        XmlEvents.INSTANCE.endParse(event, ((CountingInputStream) input).count, document, dom.getInputEncoding());
+      }
     } catch (SAXException | ParserConfigurationException e) {
       throw new ParseException(e);
     } finally {
@@ -107,13 +181,78 @@ public class Xml {
     this(new ByteArrayInputStream(text.getBytes(charset)));
   }
 
+  /**
+   * Use {@link NodeCreator} for nodes of this XML instead of the loaded one.<br>
+   *
+   * @param creator
+   *          {@link NodeCreator} object, or <code>null</code> to use {@link NodeCreatorLoader#load()}
+   * @return Self object
+   */
+  public Xml creator(NodeCreator creator) {
+    this.creator = creator;
+    return this;
+  }
+
+  /**
+   * Get JDOM document.<br>
+   * A frozen XML creates a new document from its snapshot on each call.<br>
+   *
+   * @return JDOM {@link Document} object
+   */
+  Document document() {
+    if (!isFrozen()) {
+      return document;
+    }
+    Document copy = new Document();
+    for (Content content : frozenContent) {
+      copy.addContent(content != null ? content.clone() : frozenRoot.data().toElement());
+    }
+    return copy;
+  }
+
+  /**
+   * Make an immutable snapshot of this XML.<br>
+   * Nodes of the snapshot reject modification with {@link UnsupportedOperationException}, and any number of
+   * threads can read the snapshot without synchronization.<br>
+   * Normalized text, index of child nodes and hash codes are computed at once on freezing.<br>
+   * Later changes of this XML aren't visible from the snapshot.<br>
+   * The snapshot doesn't retain a JDOM document, but keeps comments, processing instructions, CDATA sections and
+   * document type, so it's written by {@link #text()} and {@link #save(OutputStream)} the same as this XML.<br>
+   *
+   * @return Frozen {@link Xml} object, or self object if already frozen
+   */
+  public Xml freeze() {
+    if (isFrozen()) {
+      return this;
+    }
+    List<Content> contents = document.getContent();
+    Content[] copies = new Content[contents.size()];
+    for (int i = 0; i < copies.length; i++) {
+      Content content = contents.get(i);
+      copies[i] = content instanceof Element ? null : content.clone();
+    }
+    return new Xml(FrozenElement.of(document.getRootElement()), copies);
+  }
+
+  /**
+   * Frozen or not.<br>
+   *
+   * @return <code>true</code> means frozen by {@link #freeze()}, otherwise is <code>false</code>
+   */
+  public boolean isFrozen() {
+    return frozenRoot != null;
+  }
+
   /**
    * Get root node.<br>
    *
    * @return root node
    */
   public Node root() {
-    NodeCreator node = NodeCreatorLoader.load();
+    if (isFrozen()) {
+      return frozenRoot;
+    }
+    NodeCreator node = creator != null ? creator : NodeCreatorLoader.load();
     return node.create(document.getRootElement(), true);
   }
 
@@ -174,17 +313,43 @@ public class Xml {
    *           I/O exception
    */
   public void save(OutputStream out, Charset charset) throws IOException {
+    long start = XmlMetrics.start();
+    Object event = XmlEvents.INSTANCE.beginSerialize();
     try {
+      OutputStream output = event != null ? new CountingOutputStream(out) : XmlMetrics.output(out);
       Format jdomFormat = Format.getPrettyFormat();
       jdomFormat.setEncoding(charset.name());
       XMLOutputter outputter = new XMLOutputter();
       outputter.setFormat(jdomFormat);
-      outputter.output(document, out);
+      Document jdom = document();
+      outputter.output(jdom, output);
+      XmlMetrics.serialized(output, start);
+      if (event != null) {
+        XmlEvents.INSTANCE.endSerialize(event, "save", ((CountingOutputStream) output).count, jdom,
+            charset.name(), FormatTypes.STANDARD);
+      }
     } finally {
       out.close();
     }
   }
 
+  /**
+   * Compute footprint statistics of this XML in a single traversal.<br>
+   * Estimated heap size is of the current backend, so a frozen XML is estimated including its snapshot.<br>
+   *
+   * <pre>
+   * {@code
+   * Xml xml = new Xml(text);
+   * cache.put(key, xml, xml.stats().estimatedBytes()); // weight-based eviction
+   * }
+   * </pre>
+   *
+   * @return {@link XmlStats} object
+   */
+  public XmlStats stats() {
+    return isFrozen() ? XmlStats.of(frozenRoot.data()) : XmlStats.of(document);
+  }
+
   /**
    * XML to text.<br>
    * Same as #text(FormatTypes.STANDARD).<be>
@@ -227,8 +392,14 @@ public class Xml {
    * @return XML text
    */
   public String text(FormatTypes types, Charset charset) {
+    long start = XmlMetrics.start();
+    Object event = XmlEvents.INSTANCE.beginSerialize();
     XMLOutputter outputter = new XMLOutputter();
     outputter.setFormat(types.jdomFormat(charset));
-    return outputter.outputString(document);
+    Document jdom = document();
+    String text = outputter.outputString(jdom);
+    XmlMetrics.serialized(text.length(), start);
+    XmlEvents.INSTANCE.endSerialize(event, "text", text.length(), jdom, charset.name(), types);
+    return text;
   }
 }
@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.Set;
+
+/**
+ * Listener of changes of XML watched by {@link XmlWatcher}.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+@FunctionalInterface
+public interface XmlChangeListener {
+
+  /**
+   * Called after XML is reloaded and swapped.<br>
+   * Attributes and text of the root node aren't contained in changed names, compare them with previous XML if
+   * needed.<br>
+   *
+   * @param previous
+   *          Frozen XML before reload
+   * @param current
+   *          Frozen XML after reload
+   * @param changedNames
+   *          Tag names of child nodes of root which are added, removed or modified
+   */
+  void changed(Xml previous, Xml current, Set<String> changedNames);
+}
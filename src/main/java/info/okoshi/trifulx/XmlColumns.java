@@ -0,0 +1,428 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columns extracted from records by {@link XmlExtractor}.<br>
+ * Numeric and boolean columns are primitive arrays and string columns are dictionary encoded, so values are
+ * never boxed. Whether each value is present and well-formed is kept in a {@link BitSet} per column, and absent
+ * values are <code>0</code>, <code>false</code> or code <code>-1</code>.<br>
+ * Returned arrays and bit sets are owned by this object, so don't modify them.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public final class XmlColumns {
+
+  /**
+   * Values of a column.<br>
+   *
+   * @version 1.0.0
+   * @author okosheep
+   */
+  static final class Column {
+
+    /** Type */
+    private final ColumnTypes type;
+
+    /** Presence of values */
+    private final BitSet presence = new BitSet();
+
+    /** Values of {@link ColumnTypes#INT} column */
+    private int[] ints;
+
+    /** Values of {@link ColumnTypes#LONG} column */
+    private long[] longs;
+
+    /** Values of {@link ColumnTypes#DOUBLE} column */
+    private double[] doubles;
+
+    /** Values of {@link ColumnTypes#BOOLEAN} column */
+    private BitSet booleans;
+
+    /** Codes of {@link ColumnTypes#STRING} column */
+    private int[] codes;
+
+    /** Codes by string */
+    private Map<String, Integer> index;
+
+    /** Strings by code */
+    private List<String> dictionary;
+
+    /**
+     * Create {@link Column} instance.<br>
+     *
+     * @param type
+     *          Type
+     */
+    Column(ColumnTypes type) {
+      this.type = type;
+      switch (type) {
+      case BOOLEAN:
+        booleans = new BitSet();
+        break;
+      case DOUBLE:
+        doubles = new double[INITIAL_CAPACITY];
+        break;
+      case INT:
+        ints = new int[INITIAL_CAPACITY];
+        break;
+      case LONG:
+        longs = new long[INITIAL_CAPACITY];
+        break;
+      default:
+        codes = new int[INITIAL_CAPACITY];
+        index = new HashMap<>();
+        dictionary = new ArrayList<>();
+        break;
+      }
+    }
+
+    /**
+     * Set value of row.<br>
+     * Every row must be set in order, including absent values.<br>
+     *
+     * @param row
+     *          Row index
+     * @param text
+     *          Value, or <code>null</code> if absent
+     */
+    void set(int row, String text) {
+      switch (type) {
+      case BOOLEAN:
+        if (Primitives.isBoolean(text)) {
+          booleans.set(row, Primitives.parseBoolean(text, true, false));
+          presence.set(row);
+        }
+        break;
+      case DOUBLE:
+        doubles = grow(doubles, row);
+        double d = Primitives.parseDouble(text, Double.NaN);
+        if (!Double.isNaN(d)) {
+          doubles[row] = d;
+          presence.set(row);
+        }
+        break;
+      case INT:
+        ints = grow(ints, row);
+        long i = Primitives.parseLong(text, true, Long.MAX_VALUE);
+        if (i >= Integer.MIN_VALUE && i <= Integer.MAX_VALUE) {
+          ints[row] = (int) i;
+          presence.set(row);
+        }
+        break;
+      case LONG:
+        longs = grow(longs, row);
+        long l = Primitives.parseLong(text, true, Long.MIN_VALUE);
+        if (l != Long.MIN_VALUE || text != null && text.trim().equals(Long.toString(Long.MIN_VALUE))) {
+          longs[row] = l;
+          presence.set(row);
+        }
+        break;
+      default:
+        codes = grow(codes, row);
+        if (text == null) {
+          codes[row] = -1;
+          break;
+        }
+        Integer code = index.get(text);
+        if (code == null) {
+          code = dictionary.size();
+          index.put(text, code);
+          dictionary.add(text);
+        }
+        codes[row] = code;
+        presence.set(row);
+        break;
+      }
+    }
+
+    /**
+     * Trim arrays to number of rows.<br>
+     *
+     * @param size
+     *          Number of rows
+     */
+    void trim(int size) {
+      if (ints != null) {
+        ints = Arrays.copyOf(ints, size);
+      } else if (longs != null) {
+        longs = Arrays.copyOf(longs, size);
+      } else if (doubles != null) {
+        doubles = Arrays.copyOf(doubles, size);
+      } else if (codes != null) {
+        codes = Arrays.copyOf(codes, size);
+        index = null;
+        dictionary = Collections.unmodifiableList(dictionary);
+      }
+    }
+  }
+
+  /** Initial capacity of arrays */
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**
+   * Grow array to hold the row.<br>
+   *
+   * @param array
+   *          Array
+   * @param row
+   *          Row index
+   * @return Array which can hold the row
+   */
+  private static double[] grow(double[] array, int row) {
+    return row < array.length ? array : Arrays.copyOf(array, Math.max(array.length * 2, row + 1));
+  }
+
+  /**
+   * Grow array to hold the row.<br>
+   *
+   * @param array
+   *          Array
+   * @param row
+   *          Row index
+   * @return Array which can hold the row
+   */
+  private static int[] grow(int[] array, int row) {
+    return row < array.length ? array : Arrays.copyOf(array, Math.max(array.length * 2, row + 1));
+  }
+
+  /**
+   * Grow array to hold the row.<br>
+   *
+   * @param array
+   *          Array
+   * @param row
+   *          Row index
+   * @return Array which can hold the row
+   */
+  private static long[] grow(long[] array, int row) {
+    return row < array.length ? array : Arrays.copyOf(array, Math.max(array.length * 2, row + 1));
+  }
+
+  /** Columns by name */
+  private final Map<String, Column> columns = new LinkedHashMap<>();
+
+  /** Number of rows */
+  private int size;
+
+  /**
+   * Create {@link XmlColumns} instance.<br>
+   *
+   * @param names
+   *          Column names
+   * @param types
+   *          Column types
+   * @throws IllegalArgumentException
+   *           Column name is duplicated
+   */
+  XmlColumns(List<String> names, List<ColumnTypes> types) throws IllegalArgumentException {
+    for (int i = 0; i < names.size(); i++) {
+      if (columns.put(names.get(i), new Column(types.get(i))) != null) {
+        throw new IllegalArgumentException("\"" + names.get(i) + "\" column is duplicated.");
+      }
+    }
+  }
+
+  /**
+   * Get boolean column.<br>
+   *
+   * @param name
+   *          Column name
+   * @return Values, set bits are <code>true</code>
+   * @throws IllegalArgumentException
+   *           No such column or type is different
+   */
+  public BitSet booleans(String name) throws IllegalArgumentException {
+    return column(name, ColumnTypes.BOOLEAN).booleans;
+  }
+
+  /**
+   * Get codes of string column.<br>
+   *
+   * @param name
+   *          Column name
+   * @return Codes, index of {@link #dictionary(String)} or <code>-1</code> for absent values
+   * @throws IllegalArgumentException
+   *           No such column or type is different
+   */
+  public int[] codes(String name) throws IllegalArgumentException {
+    return column(name, ColumnTypes.STRING).codes;
+  }
+
+  /**
+   * Get column.<br>
+   *
+   * @param name
+   *          Column name
+   * @param type
+   *          Expected type, or <code>null</code> for any type
+   * @return Column
+   * @throws IllegalArgumentException
+   *           No such column or type is different
+   */
+  private Column column(String name, ColumnTypes type) throws IllegalArgumentException {
+    Column column = columns.get(name);
+    if (column == null) {
+      throw new IllegalArgumentException("\"" + name + "\" column is not found.");
+    }
+    if (type != null && column.type != type) {
+      throw new IllegalArgumentException("\"" + name + "\" column is " + column.type + ", not " + type + ".");
+    }
+    return column;
+  }
+
+  /**
+   * Get columns in order of names.<br>
+   *
+   * @return Columns
+   */
+  List<Column> columns() {
+    return new ArrayList<>(columns.values());
+  }
+
+  /**
+   * Get dictionary of string column.<br>
+   *
+   * @param name
+   *          Column name
+   * @return Distinct strings in order of appearance
+   * @throws IllegalArgumentException
+   *           No such column or type is different
+   */
+  public List<String> dictionary(String name) throws IllegalArgumentException {
+    return column(name, ColumnTypes.STRING).dictionary;
+  }
+
+  /**
+   * Get double column.<br>
+   *
+   * @param name
+   *          Column name
+   * @return Values
+   * @throws IllegalArgumentException
+   *           No such column or type is different
+   */
+  public double[] doubles(String name) throws IllegalArgumentException {
+    return column(name, ColumnTypes.DOUBLE).doubles;
+  }
+
+  /**
+   * Finish extraction.<br>
+   *
+   * @param size
+   *          Number of rows
+   * @return Self object
+   */
+  XmlColumns finish(int size) {
+    this.size = size;
+    for (Column column : columns.values()) {
+      column.trim(size);
+    }
+    return this;
+  }
+
+  /**
+   * Get int column.<br>
+   *
+   * @param name
+   *          Column name
+   * @return Values
+   * @throws IllegalArgumentException
+   *           No such column or type is different
+   */
+  public int[] ints(String name) throws IllegalArgumentException {
+    return column(name, ColumnTypes.INT).ints;
+  }
+
+  /**
+   * Get long column.<br>
+   *
+   * @param name
+   *          Column name
+   * @return Values
+   * @throws IllegalArgumentException
+   *           No such column or type is different
+   */
+  public long[] longs(String name) throws IllegalArgumentException {
+    return column(name, ColumnTypes.LONG).longs;
+  }
+
+  /**
+   * Get column names.<br>
+   *
+   * @return Column names in order of adding
+   */
+  public List<String> names() {
+    return new ArrayList<>(columns.keySet());
+  }
+
+  /**
+   * Get presence of values.<br>
+   *
+   * @param name
+   *          Column name
+   * @return Presence, set bits are present and well-formed values
+   * @throws IllegalArgumentException
+   *           No such column
+   */
+  public BitSet presence(String name) throws IllegalArgumentException {
+    return column(name, null).presence;
+  }
+
+  /**
+   * Get number of rows.<br>
+   *
+   * @return Number of rows
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get value of string column.<br>
+   *
+   * @param name
+   *          Column name
+   * @param row
+   *          Row index
+   * @return Value, or <code>null</code> if absent
+   * @throws IllegalArgumentException
+   *           No such column or type is different
+   */
+  public String string(String name, int row) throws IllegalArgumentException {
+    Column column = column(name, ColumnTypes.STRING);
+    int code = column.codes[row];
+    return code < 0 ? null : column.dictionary.get(code);
+  }
+}
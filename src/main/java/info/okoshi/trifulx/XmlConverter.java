@@ -0,0 +1,494 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.jdom2.Element;
+
+/**
+ * Streaming converter of XML records to JSON lines or CSV.<br>
+ * Records are read through {@link XmlPipeline}, so stages and parallelism of the pipeline are applied before
+ * conversion, and each record is converted to a line on the threads of the pipeline. Lines are written in order
+ * of records through a buffered writer in constant memory.<br>
+ * Column path is a slash separated path of child tag names from the record, optionally ending with
+ * "@<i>attribute</i>". The value of column is the attribute value, or normalized text of the element. Empty path
+ * or "." means the record itself.<br>
+ *
+ * <pre>
+ * {@code
+ * <records>
+ *   <record id="1">
+ *     <name>foo</name>
+ *     <address><city>Tokyo</city></address>
+ *   </record>
+ * </records>
+ *
+ * new XmlConverter(new XmlPipeline("record").parallel(4))
+ *     .column("id", "@id", ColumnTypes.INT)
+ *     .column("name", "name")
+ *     .column("city", "address/city")
+ *     .toJsonLines(in, out); // {"id":1,"name":"foo","city":"Tokyo"}
+ * }
+ * </pre>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public final class XmlConverter {
+
+  /** Hexadecimal digits */
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  /**
+   * Column mapping.<br>
+   *
+   * @version 1.0.0
+   * @author okosheep
+   */
+  static final class Column {
+
+    /** Column name */
+    private final String name;
+
+    /** Tag names of elements from the record */
+    private final String[] steps;
+
+    /** Attribute name, or <code>null</code> for text */
+    private final String attribute;
+
+    /** Type */
+    private final ColumnTypes type;
+
+    /**
+     * Create {@link Column} instance.<br>
+     *
+     * @param name
+     *          Column name
+     * @param path
+     *          Path from the record
+     * @param type
+     *          Type
+     */
+    Column(String name, String path, ColumnTypes type) {
+      this.name = name;
+      this.type = type;
+      List<String> steps = new ArrayList<>();
+      String attribute = null;
+      for (String step : path.split("/")) {
+        if (step.startsWith("@")) {
+          attribute = step.substring(1);
+        } else if (!step.isEmpty() && !step.equals(".")) {
+          steps.add(step);
+        }
+      }
+      this.steps = steps.toArray(new String[steps.size()]);
+      this.attribute = attribute;
+    }
+
+    /**
+     * Get attribute name.<br>
+     *
+     * @return Attribute name, or <code>null</code> for text
+     */
+    String attribute() {
+      return attribute;
+    }
+
+    /**
+     * Get column name.<br>
+     *
+     * @return Column name
+     */
+    String name() {
+      return name;
+    }
+
+    /**
+     * Get tag names of elements from the record.<br>
+     *
+     * @return Tag names
+     */
+    String[] steps() {
+      return steps;
+    }
+
+    /**
+     * Get type.<br>
+     *
+     * @return Type
+     */
+    ColumnTypes type() {
+      return type;
+    }
+
+    /**
+     * Get value of column from record.<br>
+     *
+     * @param record
+     *          Record element
+     * @return Value, or <code>null</code> if not found
+     */
+    String value(Element record) {
+      Element element = record;
+      for (String step : steps) {
+        element = child(element, step);
+        if (element == null) {
+          return null;
+        }
+      }
+      if (attribute == null) {
+        return element.getTextNormalize();
+      }
+      for (org.jdom2.Attribute candidate : element.getAttributes()) {
+        if (candidate.getName().equals(attribute)) {
+          return candidate.getValue();
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Get first child element by local name regardless of namespace.<br>
+     *
+     * @param element
+     *          Parent element
+     * @param name
+     *          Local name
+     * @return Child element, or <code>null</code> if not found
+     */
+    private static Element child(Element element, String name) {
+      for (Element child : element.getChildren()) {
+        if (child.getName().equals(name)) {
+          return child;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Append value as CSV field.<br>
+   * Fields including comma, double quote or line break are quoted.<br>
+   *
+   * @param builder
+   *          Line
+   * @param value
+   *          Value, or <code>null</code>
+   */
+  private static void appendCsv(StringBuilder builder, String value) {
+    if (value == null) {
+      return;
+    }
+    boolean quote = false;
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+    }
+    if (!quote) {
+      builder.append(value);
+      return;
+    }
+    builder.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        builder.append('"');
+      }
+      builder.append(c);
+    }
+    builder.append('"');
+  }
+
+  /**
+   * Append value as JSON value.<br>
+   * Missing or malformed values are <code>null</code>.<br>
+   *
+   * @param builder
+   *          Line
+   * @param value
+   *          Value, or <code>null</code>
+   * @param type
+   *          Type
+   */
+  private static void appendJson(StringBuilder builder, String value, ColumnTypes type) {
+    if (value == null) {
+      builder.append("null");
+      return;
+    }
+    switch (type) {
+    case BOOLEAN:
+      builder.append(Primitives.isBoolean(value) ? Boolean.toString(Primitives.parseBoolean(value, true, false))
+          : "null");
+      break;
+    case DOUBLE:
+      double d = Primitives.parseDouble(value, Double.NaN);
+      builder.append(Double.isNaN(d) || Double.isInfinite(d) ? "null" : Double.toString(d));
+      break;
+    case INT:
+    case LONG:
+      long l = type == ColumnTypes.INT ? Primitives.parseInt(value, true, Integer.MIN_VALUE)
+          : Primitives.parseLong(value, true, Long.MIN_VALUE);
+      boolean malformed = type == ColumnTypes.INT ? l == Integer.MIN_VALUE : l == Long.MIN_VALUE;
+      builder.append(malformed && !value.trim().equals(Long.toString(l)) ? "null" : Long.toString(l));
+      break;
+    default:
+      appendJsonString(builder, value);
+      break;
+    }
+  }
+
+  /**
+   * Append text as JSON string.<br>
+   *
+   * @param builder
+   *          Line
+   * @param text
+   *          Text
+   */
+  private static void appendJsonString(StringBuilder builder, String text) {
+    builder.append('"');
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+      case '"':
+        builder.append("\\\"");
+        break;
+      case '\\':
+        builder.append("\\\\");
+        break;
+      case '\n':
+        builder.append("\\n");
+        break;
+      case '\r':
+        builder.append("\\r");
+        break;
+      case '\t':
+        builder.append("\\t");
+        break;
+      default:
+        if (c < 0x20) {
+          builder.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xf]);
+        } else {
+          builder.append(c);
+        }
+        break;
+      }
+    }
+    builder.append('"');
+  }
+
+  /** Columns */
+  private final List<Column> columns = new ArrayList<>();
+
+  /** Pipeline to read records */
+  private final XmlPipeline pipeline;
+
+  /**
+   * Create {@link XmlConverter} instance.<br>
+   *
+   * @param recordName
+   *          Tag name of records
+   */
+  public XmlConverter(String recordName) {
+    this(new XmlPipeline(recordName));
+  }
+
+  /**
+   * Create {@link XmlConverter} instance.<br>
+   *
+   * @param pipeline
+   *          Pipeline to read records
+   */
+  public XmlConverter(XmlPipeline pipeline) {
+    this.pipeline = pipeline;
+  }
+
+  /**
+   * Add string column.<br>
+   *
+   * @param name
+   *          Column name
+   * @param path
+   *          Path from the record
+   * @return Self object
+   */
+  public XmlConverter column(String name, String path) {
+    return column(name, path, ColumnTypes.STRING);
+  }
+
+  /**
+   * Add column.<br>
+   * Type decides the representation in JSON, and CSV has always the text as it is.<br>
+   *
+   * @param name
+   *          Column name
+   * @param path
+   *          Path from the record
+   * @param type
+   *          Type
+   * @return Self object
+   */
+  public XmlConverter column(String name, String path, ColumnTypes type) {
+    columns.add(new Column(name, path, type));
+    return this;
+  }
+
+  /**
+   * Convert records and write lines.<br>
+   *
+   * @param in
+   *          Input stream
+   * @param out
+   *          Output stream
+   * @param charset
+   *          Character set of output
+   * @param header
+   *          Header line, or <code>null</code>
+   * @param converter
+   *          Converter of record to line
+   * @return Number of written records
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Exception in parsing
+   */
+  private long convert(InputStream in, OutputStream out, Charset charset, String header,
+      Function<Element, String> converter) throws IOException, ParseException {
+    try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, charset))) {
+      if (header != null) {
+        writer.write(header);
+      }
+      return pipeline.records(in, converter, line -> {
+        try {
+          writer.write(line);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Convert records to CSV by UTF-8.<br>
+   * The first line is the header of column names, and lines end with CRLF.<br>
+   * Input stream and output stream will be closed on finally.<br>
+   *
+   * @param in
+   *          Input stream
+   * @param out
+   *          Output stream
+   * @return Number of written records
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Exception in parsing
+   */
+  public long toCsv(InputStream in, OutputStream out) throws IOException, ParseException {
+    return toCsv(in, out, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Convert records to CSV.<br>
+   *
+   * @param in
+   *          Input stream
+   * @param out
+   *          Output stream
+   * @param charset
+   *          Character set of output
+   * @return Number of written records
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Exception in parsing
+   * @see #toCsv(InputStream, OutputStream)
+   */
+  public long toCsv(InputStream in, OutputStream out, Charset charset) throws IOException, ParseException {
+    StringBuilder header = new StringBuilder();
+    for (int i = 0; i < columns.size(); i++) {
+      if (i > 0) {
+        header.append(',');
+      }
+      appendCsv(header, columns.get(i).name());
+    }
+    header.append("\r\n");
+    return convert(in, out, charset, header.toString(), record -> {
+      StringBuilder builder = new StringBuilder();
+      for (int i = 0; i < columns.size(); i++) {
+        if (i > 0) {
+          builder.append(',');
+        }
+        appendCsv(builder, columns.get(i).value(record));
+      }
+      return builder.append("\r\n").toString();
+    });
+  }
+
+  /**
+   * Convert records to JSON lines by UTF-8.<br>
+   * Each line is a JSON object which has columns in order of adding.<br>
+   * Input stream and output stream will be closed on finally.<br>
+   *
+   * @param in
+   *          Input stream
+   * @param out
+   *          Output stream
+   * @return Number of written records
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Exception in parsing
+   */
+  public long toJsonLines(InputStream in, OutputStream out) throws IOException, ParseException {
+    return convert(in, out, StandardCharsets.UTF_8, null, record -> {
+      StringBuilder builder = new StringBuilder("{");
+      for (int i = 0; i < columns.size(); i++) {
+        Column column = columns.get(i);
+        if (i > 0) {
+          builder.append(',');
+        }
+        appendJsonString(builder, column.name());
+        builder.append(':');
+        appendJson(builder, column.value(record), column.type());
+      }
+      return builder.append("}\n").toString();
+    });
+  }
+}
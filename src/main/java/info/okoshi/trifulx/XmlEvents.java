@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import org.jdom2.Document;
+
+/**
+ * Events of XML operations for JDK Flight Recorder.<br>
+ * Events are recorded by {@link JfrXmlEvents} if <code>jdk.jfr</code> is available on the running JVM, otherwise
+ * nothing is recorded. Callers pass the object returned by <code>begin</code> methods to <code>end</code> methods,
+ * which is <code>null</code> while the event isn't recorded.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+abstract class XmlEvents {
+
+  /** Events of the running JVM */
+  static final XmlEvents INSTANCE = load();
+
+  /**
+   * Load events implementation.<br>
+   * {@link JfrXmlEvents} is loaded reflectively, so classes of <code>jdk.jfr</code> aren't linked on JVM without
+   * them.<br>
+   *
+   * @return Events implementation
+   */
+  private static XmlEvents load() {
+    try {
+      Class.forName("jdk.jfr.Event");
+      return (XmlEvents) Class.forName(XmlEvents.class.getPackage().getName() + ".JfrXmlEvents").newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return new XmlEvents() {
+      };
+    }
+  }
+
+  /**
+   * Begin bulk operation of nodes.<br>
+   *
+   * @return Event, or <code>null</code> if not recorded
+   */
+  Object beginBulk() {
+    return null;
+  }
+
+  /**
+   * Begin parsing.<br>
+   *
+   * @return Event, or <code>null</code> if not recorded
+   */
+  Object beginParse() {
+    return null;
+  }
+
+  /**
+   * Begin serialization.<br>
+   *
+   * @return Event, or <code>null</code> if not recorded
+   */
+  Object beginSerialize() {
+    return null;
+  }
+
+  /**
+   * End bulk operation of nodes.<br>
+   *
+   * @param event
+   *          Event returned by {@link #beginBulk()}
+   * @param operation
+   *          Name of operation
+   * @param node
+   *          Tag name of target node
+   * @param count
+   *          Count of affected nodes or edits
+   */
+  void endBulk(Object event, String operation, String node, long count) {
+  }
+
+  /**
+   * End parsing.<br>
+   *
+   * @param event
+   *          Event returned by {@link #beginParse()}
+   * @param bytes
+   *          Size of input in bytes
+   * @param document
+   *          Parsed document
+   * @param charset
+   *          Detected character set, or <code>null</code>
+   */
+  void endParse(Object event, long bytes, Document document, String charset) {
+  }
+
+  /**
+   * End serialization.<br>
+   *
+   * @param event
+   *          Event returned by {@link #beginSerialize()}
+   * @param operation
+   *          Name of operation
+   * @param size
+   *          Size of output, in bytes for saving, and in characters for text
+   * @param document
+   *          Serialized document
+   * @param charset
+   *          Character set
+   * @param types
+   *          Type of formatting
+   */
+  void endSerialize(Object event, String operation, long size, Document document, String charset,
+      FormatTypes types) {
+  }
+}
@@ -0,0 +1,406 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jdom2.Content;
+import org.jdom2.Element;
+import org.jdom2.Text;
+
+/**
+ * Extract columns from records in a single pass.<br>
+ * Records are elements matching the record path, a slash separated path of tag names matched against the end of
+ * ancestors, so "record" matches any record element and "orders/order" matches order elements in orders.
+ * Column paths are relative to the record, same as {@link XmlConverter}, and the value of column is the first
+ * matching element in document order.<br>
+ * A stream is read by StAX without building any node, and values go directly into primitive arrays of
+ * {@link XmlColumns}.<br>
+ *
+ * <pre>
+ * {@code
+ * XmlColumns columns = new XmlExtractor("record")
+ *     .column("id", "@id", ColumnTypes.INT)
+ *     .column("amount", "amount", ColumnTypes.DOUBLE)
+ *     .column("type", "type", ColumnTypes.STRING)
+ *     .extract(in);
+ * double[] amounts = columns.doubles("amount");
+ * }
+ * </pre>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public final class XmlExtractor {
+
+  /**
+   * State of extraction of a document.<br>
+   *
+   * @version 1.0.0
+   * @author okosheep
+   */
+  private final class Extraction {
+
+    /** Result */
+    private final XmlColumns result;
+
+    /** Storage of columns */
+    private final List<XmlColumns.Column> storage;
+
+    /** Values of current row */
+    private final String[] values;
+
+    /** Text buffers of columns capturing text, or <code>null</code> */
+    private final StringBuilder[] texts;
+
+    /** Depth of elements capturing text of columns */
+    private final int[] textDepths;
+
+    /** Tag names from the record to current element */
+    private final List<String> path = new ArrayList<>();
+
+    /** Tag names from the root to current element, out of records */
+    private final List<String> ancestors = new ArrayList<>();
+
+    /** Number of rows */
+    private int rows;
+
+    /**
+     * Create {@link Extraction} instance.<br>
+     */
+    Extraction() {
+      List<String> names = new ArrayList<>();
+      List<ColumnTypes> types = new ArrayList<>();
+      for (XmlConverter.Column column : columns) {
+        names.add(column.name());
+        types.add(column.type());
+      }
+      result = new XmlColumns(names, types);
+      storage = result.columns();
+      values = new String[columns.size()];
+      texts = new StringBuilder[columns.size()];
+      textDepths = new int[columns.size()];
+    }
+
+    /**
+     * Attribute of the current element in record.<br>
+     *
+     * @param name
+     *          Local name
+     * @param value
+     *          Value
+     */
+    void attribute(String name, String value) {
+      for (int i = 0; i < values.length; i++) {
+        XmlConverter.Column column = columns.get(i);
+        if (values[i] == null && name.equals(column.attribute()) && matches(column)) {
+          values[i] = value;
+        }
+      }
+    }
+
+    /**
+     * Characters in record.<br>
+     *
+     * @param chars
+     *          Characters
+     * @param start
+     *          Start index
+     * @param length
+     *          Length
+     */
+    void characters(char[] chars, int start, int length) {
+      for (int i = 0; i < texts.length; i++) {
+        if (texts[i] != null && textDepths[i] == path.size()) {
+          texts[i].append(chars, start, length);
+        }
+      }
+    }
+
+    /**
+     * Characters in record.<br>
+     *
+     * @param text
+     *          Characters
+     */
+    void characters(String text) {
+      for (int i = 0; i < texts.length; i++) {
+        if (texts[i] != null && textDepths[i] == path.size()) {
+          texts[i].append(text);
+        }
+      }
+    }
+
+    /**
+     * End of element in record.<br>
+     *
+     * @return <code>true</code> means end of the record
+     */
+    boolean end() {
+      for (int i = 0; i < texts.length; i++) {
+        if (texts[i] != null && textDepths[i] == path.size()) {
+          values[i] = Text.normalizeString(texts[i].toString());
+          texts[i] = null;
+        }
+      }
+      path.remove(path.size() - 1);
+      if (!path.isEmpty()) {
+        return false;
+      }
+      for (int i = 0; i < values.length; i++) {
+        storage.get(i).set(rows, values[i]);
+        values[i] = null;
+      }
+      rows++;
+      return true;
+    }
+
+    /**
+     * Current element matches path of column or not.<br>
+     *
+     * @param column
+     *          Column
+     * @return <code>true</code> means matched
+     */
+    private boolean matches(XmlConverter.Column column) {
+      String[] steps = column.steps();
+      if (steps.length != path.size() - 1) {
+        return false;
+      }
+      for (int i = 0; i < steps.length; i++) {
+        if (!steps[i].equals(path.get(i + 1))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Start of element out of records.<br>
+     *
+     * @param name
+     *          Local name
+     * @return <code>true</code> means start of a record
+     */
+    boolean open(String name) {
+      ancestors.add(name);
+      if (ancestors.size() < recordSteps.length) {
+        return false;
+      }
+      int offset = ancestors.size() - recordSteps.length;
+      for (int i = 0; i < recordSteps.length; i++) {
+        if (!recordSteps[i].equals(ancestors.get(offset + i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * End of element out of records.<br>
+     */
+    void close() {
+      ancestors.remove(ancestors.size() - 1);
+    }
+
+    /**
+     * Start of element in record, including the record itself.<br>
+     *
+     * @param name
+     *          Local name
+     */
+    void start(String name) {
+      path.add(name);
+      for (int i = 0; i < values.length; i++) {
+        XmlConverter.Column column = columns.get(i);
+        if (values[i] == null && texts[i] == null && column.attribute() == null && matches(column)) {
+          texts[i] = new StringBuilder();
+          textDepths[i] = path.size();
+        }
+      }
+    }
+  }
+
+  /** Factory of streaming reader */
+  private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+  /** Columns */
+  private final List<XmlConverter.Column> columns = new ArrayList<>();
+
+  /** Tag names of record path */
+  private final String[] recordSteps;
+
+  /**
+   * Create {@link XmlExtractor} instance.<br>
+   *
+   * @param recordPath
+   *          Path of records
+   */
+  public XmlExtractor(String recordPath) {
+    List<String> steps = new ArrayList<>();
+    for (String step : recordPath.split("/")) {
+      if (!step.isEmpty()) {
+        steps.add(step);
+      }
+    }
+    recordSteps = steps.toArray(new String[steps.size()]);
+  }
+
+  /**
+   * Add column.<br>
+   *
+   * @param name
+   *          Column name
+   * @param path
+   *          Path from the record
+   * @param type
+   *          Type
+   * @return Self object
+   * @throws IllegalArgumentException
+   *           Column name is duplicated
+   */
+  public XmlExtractor column(String name, String path, ColumnTypes type) throws IllegalArgumentException {
+    for (XmlConverter.Column column : columns) {
+      if (column.name().equals(name)) {
+        throw new IllegalArgumentException("\"" + name + "\" column is duplicated.");
+      }
+    }
+    columns.add(new XmlConverter.Column(name, path, type));
+    return this;
+  }
+
+  /**
+   * Extract columns from stream.<br>
+   * Input stream will be closed on finally.<br>
+   *
+   * @param in
+   *          Input stream
+   * @return Columns
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Exception in parsing
+   */
+  public XmlColumns extract(InputStream in) throws IOException, ParseException {
+    Extraction extraction = new Extraction();
+    try {
+      XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+      boolean inRecord = false;
+      while (reader.hasNext()) {
+        switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          String name = reader.getLocalName();
+          if (!inRecord && !extraction.open(name)) {
+            break;
+          }
+          inRecord = true;
+          extraction.start(name);
+          for (int i = 0; i < reader.getAttributeCount(); i++) {
+            extraction.attribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+          }
+          break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.CDATA:
+        case XMLStreamConstants.SPACE:
+          if (inRecord) {
+            extraction.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+          }
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          if (inRecord) {
+            inRecord = !extraction.end();
+            if (inRecord) {
+              break;
+            }
+          }
+          extraction.close();
+          break;
+        default:
+          break;
+        }
+      }
+      reader.close();
+    } catch (XMLStreamException e) {
+      throw new ParseException(e);
+    } finally {
+      in.close();
+    }
+    return extraction.result.finish(extraction.rows);
+  }
+
+  /**
+   * Extract columns from XML.<br>
+   *
+   * @param xml
+   *          {@link Xml} object
+   * @return Columns
+   */
+  public XmlColumns extract(Xml xml) {
+    Extraction extraction = new Extraction();
+    visit(xml.document().getRootElement(), extraction, false);
+    return extraction.result.finish(extraction.rows);
+  }
+
+  /**
+   * Visit element and its descendants in document order.<br>
+   *
+   * @param element
+   *          JDOM {@link Element} object
+   * @param extraction
+   *          Extraction
+   * @param inRecord
+   *          Element is in a record or not
+   */
+  private void visit(Element element, Extraction extraction, boolean inRecord) {
+    if (!inRecord && !extraction.open(element.getName())) {
+      for (Element child : element.getChildren()) {
+        visit(child, extraction, false);
+      }
+      extraction.close();
+      return;
+    }
+    extraction.start(element.getName());
+    for (org.jdom2.Attribute attribute : element.getAttributes()) {
+      extraction.attribute(attribute.getName(), attribute.getValue());
+    }
+    for (Content content : element.getContent()) {
+      if (content instanceof Element) {
+        visit((Element) content, extraction, true);
+      } else if (content instanceof Text) {
+        extraction.characters(((Text) content).getText());
+      }
+    }
+    if (extraction.end()) {
+      extraction.close();
+    }
+  }
+}
@@ -0,0 +1,626 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Merge many XML files into one under a common root element.<br>
+ * Contents of the root element of each input are streamed into the output in order of inputs, without parsing
+ * nor cloning elements. Inputs are scanned at byte level as {@link XmlSplitter} does, and copied as raw bytes by
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} if the encoding of input is
+ * the same as output, otherwise transcoded. Characters which can't be encoded by the output encoding are written
+ * as character references in text and attribute values, and CDATA sections are split around the references. Such
+ * characters in names, comments and processing instructions fail the merge.<br>
+ * Namespace declarations of root elements of inputs are declared on the root element of output, and other
+ * attributes of root elements of inputs aren't copied. All inputs must have the same default namespace on their
+ * root elements, including none, so that unprefixed elements keep their namespace.<br>
+ *
+ * <pre>
+ * {@code
+ * new XmlMerger().parallel(4).merge(partitions, "records", output);
+ * }
+ * </pre>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public final class XmlMerger {
+
+  /**
+   * Open input file and its scanner.<br>
+   *
+   * @version 1.0.0
+   * @author okosheep
+   */
+  private static final class Scanned implements AutoCloseable {
+
+    /** Input file */
+    private final FileChannel channel;
+
+    /** Scanned input file */
+    private final XmlScanner scanner;
+
+    /**
+     * Create {@link Scanned} instance.<br>
+     *
+     * @param channel
+     *          Input file
+     * @param scanner
+     *          Scanned input file
+     */
+    Scanned(FileChannel channel, XmlScanner scanner) {
+      this.channel = channel;
+      this.scanner = scanner;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.lang.AutoCloseable#close()
+     */
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  /**
+   * Markup context of transcoded characters, tracked only to write character references.<br>
+   *
+   * @version 1.0.0
+   * @author okosheep
+   */
+  private static final class Markup {
+
+    /** Text */
+    private static final int TEXT = 0;
+
+    /** After "&lt;" */
+    private static final int LT = 1;
+
+    /** Names in tag */
+    private static final int TAG = 2;
+
+    /** Attribute value */
+    private static final int QUOTE = 3;
+
+    /** After "&lt;!" */
+    private static final int BANG = 4;
+
+    /** Comment */
+    private static final int COMMENT = 5;
+
+    /** CDATA section */
+    private static final int CDATA = 6;
+
+    /** Processing instruction */
+    private static final int PI = 7;
+
+    /** State */
+    private int state = TEXT;
+
+    /** Quote character of attribute value */
+    private char quote;
+
+    /** Previous character */
+    private char previous;
+
+    /** Number of repeated closing characters of comment or CDATA section */
+    private int repeat;
+
+    /**
+     * Track characters.<br>
+     *
+     * @param chars
+     *          Characters
+     * @param from
+     *          Start index, inclusive
+     * @param to
+     *          End index, exclusive
+     */
+    void advance(CharBuffer chars, int from, int to) {
+      for (int i = from; i < to; i++) {
+        next(chars.get(i));
+      }
+    }
+
+    /**
+     * Get character reference to write instead of unmappable character.<br>
+     *
+     * @param codePoint
+     *          Code point of unmappable character
+     * @return Character reference, which closes and reopens CDATA section if in it
+     * @throws ParseException
+     *           Character reference isn't allowed here
+     */
+    String reference(int codePoint) throws ParseException {
+      String reference = "&#" + codePoint + ";";
+      switch (state) {
+      case TEXT:
+      case QUOTE:
+        return reference;
+      case CDATA:
+        return "]]>" + reference + "<![CDATA[";
+      case COMMENT:
+        throw ParseException.of("Can't encode U+" + Integer.toHexString(codePoint).toUpperCase() + " in comment.");
+      case PI:
+        throw ParseException.of("Can't encode U+" + Integer.toHexString(codePoint).toUpperCase()
+            + " in processing instruction.");
+      default:
+        throw ParseException.of("Can't encode U+" + Integer.toHexString(codePoint).toUpperCase() + " in name.");
+      }
+    }
+
+    /**
+     * Process next character.<br>
+     *
+     * @param c
+     *          Character
+     */
+    private void next(char c) {
+      switch (state) {
+      case TEXT:
+        if (c == '<') {
+          state = LT;
+        }
+        break;
+      case LT:
+        state = c == '!' ? BANG : c == '?' ? PI : TAG;
+        previous = 0;
+        break;
+      case TAG:
+        if (c == '"' || c == '\'') {
+          quote = c;
+          state = QUOTE;
+        } else if (c == '>') {
+          state = TEXT;
+        }
+        break;
+      case QUOTE:
+        if (c == quote) {
+          state = TAG;
+        }
+        break;
+      case BANG:
+        state = c == '[' ? CDATA : COMMENT;
+        repeat = c == '-' ? -1 : 0;
+        break;
+      case COMMENT:
+        closing(c, '-');
+        break;
+      case CDATA:
+        closing(c, ']');
+        break;
+      case PI:
+        if (c == '>' && previous == '?') {
+          state = TEXT;
+        }
+        previous = c;
+        break;
+      default:
+        break;
+      }
+    }
+
+    /**
+     * Find end of comment or CDATA section, such as "--&gt;" or "]]&gt;".<br>
+     *
+     * @param c
+     *          Character
+     * @param closing
+     *          Closing character repeated twice before "&gt;"
+     */
+    private void closing(char c, char closing) {
+      if (c == '>' && repeat >= 2) {
+        state = TEXT;
+      } else if (c == closing) {
+        repeat++;
+      } else {
+        repeat = 0;
+      }
+    }
+  }
+
+  /** Size of buffer to transcode */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /** Number of inputs in flight per thread */
+  private static final int WINDOW_PER_THREAD = 4;
+
+  /**
+   * Encode characters and write them to output.<br>
+   *
+   * @param encoder
+   *          Encoder
+   * @param chars
+   *          Characters, all of them are consumed
+   * @param encoded
+   *          Buffer of encoded bytes
+   * @param out
+   *          Output file
+   * @param endOfInput
+   *          No more characters or not
+   * @param markup
+   *          Markup context at the position of characters, or <code>null</code> if characters are all encodable
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Unmappable character where character reference isn't allowed
+   */
+  private static void encode(CharsetEncoder encoder, CharBuffer chars, ByteBuffer encoded, FileChannel out,
+      boolean endOfInput, Markup markup) throws IOException, ParseException {
+    int tracked = chars.position();
+    while (true) {
+      CoderResult result = encoder.encode(chars, encoded, endOfInput);
+      if (result.isUnmappable()) {
+        int position = chars.position();
+        markup.advance(chars, tracked, position);
+        String reference = markup.reference(Character.codePointAt(chars, 0));
+        tracked = position + result.length();
+        markup.advance(chars, position, tracked);
+        chars.position(tracked);
+        encode(encoder, CharBuffer.wrap(reference), encoded, out, false, null);
+      } else if (result.isOverflow()) {
+        flush(encoded, out);
+      } else if (result.isError()) {
+        result.throwException();
+      } else {
+        if (markup != null) {
+          markup.advance(chars, tracked, chars.position());
+        }
+        return;
+      }
+    }
+  }
+
+  /**
+   * Write all bytes of buffer to output.<br>
+   *
+   * @param encoded
+   *          Buffer of encoded bytes
+   * @param out
+   *          Output file
+   * @throws IOException
+   *           I/O exception
+   */
+  private static void flush(ByteBuffer encoded, FileChannel out) throws IOException {
+    encoded.flip();
+    while (encoded.hasRemaining()) {
+      out.write(encoded);
+    }
+    encoded.clear();
+  }
+
+  /**
+   * Collect namespace declarations of root elements of inputs.<br>
+   * Only the heads of inputs are read, until the end of start tag of root element.<br>
+   *
+   * @param inputs
+   *          Input files
+   * @param namespaces
+   *          Map to put attribute name and raw value of namespace declarations
+   * @return Tag name of root element of the first input, or <code>null</code> if no input
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Malformed XML, a prefix is bound to different namespaces, or default namespaces are different
+   */
+  private static String header(List<Path> inputs, Map<String, String> namespaces)
+      throws IOException, ParseException {
+    String rootName = null;
+    String defaultNamespace = null;
+    for (Path input : inputs) {
+      try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+        XmlScanner scanner = new XmlScanner(null, 1).scanHeader(channel);
+        rootName = rootName != null ? rootName : scanner.rootName();
+        String declared = scanner.namespaces().getOrDefault("xmlns", "");
+        if (defaultNamespace == null) {
+          defaultNamespace = declared;
+          if (!declared.isEmpty()) {
+            namespaces.put("xmlns", declared);
+          }
+        } else if (!defaultNamespace.equals(declared)) {
+          throw ParseException.of("Conflicting default namespace: \"" + defaultNamespace + "\" and \"" + declared
+              + "\" in " + input + ".");
+        }
+        for (Map.Entry<String, String> entry : scanner.namespaces().entrySet()) {
+          if (entry.getKey().equals("xmlns")) {
+            continue;
+          }
+          String bound = namespaces.putIfAbsent(entry.getKey(), entry.getValue());
+          if (bound != null && !bound.equals(entry.getValue())) {
+            throw ParseException.of("Conflicting " + entry.getKey() + ": \"" + bound + "\" and \""
+                + entry.getValue() + "\" in " + input + ".");
+          }
+        }
+      }
+    }
+    return rootName;
+  }
+
+  /**
+   * Scan an input.<br>
+   *
+   * @param input
+   *          Input file
+   * @return Open input file and scanner
+   * @throws IOException
+   *           I/O exception
+   */
+  private static Scanned scan(Path input) throws IOException {
+    FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+    try {
+      return new Scanned(channel, new XmlScanner(null, 1).scan(channel));
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Copy contents of root element of input with transcoding.<br>
+   *
+   * @param in
+   *          Input file
+   * @param scanner
+   *          Scanned input file
+   * @param out
+   *          Output file
+   * @param charset
+   *          Character set of output
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Unmappable character where character reference isn't allowed
+   */
+  private static void transcode(FileChannel in, XmlScanner scanner, FileChannel out, Charset charset)
+      throws IOException, ParseException {
+    Markup markup = new Markup();
+    CharsetDecoder decoder = scanner.encoding().newDecoder();
+    CharsetEncoder encoder = charset.newEncoder();
+    ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    ByteBuffer encoded = ByteBuffer.allocate((int) (BUFFER_SIZE * encoder.maxBytesPerChar()) + 16);
+    long current = scanner.headerEnd();
+    long end = scanner.footerStart();
+    boolean endOfInput = current >= end;
+    while (!endOfInput) {
+      bytes.limit((int) Math.min(bytes.capacity(), bytes.position() + end - current));
+      int read = in.read(bytes, current);
+      if (read < 0) {
+        throw new IOException("Unexpected end of file at " + current);
+      }
+      current += read;
+      endOfInput = current >= end;
+      bytes.flip();
+      CoderResult result;
+      do {
+        result = decoder.decode(bytes, chars, endOfInput);
+        if (result.isError()) {
+          result.throwException();
+        }
+        chars.flip();
+        encode(encoder, chars, encoded, out, false, markup);
+        chars.clear();
+      } while (result.isOverflow());
+      bytes.compact();
+    }
+    if (decoder.flush(chars).isError()) {
+      throw new CharacterCodingException();
+    }
+    chars.flip();
+    encode(encoder, chars, encoded, out, true, markup);
+    while (encoder.flush(encoded).isOverflow()) {
+      flush(encoded, out);
+    }
+    flush(encoded, out);
+  }
+
+  /**
+   * Write text to output.<br>
+   *
+   * @param text
+   *          Text
+   * @param out
+   *          Output file
+   * @param charset
+   *          Character set of output
+   * @throws IOException
+   *           I/O exception
+   */
+  private static void write(String text, FileChannel out, Charset charset) throws IOException {
+    ByteBuffer buffer = charset.encode(text);
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+  }
+
+  /** Number of threads to read inputs */
+  private int threads = 1;
+
+  /**
+   * Merge XML files by UTF-8.<br>
+   *
+   * @param inputs
+   *          Input files
+   * @param rootName
+   *          Tag name of root element of output, or <code>null</code> to use the one of the first input
+   * @param output
+   *          Output file, overwritten if exists
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Unsupported encoding, malformed XML, conflicting namespace declarations, or character which can't be
+   *           encoded in name, comment or processing instruction
+   */
+  public void merge(List<Path> inputs, String rootName, Path output) throws IOException, ParseException {
+    merge(inputs, rootName, output, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Merge XML files.<br>
+   *
+   * @param inputs
+   *          Input files
+   * @param rootName
+   *          Tag name of root element of output, or <code>null</code> to use the one of the first input
+   * @param output
+   *          Output file, overwritten if exists
+   * @param charset
+   *          Character set of output
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Unsupported encoding, malformed XML, conflicting namespace declarations, or character which can't be
+   *           encoded in name, comment or processing instruction
+   */
+  public void merge(List<Path> inputs, String rootName, Path output, Charset charset)
+      throws IOException, ParseException {
+    ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "trifulx-merger");
+      thread.setDaemon(true);
+      return thread;
+    }) : null;
+    Deque<Future<Scanned>> pending = new ArrayDeque<>();
+    try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      Map<String, String> namespaces = new LinkedHashMap<>();
+      String first = header(inputs, namespaces);
+      String name = rootName != null ? rootName : first;
+      if (name == null) {
+        throw new IllegalArgumentException("Root name is required to merge no input.");
+      }
+      StringBuilder start = new StringBuilder("<?xml version=\"1.0\" encoding=\"").append(charset.name())
+          .append("\"?>\r\n<").append(name);
+      for (Map.Entry<String, String> entry : namespaces.entrySet()) {
+        start.append(' ').append(entry.getKey()).append("=\"").append(entry.getValue().replace("\"", "&quot;"))
+            .append('"');
+      }
+      write(start.append('>').toString(), out, charset);
+
+      int window = threads * WINDOW_PER_THREAD;
+      int next = 0;
+      for (int i = 0; i < inputs.size(); i++) {
+        while (next < inputs.size() && (next == i || pending.size() < window)) {
+          Path input = inputs.get(next++);
+          pending.addLast(executor != null ? executor.submit(() -> scan(input))
+              : CompletableFuture.completedFuture(scan(input)));
+        }
+        try (Scanned scanned = take(pending.removeFirst())) {
+          XmlScanner scanner = scanned.scanner;
+          if (scanner.isEmptyRoot()) {
+            continue;
+          }
+          if (scanner.encoding().equals(charset)) {
+            XmlScanner.transfer(scanned.channel, scanner.headerEnd(), scanner.footerStart() - scanner.headerEnd(),
+                out);
+          } else {
+            transcode(scanned.channel, scanner, out, charset);
+          }
+        }
+      }
+      write("</" + name + ">\r\n", out, charset);
+    } catch (Exception e) {
+      for (Future<Scanned> future : pending) {
+        future.cancel(true);
+        try {
+          future.get().close();
+        } catch (Exception suppressed) {
+          e.addSuppressed(suppressed);
+        }
+      }
+      throw e;
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * Read inputs in parallel.<br>
+   * Inputs are written in order of inputs regardless of the order of reading.<br>
+   *
+   * @param threads
+   *          Number of threads, 1 means inputs are read on the calling thread
+   * @return Self object
+   * @throws IllegalArgumentException
+   *           Number of threads is less than 1
+   */
+  public XmlMerger parallel(int threads) throws IllegalArgumentException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+    }
+    this.threads = threads;
+    return this;
+  }
+
+  /**
+   * Wait for a scanned input.<br>
+   *
+   * @param future
+   *          Scanned input
+   * @return Open input file and scanner
+   * @throws IOException
+   *           I/O exception
+   */
+  private Scanned take(Future<Scanned> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+}
@@ -0,0 +1,414 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in metrics of parsing, navigation and serialization.<br>
+ * Metrics are disabled by default, enable them by {@link #setEnabled(boolean)} or system property
+ * {@value #PROPERTY}. While disabled, instrumented operations only read a volatile flag.<br>
+ * Counters and latency histograms are exposed by getters and JMX, and events are published to
+ * {@link XmlMetricsListener}.<br>
+ *
+ * <pre>
+ * {@code
+ * XmlMetrics metrics = XmlMetrics.get();
+ * metrics.setEnabled(true);
+ * XmlMetrics.registerMBean();
+ * }
+ * </pre>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public final class XmlMetrics implements XmlMetricsMXBean {
+
+  /** Object name of MBean */
+  public static final String OBJECT_NAME = "info.okoshi.trifulx:type=XmlMetrics";
+
+  /** System property name to enable metrics on startup */
+  public static final String PROPERTY = "info.okoshi.trifulx.metrics";
+
+  /** The metrics */
+  private static final XmlMetrics INSTANCE = new XmlMetrics();
+
+  /** Enabled or not */
+  private static volatile boolean enabled = Boolean.getBoolean(PROPERTY);
+
+  /**
+   * Add listener.<br>
+   *
+   * @param listener
+   *          Listener
+   */
+  public static void addListener(XmlMetricsListener listener) {
+    INSTANCE.listeners.add(listener);
+  }
+
+  /**
+   * Get the metrics.<br>
+   *
+   * @return {@link XmlMetrics} object
+   */
+  public static XmlMetrics get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Register MBean to the platform MBean server as {@value #OBJECT_NAME}.<br>
+   *
+   * @throws JMException
+   *           Registration failed, or already registered
+   */
+  public static void registerMBean() throws JMException {
+    ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+  }
+
+  /**
+   * Remove listener.<br>
+   *
+   * @param listener
+   *          Listener
+   */
+  public static void removeListener(XmlMetricsListener listener) {
+    INSTANCE.listeners.remove(listener);
+  }
+
+  /**
+   * Unregister MBean from the platform MBean server.<br>
+   *
+   * @throws JMException
+   *           Unregistration failed, or not registered
+   */
+  public static void unregisterMBean() throws JMException {
+    ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+  }
+
+  /**
+   * Count created element.<br>
+   */
+  static void elementCreated() {
+    if (enabled) {
+      INSTANCE.elementsCreated.increment();
+    }
+  }
+
+  /**
+   * Wrap input stream to count bytes if enabled.<br>
+   *
+   * @param in
+   *          Input stream
+   * @return Counting input stream, or the input stream if disabled
+   */
+  static InputStream input(InputStream in) {
+    return enabled ? new CountingInputStream(in) : in;
+  }
+
+  /**
+   * Count lookup of missing node.<br>
+   *
+   * @param name
+   *          Tag name of the missing node
+   */
+  static void lookupMissed(String name) {
+    if (enabled) {
+      INSTANCE.lookupMisses.increment();
+      for (XmlMetricsListener listener : INSTANCE.listeners) {
+        listener.lookupMissed(name);
+      }
+    }
+  }
+
+  /**
+   * Wrap output stream to count bytes if enabled.<br>
+   *
+   * @param out
+   *          Output stream
+   * @return Counting output stream, or the output stream if disabled
+   */
+  static OutputStream output(OutputStream out) {
+    return enabled ? new CountingOutputStream(out) : out;
+  }
+
+  /**
+   * Record parsing.<br>
+   *
+   * @param in
+   *          Input stream returned by {@link #input(InputStream)}
+   * @param start
+   *          Start time returned by {@link #start()}
+   */
+  static void parsed(InputStream in, long start) {
+    if (start != 0 && in instanceof CountingInputStream) {
+      long nanos = System.nanoTime() - start;
+      long bytes = ((CountingInputStream) in).count;
+      INSTANCE.parseBytes.add(bytes);
+      INSTANCE.parseLatency.record(nanos);
+      for (XmlMetricsListener listener : INSTANCE.listeners) {
+        listener.parsed(bytes, nanos);
+      }
+    }
+  }
+
+  /**
+   * Record serialization.<br>
+   *
+   * @param size
+   *          Size of output
+   * @param start
+   *          Start time returned by {@link #start()}
+   */
+  static void serialized(long size, long start) {
+    if (start != 0) {
+      long nanos = System.nanoTime() - start;
+      INSTANCE.serializeBytes.add(size);
+      INSTANCE.serializeLatency.record(nanos);
+      for (XmlMetricsListener listener : INSTANCE.listeners) {
+        listener.serialized(size, nanos);
+      }
+    }
+  }
+
+  /**
+   * Record serialization to output stream.<br>
+   *
+   * @param out
+   *          Output stream returned by {@link #output(OutputStream)}
+   * @param start
+   *          Start time returned by {@link #start()}
+   */
+  static void serialized(OutputStream out, long start) {
+    if (out instanceof CountingOutputStream) {
+      serialized(((CountingOutputStream) out).count, start);
+    }
+  }
+
+  /**
+   * Get start time of operation.<br>
+   *
+   * @return Start time in nanoseconds, or <code>0</code> if disabled
+   */
+  static long start() {
+    return enabled ? System.nanoTime() | 1 : 0;
+  }
+
+  /**
+   * Count created node wrapper.<br>
+   */
+  static void wrapperCreated() {
+    if (enabled) {
+      INSTANCE.wrappersCreated.increment();
+    }
+  }
+
+  /** Count of created elements */
+  private final LongAdder elementsCreated = new LongAdder();
+
+  /** Listeners */
+  private final List<XmlMetricsListener> listeners = new CopyOnWriteArrayList<>();
+
+  /** Count of lookups of missing nodes */
+  private final LongAdder lookupMisses = new LongAdder();
+
+  /** Total size of parsed input */
+  private final LongAdder parseBytes = new LongAdder();
+
+  /** Latencies of parsing */
+  private final LatencyHistogram parseLatency = new LatencyHistogram();
+
+  /** Total size of serialized output */
+  private final LongAdder serializeBytes = new LongAdder();
+
+  /** Latencies of serialization */
+  private final LatencyHistogram serializeLatency = new LatencyHistogram();
+
+  /** Count of created node wrappers */
+  private final LongAdder wrappersCreated = new LongAdder();
+
+  /**
+   * Create {@link XmlMetrics} instance with listeners registered to {@link ServiceLoader}.<br>
+   */
+  private XmlMetrics() {
+    for (XmlMetricsListener listener : ServiceLoader.load(XmlMetricsListener.class,
+        XmlMetrics.class.getClassLoader())) {
+      listeners.add(listener);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#getElementsCreated()
+   */
+  @Override
+  public long getElementsCreated() {
+    return elementsCreated.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#getLookupMisses()
+   */
+  @Override
+  public long getLookupMisses() {
+    return lookupMisses.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#getParseBytes()
+   */
+  @Override
+  public long getParseBytes() {
+    return parseBytes.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#getParseCount()
+   */
+  @Override
+  public long getParseCount() {
+    return parseLatency.count();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#getParseLatencyHistogram()
+   */
+  @Override
+  public long[] getParseLatencyHistogram() {
+    return parseLatency.buckets();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#getParseNanos()
+   */
+  @Override
+  public long getParseNanos() {
+    return parseLatency.totalNanos();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#getSerializeBytes()
+   */
+  @Override
+  public long getSerializeBytes() {
+    return serializeBytes.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#getSerializeCount()
+   */
+  @Override
+  public long getSerializeCount() {
+    return serializeLatency.count();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#getSerializeLatencyHistogram()
+   */
+  @Override
+  public long[] getSerializeLatencyHistogram() {
+    return serializeLatency.buckets();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#getSerializeNanos()
+   */
+  @Override
+  public long getSerializeNanos() {
+    return serializeLatency.totalNanos();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#getWrappersCreated()
+   */
+  @Override
+  public long getWrappersCreated() {
+    return wrappersCreated.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#isEnabled()
+   */
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#reset()
+   */
+  @Override
+  public void reset() {
+    elementsCreated.reset();
+    lookupMisses.reset();
+    parseBytes.reset();
+    parseLatency.reset();
+    serializeBytes.reset();
+    serializeLatency.reset();
+    wrappersCreated.reset();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see info.okoshi.trifulx.XmlMetricsMXBean#setEnabled(boolean)
+   */
+  @Override
+  public void setEnabled(boolean enabled) {
+    XmlMetrics.enabled = enabled;
+  }
+}
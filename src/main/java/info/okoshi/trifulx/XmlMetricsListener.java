@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+/**
+ * Listener of metrics events published by {@link XmlMetrics}.<br>
+ * Listeners are called synchronously on the thread of the operation only while metrics are enabled, so they should
+ * return quickly. Providers registered to {@link java.util.ServiceLoader} are added automatically.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public interface XmlMetricsListener {
+
+  /**
+   * Called when a missing node is looked up by {@link Node#tryNode(String)}.<br>
+   *
+   * @param name
+   *          Tag name of the missing node
+   */
+  default void lookupMissed(String name) {
+  }
+
+  /**
+   * Called after XML is parsed.<br>
+   *
+   * @param bytes
+   *          Size of input in bytes
+   * @param nanos
+   *          Elapsed time in nanoseconds
+   */
+  default void parsed(long bytes, long nanos) {
+  }
+
+  /**
+   * Called after XML is serialized by {@link Xml#save(java.io.OutputStream, java.nio.charset.Charset)} or
+   * {@link Xml#text(FormatTypes, java.nio.charset.Charset)}.<br>
+   *
+   * @param size
+   *          Size of output, in bytes for saving, and in characters for text
+   * @param nanos
+   *          Elapsed time in nanoseconds
+   */
+  default void serialized(long size, long nanos) {
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+/**
+ * JMX management interface of {@link XmlMetrics}.<br>
+ * Histograms are counts of power of two buckets, bucket <code>i</code> counts latencies in
+ * <code>[2^(i-1), 2^i)</code> nanoseconds.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public interface XmlMetricsMXBean {
+
+  /**
+   * Get count of created elements.<br>
+   *
+   * @return Count
+   */
+  long getElementsCreated();
+
+  /**
+   * Get count of lookups of missing nodes.<br>
+   *
+   * @return Count
+   */
+  long getLookupMisses();
+
+  /**
+   * Get total size of parsed input.<br>
+   *
+   * @return Size in bytes
+   */
+  long getParseBytes();
+
+  /**
+   * Get count of parsing.<br>
+   *
+   * @return Count
+   */
+  long getParseCount();
+
+  /**
+   * Get histogram of parsing latencies.<br>
+   *
+   * @return Counts of buckets
+   */
+  long[] getParseLatencyHistogram();
+
+  /**
+   * Get total time of parsing.<br>
+   *
+   * @return Time in nanoseconds
+   */
+  long getParseNanos();
+
+  /**
+   * Get total size of serialized output.<br>
+   *
+   * @return Size in bytes for saving, and in characters for text
+   */
+  long getSerializeBytes();
+
+  /**
+   * Get count of serialization.<br>
+   *
+   * @return Count
+   */
+  long getSerializeCount();
+
+  /**
+   * Get histogram of serialization latencies.<br>
+   *
+   * @return Counts of buckets
+   */
+  long[] getSerializeLatencyHistogram();
+
+  /**
+   * Get total time of serialization.<br>
+   *
+   * @return Time in nanoseconds
+   */
+  long getSerializeNanos();
+
+  /**
+   * Get count of created node wrappers.<br>
+   *
+   * @return Count
+   */
+  long getWrappersCreated();
+
+  /**
+   * Enabled or not.<br>
+   *
+   * @return <code>true</code> means enabled
+   */
+  boolean isEnabled();
+
+  /**
+   * Clear all counters.<br>
+   */
+  void reset();
+
+  /**
+   * Enable or disable metrics.<br>
+   *
+   * @param enabled
+   *          <code>true</code> means enable
+   */
+  void setEnabled(boolean enabled);
+}
@@ -0,0 +1,667 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jdom2.Comment;
+import org.jdom2.Content;
+import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.Text;
+import org.jdom2.filter.Filters;
+import org.jdom2.input.StAXStreamBuilder;
+import org.jdom2.output.Format;
+import org.jdom2.output.StAXStreamOutputter;
+
+/**
+ * Streaming transformation of XML.<br>
+ * The document is read by StAX, and only each record, the subtree of an element which has the record name, is
+ * built as {@link Node} and passed through stages. Other parts of the document are written as they are read, so
+ * documents of any size are transformed in constant memory as far as each record is small.<br>
+ * Renaming and dropping attributes are applied to both records and other elements, and the record name is
+ * matched against the name before renaming. Renames are applied in order, so a renamed element is renamed again by
+ * later renames of the new name.<br>
+ *
+ * <pre>
+ * {@code
+ * new XmlPipeline("record")
+ *     .filter(node -> node.attrBool("active", false))
+ *     .map(node -> node.attr("checked", Value.valueOf(true)))
+ *     .rename("record", "item")
+ *     .dropAttrs("internal")
+ *     .parallel(4)
+ *     .transform(in, out);
+ * }
+ * </pre>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public final class XmlPipeline {
+
+  /** Factory of streaming reader */
+  private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+  /** Factory of streaming writer */
+  private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+  /** Number of records in flight per thread of parallel stages */
+  private static final int WINDOW_PER_THREAD = 4;
+
+  /**
+   * Get element of node as a detached element.<br>
+   *
+   * @param node
+   *          {@link Node} object
+   * @return JDOM {@link Element} object
+   */
+  private static Element element(Node node) {
+    if (node instanceof FrozenNodeCreator.FrozenNode) {
+      return ((FrozenNodeCreator.FrozenNode) node).data().toElement();
+    }
+    if (!(node instanceof NodeImplCreator.NodeImpl)) {
+      throw new IllegalArgumentException("Can't write node of " + node.getClass().getName() + ".");
+    }
+    Element element = ((NodeImplCreator.NodeImpl) node).element();
+    return element.getParent() == null ? element : element.clone();
+  }
+
+  /**
+   * Make a rename of one tag name.<br>
+   *
+   * @param from
+   *          Old tag name
+   * @param to
+   *          New tag name
+   * @return Function returns new tag name, or the name as it is if not renamed
+   */
+  private static UnaryOperator<String> renaming(String from, String to) {
+    return name -> name.equals(from) ? to : name;
+  }
+
+  /** Names of attributes to drop */
+  private final Set<String> droppedAttrs = new HashSet<>();
+
+  /** Record name */
+  private final String recordName;
+
+  /** Renames of elements outside records, composed in order of renames */
+  private UnaryOperator<String> renames = UnaryOperator.identity();
+
+  /** Stages for records, each one returns <code>null</code> to drop the record */
+  private final List<UnaryOperator<Element>> stages = new ArrayList<>();
+
+  /** Number of threads of stages */
+  private int threads = 1;
+
+  /**
+   * Create {@link XmlPipeline} instance.<br>
+   *
+   * @param recordName
+   *          Tag name of records
+   */
+  public XmlPipeline(String recordName) {
+    this.recordName = recordName;
+  }
+
+  /**
+   * Wait and give a mapped record to sink.<br>
+   *
+   * @param sink
+   *          Sink of mapped records
+   * @param future
+   *          Mapped record, <code>null</code> if dropped
+   * @return 1 if given to sink, otherwise 0
+   * @throws IOException
+   *           Exception in stages
+   */
+  private <T> int accept(Consumer<T> sink, Future<T> future) throws IOException {
+    T result = take(future);
+    if (result == null) {
+      return 0;
+    }
+    sink.accept(result);
+    return 1;
+  }
+
+  /**
+   * Apply stages to a record.<br>
+   *
+   * @param record
+   *          Record element
+   * @return Transformed record, or <code>null</code> if dropped
+   */
+  private Element apply(Element record) {
+    Element element = record;
+    for (UnaryOperator<Element> stage : stages) {
+      element = stage.apply(element);
+      if (element == null) {
+        return null;
+      }
+    }
+    return element;
+  }
+
+  /**
+   * Drop attributes from all elements.<br>
+   *
+   * @param names
+   *          Attribute names
+   * @return Self object
+   */
+  public XmlPipeline dropAttrs(String... names) {
+    Set<String> dropped = new HashSet<>(Arrays.asList(names));
+    droppedAttrs.addAll(dropped);
+    stages.add(record -> {
+      for (Element element : record.getDescendants(Filters.element())) {
+        element.getAttributes().removeIf(attribute -> dropped.contains(attribute.getName()));
+      }
+      record.getAttributes().removeIf(attribute -> dropped.contains(attribute.getName()));
+      return record;
+    });
+    return this;
+  }
+
+  /**
+   * Create executor of stages.<br>
+   *
+   * @return Executor, or <code>null</code> to run stages on the calling thread
+   */
+  private ExecutorService executor() {
+    return threads > 1 ? Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "trifulx-pipeline");
+      thread.setDaemon(true);
+      return thread;
+    }) : null;
+  }
+
+  /**
+   * Keep only records matching the predicate.<br>
+   *
+   * @param predicate
+   *          Predicate for record node
+   * @return Self object
+   */
+  public XmlPipeline filter(Predicate<Node> predicate) {
+    NodeCreator creator = new NodeImplCreator();
+    stages.add(record -> predicate.test(creator.create(record, true)) ? record : null);
+    return this;
+  }
+
+  /**
+   * Write all pending contents.<br>
+   *
+   * @param outputter
+   *          Outputter
+   * @param writer
+   *          Streaming writer
+   * @param pending
+   *          Pending contents
+   * @return Number of written records
+   * @throws XMLStreamException
+   *           Exception in writing
+   * @throws IOException
+   *           Exception in stages
+   */
+  private long flush(StAXStreamOutputter outputter, XMLStreamWriter writer, Deque<Future<? extends Content>> pending)
+      throws XMLStreamException, IOException {
+    long count = 0;
+    while (!pending.isEmpty()) {
+      count += write(outputter, writer, pending.removeFirst());
+    }
+    return count;
+  }
+
+  /**
+   * Map records.<br>
+   * Mapper can modify the record node and return it, or return another node. Returning <code>null</code> or non
+   * existence node drops the record.<br>
+   *
+   * @param mapper
+   *          Mapper for record node
+   * @return Self object
+   */
+  public XmlPipeline map(UnaryOperator<Node> mapper) {
+    NodeCreator creator = new NodeImplCreator();
+    stages.add(record -> {
+      Node node = mapper.apply(creator.create(record, true));
+      return node == null || !node.exists() ? null : element(node);
+    });
+    return this;
+  }
+
+  /**
+   * Run stages in parallel.<br>
+   * Records are read and written on the calling thread, and stages run on specified number of threads. The order
+   * of records is kept.<br>
+   * Stages must be thread safe.<br>
+   *
+   * @param threads
+   *          Number of threads, 1 means stages run on the calling thread
+   * @return Self object
+   * @throws IllegalArgumentException
+   *           Number of threads is less than 1
+   */
+  public XmlPipeline parallel(int threads) throws IllegalArgumentException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+    }
+    this.threads = threads;
+    return this;
+  }
+
+  /**
+   * Apply stages and mapper to a record.<br>
+   *
+   * @param record
+   *          Record element
+   * @param mapper
+   *          Mapper of records passed through stages
+   * @return Mapped record, or <code>null</code> if dropped
+   */
+  private <T> T process(Element record, Function<Element, T> mapper) {
+    Element element = apply(record);
+    return element != null ? mapper.apply(element) : null;
+  }
+
+  /**
+   * Read records through stages, ignoring other parts of the document.<br>
+   * Mapper runs on the threads of stages, and sink receives results in order of records on the calling
+   * thread.<br>
+   * Input stream will be closed on finally.<br>
+   *
+   * @param in
+   *          Input stream
+   * @param mapper
+   *          Mapper of records passed through stages, returns <code>null</code> to drop the record
+   * @param sink
+   *          Sink of mapped records
+   * @return Number of records given to sink
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Exception in parsing
+   */
+  <T> long records(InputStream in, Function<Element, T> mapper, Consumer<T> sink) throws IOException, ParseException {
+    ExecutorService executor = executor();
+    try {
+      XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+      StAXStreamBuilder builder = new StAXStreamBuilder();
+      builder.setFactory(TrifulxElement.FACTORY);
+      Deque<Future<T>> pending = new ArrayDeque<>();
+      int window = threads * WINDOW_PER_THREAD;
+      long count = 0;
+
+      int event = reader.getEventType();
+      while (event != XMLStreamConstants.END_DOCUMENT) {
+        if (event != XMLStreamConstants.START_ELEMENT || !reader.getLocalName().equals(recordName)) {
+          event = reader.next();
+          continue;
+        }
+        Element record = (Element) builder.fragment(reader);
+        if (executor == null) {
+          count += accept(sink, CompletableFuture.completedFuture(process(record, mapper)));
+        } else {
+          if (pending.size() >= window) {
+            count += accept(sink, pending.removeFirst());
+          }
+          pending.addLast(executor.submit(() -> process(record, mapper)));
+        }
+        event = reader.getEventType();
+      }
+      while (!pending.isEmpty()) {
+        count += accept(sink, pending.removeFirst());
+      }
+      reader.close();
+      return count;
+    } catch (XMLStreamException | JDOMException e) {
+      throw new ParseException(e);
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+      in.close();
+    }
+  }
+
+  /**
+   * Rename elements.<br>
+   *
+   * @param from
+   *          Old tag name
+   * @param to
+   *          New tag name
+   * @return Self object
+   */
+  public XmlPipeline rename(String from, String to) {
+    UnaryOperator<String> renaming = renaming(from, to);
+    UnaryOperator<String> previous = renames;
+    renames = name -> renaming.apply(previous.apply(name));
+    stages.add(record -> {
+      for (Element element : record.getDescendants(Filters.element())) {
+        element.setName(renaming.apply(element.getName()));
+      }
+      record.setName(renaming.apply(record.getName()));
+      return record;
+    });
+    return this;
+  }
+
+  /**
+   * Wait for result of stages.<br>
+   *
+   * @param future
+   *          Result of stages
+   * @return Result
+   * @throws IOException
+   *           Exception in stages
+   */
+  private <T> T take(Future<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * Transform XML by UTF-8.<br>
+   * Input stream and output stream will be closed on finally.<br>
+   *
+   * @param in
+   *          Input stream
+   * @param out
+   *          Output stream
+   * @return Number of written records
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Exception in parsing
+   */
+  public long transform(InputStream in, OutputStream out) throws IOException, ParseException {
+    return transform(in, out, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Transform XML.<br>
+   * Input stream and output stream will be closed on finally.<br>
+   *
+   * @param in
+   *          Input stream
+   * @param out
+   *          Output stream
+   * @param charset
+   *          Character set of output
+   * @return Number of written records
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Exception in parsing
+   */
+  public long transform(InputStream in, OutputStream out, Charset charset) throws IOException, ParseException {
+    ExecutorService executor = executor();
+    try {
+      XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+      XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out, charset.name());
+      long count = transform(reader, writer, charset, executor);
+      writer.close();
+      reader.close();
+      return count;
+    } catch (XMLStreamException | JDOMException e) {
+      throw new ParseException(e);
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+      try {
+        in.close();
+      } finally {
+        out.close();
+      }
+    }
+  }
+
+  /**
+   * Transform XML from streaming reader to streaming writer.<br>
+   *
+   * @param reader
+   *          Streaming reader
+   * @param writer
+   *          Streaming writer
+   * @param charset
+   *          Character set of output
+   * @param executor
+   *          Executor of stages, or <code>null</code> to run stages on the calling thread
+   * @return Number of written records
+   * @throws XMLStreamException
+   *           Exception in reading or writing
+   * @throws JDOMException
+   *           Exception in building record
+   * @throws IOException
+   *           Exception in stages
+   */
+  private long transform(XMLStreamReader reader, XMLStreamWriter writer, Charset charset, ExecutorService executor)
+      throws XMLStreamException, JDOMException, IOException {
+    StAXStreamBuilder builder = new StAXStreamBuilder();
+    builder.setFactory(TrifulxElement.FACTORY);
+    StAXStreamOutputter outputter = new StAXStreamOutputter(Format.getRawFormat());
+    Deque<Future<? extends Content>> pending = new ArrayDeque<>();
+    int window = threads * WINDOW_PER_THREAD;
+    long count = 0;
+
+    int event = reader.getEventType();
+    while (true) {
+      switch (event) {
+      case XMLStreamConstants.START_ELEMENT:
+        if (reader.getLocalName().equals(recordName)) {
+          Element record = (Element) builder.fragment(reader);
+          if (executor == null) {
+            count += write(outputter, writer, apply(record));
+          } else {
+            if (pending.size() >= window) {
+              count += write(outputter, writer, pending.removeFirst());
+            }
+            pending.addLast(executor.submit(() -> apply(record)));
+          }
+          event = reader.getEventType();
+          continue;
+        }
+        count += flush(outputter, writer, pending);
+        writeStartElement(reader, writer);
+        break;
+      case XMLStreamConstants.CHARACTERS:
+      case XMLStreamConstants.SPACE:
+        if (pending.isEmpty()) {
+          writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+        } else {
+          pending.addLast(CompletableFuture.completedFuture(new Text(reader.getText())));
+        }
+        break;
+      case XMLStreamConstants.CDATA:
+        count += flush(outputter, writer, pending);
+        writer.writeCData(reader.getText());
+        break;
+      case XMLStreamConstants.COMMENT:
+        if (pending.isEmpty()) {
+          writer.writeComment(reader.getText());
+        } else {
+          pending.addLast(CompletableFuture.completedFuture(new Comment(reader.getText())));
+        }
+        break;
+      case XMLStreamConstants.PROCESSING_INSTRUCTION:
+        if (pending.isEmpty()) {
+          writer.writeProcessingInstruction(reader.getPITarget(), reader.getPIData());
+        } else {
+          pending.addLast(
+              CompletableFuture.completedFuture(new ProcessingInstruction(reader.getPITarget(), reader.getPIData())));
+        }
+        break;
+      case XMLStreamConstants.DTD:
+        writer.writeDTD(reader.getText());
+        break;
+      case XMLStreamConstants.ENTITY_REFERENCE:
+        count += flush(outputter, writer, pending);
+        writer.writeEntityRef(reader.getLocalName());
+        break;
+      case XMLStreamConstants.END_ELEMENT:
+        count += flush(outputter, writer, pending);
+        writer.writeEndElement();
+        break;
+      case XMLStreamConstants.START_DOCUMENT:
+        String version = reader.getVersion();
+        writer.writeStartDocument(charset.name(), version != null ? version : "1.0");
+        break;
+      case XMLStreamConstants.END_DOCUMENT:
+        count += flush(outputter, writer, pending);
+        writer.writeEndDocument();
+        writer.flush();
+        return count;
+      default:
+        break;
+      }
+      event = reader.next();
+    }
+  }
+
+  /**
+   * Write a content.<br>
+   *
+   * @param outputter
+   *          Outputter
+   * @param writer
+   *          Streaming writer
+   * @param content
+   *          Content, or <code>null</code> if dropped
+   * @return 1 if a record is written, otherwise 0
+   * @throws XMLStreamException
+   *           Exception in writing
+   */
+  private int write(StAXStreamOutputter outputter, XMLStreamWriter writer, Content content)
+      throws XMLStreamException {
+    if (content instanceof Element) {
+      outputter.output((Element) content, writer);
+      return 1;
+    }
+    if (content instanceof Text) {
+      outputter.output((Text) content, writer);
+    } else if (content instanceof Comment) {
+      outputter.output((Comment) content, writer);
+    } else if (content instanceof ProcessingInstruction) {
+      outputter.output((ProcessingInstruction) content, writer);
+    }
+    return 0;
+  }
+
+  /**
+   * Wait and write a pending content.<br>
+   *
+   * @param outputter
+   *          Outputter
+   * @param writer
+   *          Streaming writer
+   * @param future
+   *          Pending content
+   * @return 1 if a record is written, otherwise 0
+   * @throws XMLStreamException
+   *           Exception in writing
+   * @throws IOException
+   *           Exception in stages
+   */
+  private int write(StAXStreamOutputter outputter, XMLStreamWriter writer, Future<? extends Content> future)
+      throws XMLStreamException, IOException {
+    return write(outputter, writer, take(future));
+  }
+
+  /**
+   * Write start tag of the current element of reader, with renaming and dropping attributes.<br>
+   *
+   * @param reader
+   *          Streaming reader
+   * @param writer
+   *          Streaming writer
+   * @throws XMLStreamException
+   *           Exception in writing
+   */
+  private void writeStartElement(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+    String name = renames.apply(reader.getLocalName());
+    String prefix = reader.getPrefix();
+    String uri = reader.getNamespaceURI();
+    writer.writeStartElement(prefix != null ? prefix : "", name, uri != null ? uri : "");
+    for (int i = 0; i < reader.getNamespaceCount(); i++) {
+      String namespacePrefix = reader.getNamespacePrefix(i);
+      if (namespacePrefix == null || namespacePrefix.isEmpty()) {
+        writer.writeDefaultNamespace(reader.getNamespaceURI(i));
+      } else {
+        writer.writeNamespace(namespacePrefix, reader.getNamespaceURI(i));
+      }
+    }
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      String attrName = reader.getAttributeLocalName(i);
+      if (droppedAttrs.contains(attrName)) {
+        continue;
+      }
+      String attrUri = reader.getAttributeNamespace(i);
+      if (attrUri == null || attrUri.isEmpty()) {
+        writer.writeAttribute(attrName, reader.getAttributeValue(i));
+      } else {
+        writer.writeAttribute(reader.getAttributePrefix(i), attrUri, attrName, reader.getAttributeValue(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,614 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Byte-level scanner to locate the root element and cut positions of records of XML file without parsing.<br>
+ * Only tags, comments, CDATA sections, processing instructions and document type declaration are recognized,
+ * enough to track depth of elements. Encoding must be compatible with ASCII, such as UTF-8 or ISO-8859-1.<br>
+ * Positions of records aren't retained. Only the first record at or after each of the byte targets, which divide
+ * the file evenly, is kept, so memory doesn't grow with the number of records.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+final class XmlScanner {
+
+  /** Size of buffer to read */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /** Pattern of attribute in start tag */
+  private static final Pattern ATTRIBUTE = Pattern.compile("\\s([^\\s=/>]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')");
+
+  /** Pattern of encoding in XML declaration */
+  private static final Pattern ENCODING = Pattern.compile("encoding\\s*=\\s*[\"']([^\"']+)[\"']");
+
+  /** Text */
+  private static final int TEXT = 0;
+
+  /** After "&lt;" */
+  private static final int LT = 1;
+
+  /** Name of start tag */
+  private static final int START_NAME = 2;
+
+  /** Attributes of start tag */
+  private static final int START_ATTRS = 3;
+
+  /** Attribute value of start tag */
+  private static final int START_QUOTE = 4;
+
+  /** End tag */
+  private static final int END_TAG = 5;
+
+  /** Processing instruction */
+  private static final int PI = 6;
+
+  /** After "&lt;!" */
+  private static final int BANG = 7;
+
+  /** After "&lt;!-" */
+  private static final int COMMENT_OPEN = 8;
+
+  /** Comment */
+  private static final int COMMENT = 9;
+
+  /** CDATA section */
+  private static final int CDATA = 10;
+
+  /** Document type declaration */
+  private static final int DOCTYPE = 11;
+
+  /**
+   * Copy a range of file to channel.<br>
+   *
+   * @param in
+   *          Input file
+   * @param position
+   *          Start position of range
+   * @param count
+   *          Number of bytes
+   * @param out
+   *          Output channel
+   * @throws IOException
+   *           I/O exception
+   */
+  static void transfer(FileChannel in, long position, long count, WritableByteChannel out) throws IOException {
+    long current = position;
+    long remaining = count;
+    while (remaining > 0) {
+      long transferred = in.transferTo(current, remaining, out);
+      if (transferred <= 0) {
+        throw new IOException("Unexpected end of file at " + current);
+      }
+      current += transferred;
+      remaining -= transferred;
+    }
+  }
+
+  /** Record name, or <code>null</code> not to locate records */
+  private final byte[] recordName;
+
+  /** Encoding in XML declaration */
+  private Charset encoding = StandardCharsets.UTF_8;
+
+  /** Start position of start tag of root element */
+  private long headerStart = -1;
+
+  /** End position of start tag of root element */
+  private long headerEnd = -1;
+
+  /** Start position of end tag of root element */
+  private long footerStart = -1;
+
+  /** Number of shards to divide the file */
+  private final int shards;
+
+  /** Byte targets dividing the file into shards */
+  private long[] targets = new long[0];
+
+  /** Start positions of the first records at or after the targets */
+  private long[] cuts = new long[0];
+
+  /** Number of found cut positions */
+  private int cutCount;
+
+  /** Root element is an empty element tag */
+  private boolean emptyRoot;
+
+  /** Tag name of root element */
+  private String rootName;
+
+  /** Namespace declarations of root element, attribute name to raw value */
+  private Map<String, String> namespaces = Collections.emptyMap();
+
+  /** Size of file */
+  private long size;
+
+  /** State */
+  private int state = TEXT;
+
+  /** Depth of elements */
+  private int depth;
+
+  /** Start position of current tag */
+  private long tagStart;
+
+  /** Buffer of current tag name, only for the root and its children */
+  private byte[] name = new byte[64];
+
+  /** Length of current tag name */
+  private int nameLength;
+
+  /** Quote character of current attribute value, or bracket depth of document type declaration */
+  private int quote;
+
+  /** Previous byte in tag, comment, CDATA section or processing instruction */
+  private int previous;
+
+  /** Number of repeated previous byte */
+  private int repeat;
+
+  /**
+   * Create {@link XmlScanner} instance.<br>
+   *
+   * @param recordName
+   *          Tag name of records which are children of root element, or <code>null</code> not to locate records
+   * @param shards
+   *          Number of shards to divide the file
+   */
+  XmlScanner(String recordName, int shards) {
+    this.recordName = recordName != null ? recordName.getBytes(StandardCharsets.UTF_8) : null;
+    this.shards = shards;
+  }
+
+  /**
+   * Close start tag.<br>
+   *
+   * @param position
+   *          Position of "&gt;"
+   * @param empty
+   *          Empty element tag or not
+   */
+  private void closeStartTag(long position, boolean empty) {
+    if (depth == 0) {
+      rootName = new String(name, 0, nameLength, StandardCharsets.UTF_8);
+      headerStart = tagStart;
+      headerEnd = position + 1;
+      if (empty) {
+        emptyRoot = true;
+        footerStart = headerEnd;
+      }
+    } else if (depth == 1 && cutCount < targets.length && tagStart >= targets[cutCount] && isRecord()) {
+      while (cutCount < targets.length && tagStart >= targets[cutCount]) {
+        cuts[cutCount++] = tagStart;
+      }
+    }
+    if (!empty) {
+      depth++;
+    }
+  }
+
+  /**
+   * Get cut position.<br>
+   * Adjacent cut positions are the same if a record spans several targets.<br>
+   *
+   * @param index
+   *          Index of target
+   * @return Position of "&lt;" of start tag of the first record at or after the target
+   */
+  long cut(int index) {
+    return cuts[index];
+  }
+
+  /**
+   * Get number of found cut positions.<br>
+   * Targets after the last record have no cut position.<br>
+   *
+   * @return Number of cut positions, at most number of shards minus 1
+   */
+  int cutCount() {
+    return cutCount;
+  }
+
+  /**
+   * Get encoding in XML declaration.<br>
+   *
+   * @return Encoding, or UTF-8 if not declared
+   */
+  Charset encoding() {
+    return encoding;
+  }
+
+  /**
+   * Get start position of end tag of root element.<br>
+   *
+   * @return Position
+   */
+  long footerStart() {
+    return footerStart;
+  }
+
+  /**
+   * Get end position of start tag of root element.<br>
+   *
+   * @return Position
+   */
+  long headerEnd() {
+    return headerEnd;
+  }
+
+  /**
+   * Get namespace declarations of root element.<br>
+   *
+   * @return Map of attribute name, such as "xmlns" or "xmlns:p", to raw attribute value in document order
+   */
+  Map<String, String> namespaces() {
+    return namespaces;
+  }
+
+  /**
+   * Read namespace declarations in start tag of root element.<br>
+   *
+   * @param channel
+   *          Input file
+   * @throws IOException
+   *           I/O exception
+   */
+  private void readNamespaces(FileChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate((int) (headerEnd - headerStart));
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, headerStart + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of file at " + (headerStart + buffer.position()));
+      }
+    }
+    Matcher matcher = ATTRIBUTE.matcher(new String(buffer.array(), encoding));
+    Map<String, String> declared = new LinkedHashMap<>();
+    while (matcher.find()) {
+      String attribute = matcher.group(1);
+      if (attribute.equals("xmlns") || attribute.startsWith("xmlns:")) {
+        declared.put(attribute, matcher.group(2) != null ? matcher.group(2) : matcher.group(3));
+      }
+    }
+    namespaces = declared;
+  }
+
+  /**
+   * Root element is an empty element tag or not.<br>
+   *
+   * @return <code>true</code> means the root element has no content
+   */
+  boolean isEmptyRoot() {
+    return emptyRoot;
+  }
+
+  /**
+   * Current tag name is record name or not.<br>
+   *
+   * @return <code>true</code> means current tag is a record
+   */
+  private boolean isRecord() {
+    if (recordName == null || nameLength != recordName.length) {
+      return false;
+    }
+    for (int i = 0; i < nameLength; i++) {
+      if (name[i] != recordName[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Get tag name of root element.<br>
+   *
+   * @return Tag name
+   */
+  String rootName() {
+    return rootName;
+  }
+
+  /**
+   * Scan whole file once.<br>
+   *
+   * @param channel
+   *          Input file
+   * @return Self object
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Unsupported encoding or malformed XML
+   */
+  XmlScanner scan(FileChannel channel) throws IOException, ParseException {
+    return scan(channel, false);
+  }
+
+  /**
+   * Scan file until the end of start tag of root element.<br>
+   * Only the encoding, the root element and its namespace declarations are located.<br>
+   *
+   * @param channel
+   *          Input file
+   * @return Self object
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Unsupported encoding or malformed XML
+   */
+  XmlScanner scanHeader(FileChannel channel) throws IOException, ParseException {
+    return scan(channel, true);
+  }
+
+  /**
+   * Scan file.<br>
+   *
+   * @param channel
+   *          Input file
+   * @param headerOnly
+   *          Stop at the end of start tag of root element or not
+   * @return Self object
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Unsupported encoding or malformed XML
+   */
+  private XmlScanner scan(FileChannel channel, boolean headerOnly) throws IOException, ParseException {
+    if (recordName != null && shards > 1) {
+      long total = channel.size();
+      targets = new long[shards - 1];
+      cuts = new long[shards - 1];
+      for (int i = 1; i < shards; i++) {
+        targets[i - 1] = total * i / shards;
+      }
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    byte[] bytes = buffer.array();
+    long offset = 0;
+    int read;
+    while ((read = channel.read(buffer, offset)) >= 0) {
+      if (read == 0) {
+        continue;
+      }
+      if (offset == 0) {
+        declaration(bytes, read);
+      }
+      for (int i = 0; i < read; i++) {
+        next(bytes[i] & 0xff, offset + i);
+      }
+      offset += read;
+      buffer.clear();
+      if (headerOnly && rootName != null) {
+        break;
+      }
+    }
+    if (!headerOnly) {
+      size = offset;
+    }
+    if (rootName == null || (!headerOnly && footerStart < 0)) {
+      throw ParseException.of("Root element isn't closed.");
+    }
+    readNamespaces(channel);
+    return this;
+  }
+
+  /**
+   * Get size of file.<br>
+   *
+   * @return Size in bytes
+   */
+  long size() {
+    return size;
+  }
+
+  /**
+   * Read XML declaration at the head of file.<br>
+   *
+   * @param bytes
+   *          Head of file
+   * @param length
+   *          Length of head
+   * @throws ParseException
+   *           Unsupported encoding
+   */
+  private void declaration(byte[] bytes, int length) throws ParseException {
+    if (length >= 2 && (bytes[0] == 0 || bytes[1] == 0 || (bytes[0] & 0xff) == 0xfe || (bytes[0] & 0xff) == 0xff)) {
+      throw ParseException.of("Encoding isn't compatible with ASCII.");
+    }
+    String head = new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+    int start = head.startsWith("\u00ef\u00bb\u00bf") ? 3 : 0;
+    if (!head.startsWith("<?xml", start)) {
+      return;
+    }
+    int end = head.indexOf("?>", start);
+    Matcher matcher = ENCODING.matcher(end < 0 ? head : head.substring(start, end));
+    if (matcher.find()) {
+      try {
+        encoding = Charset.forName(matcher.group(1));
+      } catch (IllegalArgumentException e) {
+        throw new ParseException("Unsupported encoding: " + matcher.group(1), e);
+      }
+    }
+  }
+
+  /**
+   * Process next byte.<br>
+   *
+   * @param b
+   *          Byte
+   * @param position
+   *          Position of byte
+   */
+  private void next(int b, long position) {
+    switch (state) {
+    case TEXT:
+      if (b == '<') {
+        tagStart = position;
+        state = LT;
+      }
+      break;
+    case LT:
+      if (b == '/') {
+        state = END_TAG;
+      } else if (b == '?') {
+        state = PI;
+        previous = 0;
+      } else if (b == '!') {
+        state = BANG;
+      } else {
+        state = START_NAME;
+        nameLength = 0;
+        name(b);
+      }
+      break;
+    case START_NAME:
+      if (b == '>') {
+        closeStartTag(position, false);
+        state = TEXT;
+      } else if (b == '/' || b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+        state = START_ATTRS;
+        previous = b;
+      } else {
+        name(b);
+      }
+      break;
+    case START_ATTRS:
+      if (b == '>') {
+        closeStartTag(position, previous == '/');
+        state = TEXT;
+      } else if (b == '"' || b == '\'') {
+        quote = b;
+        state = START_QUOTE;
+      }
+      previous = b;
+      break;
+    case START_QUOTE:
+      if (b == quote) {
+        state = START_ATTRS;
+        previous = b;
+      }
+      break;
+    case END_TAG:
+      if (b == '>') {
+        depth--;
+        if (depth == 0) {
+          footerStart = tagStart;
+        }
+        state = TEXT;
+      }
+      break;
+    case PI:
+      if (b == '>' && previous == '?') {
+        state = TEXT;
+      }
+      previous = b;
+      break;
+    case BANG:
+      if (b == '-') {
+        state = COMMENT_OPEN;
+      } else if (b == '[') {
+        state = CDATA;
+        repeat = 0;
+      } else {
+        state = DOCTYPE;
+        quote = 0;
+        previous = 0;
+      }
+      break;
+    case COMMENT_OPEN:
+      state = COMMENT;
+      repeat = 0;
+      break;
+    case COMMENT:
+      repeat(b, '-');
+      break;
+    case CDATA:
+      repeat(b, ']');
+      break;
+    case DOCTYPE:
+      if (previous == '"' || previous == '\'') {
+        if (b == previous) {
+          previous = 0;
+        }
+      } else if (b == '"' || b == '\'') {
+        previous = b;
+      } else if (b == '[') {
+        quote++;
+      } else if (b == ']') {
+        quote--;
+      } else if (b == '>' && quote == 0) {
+        state = TEXT;
+      }
+      break;
+    default:
+      break;
+    }
+  }
+
+  /**
+   * Append a byte to current tag name.<br>
+   *
+   * @param b
+   *          Byte
+   */
+  private void name(int b) {
+    if (depth > 1) {
+      return;
+    }
+    if (nameLength == name.length) {
+      name = Arrays.copyOf(name, nameLength * 2);
+    }
+    name[nameLength++] = (byte) b;
+  }
+
+  /**
+   * Find end of comment or CDATA section, such as "--&gt;" or "]]&gt;".<br>
+   *
+   * @param b
+   *          Byte
+   * @param closing
+   *          Closing byte repeated twice before "&gt;"
+   */
+  private void repeat(int b, int closing) {
+    if (b == '>' && repeat >= 2) {
+      state = TEXT;
+    } else if (b == closing) {
+      repeat++;
+    } else {
+      repeat = 0;
+    }
+  }
+}
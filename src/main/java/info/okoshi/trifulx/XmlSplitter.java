@@ -0,0 +1,251 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Split huge XML file into shards by record element.<br>
+ * The file is scanned once at byte level to locate records which are children of the root element, then each
+ * shard is written as a valid document which repeats the prolog and the root element. All bytes are copied as
+ * raw ranges of the file by {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+ * without parsing nor serializing, so the encoding must be compatible with ASCII.<br>
+ * Shards are cut only before the first record at or after each byte target which divides the file evenly, so
+ * memory of scanning doesn't depend on the number of records. Contents of the root element before the first cut
+ * go to the first shard, and contents after the last cut go to the last shard, so nothing is lost.<br>
+ *
+ * <pre>
+ * {@code
+ * List<Path> shards = new XmlSplitter("record").parallel(4).split(input, directory, 8);
+ * }
+ * </pre>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public final class XmlSplitter {
+
+  /**
+   * Task to write a shard.<br>
+   *
+   * @version 1.0.0
+   * @author okosheep
+   */
+  private static final class ShardTask implements Callable<Void> {
+
+    /** Input file */
+    private final FileChannel in;
+
+    /** Scanned input file */
+    private final XmlScanner scanner;
+
+    /** Output file */
+    private final Path path;
+
+    /** Start position of contents, or <code>-1</code> to copy whole file */
+    private final long start;
+
+    /** End position of contents */
+    private final long end;
+
+    /**
+     * Create {@link ShardTask} instance.<br>
+     *
+     * @param in
+     *          Input file
+     * @param scanner
+     *          Scanned input file
+     * @param path
+     *          Output file
+     * @param start
+     *          Start position of contents, or <code>-1</code> to copy whole file
+     * @param end
+     *          End position of contents
+     */
+    ShardTask(FileChannel in, XmlScanner scanner, Path path, long start, long end) {
+      this.in = in;
+      this.scanner = scanner;
+      this.path = path;
+      this.start = start;
+      this.end = end;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.util.concurrent.Callable#call()
+     */
+    @Override
+    public Void call() throws IOException {
+      try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING)) {
+        if (start < 0) {
+          XmlScanner.transfer(in, 0, scanner.size(), out);
+          return null;
+        }
+        XmlScanner.transfer(in, 0, scanner.headerEnd(), out);
+        XmlScanner.transfer(in, start, end - start, out);
+        XmlScanner.transfer(in, scanner.footerStart(), scanner.size() - scanner.footerStart(), out);
+      }
+      return null;
+    }
+  }
+
+  /** Record name */
+  private final String recordName;
+
+  /** Number of threads to write shards */
+  private int threads = 1;
+
+  /**
+   * Create {@link XmlSplitter} instance.<br>
+   *
+   * @param recordName
+   *          Tag name of records which are children of the root element
+   */
+  public XmlSplitter(String recordName) {
+    this.recordName = recordName;
+  }
+
+  /**
+   * Find cut positions of shards.<br>
+   *
+   * @param scanner
+   *          Scanned file
+   * @return Cut positions, starting with start of the first shard and ending with end of the last shard
+   */
+  private List<Long> cuts(XmlScanner scanner) {
+    long start = scanner.headerEnd();
+    long end = scanner.footerStart();
+    List<Long> cuts = new ArrayList<>();
+    cuts.add(start);
+    for (int i = 0; i < scanner.cutCount(); i++) {
+      long cut = scanner.cut(i);
+      if (cut > cuts.get(cuts.size() - 1)) {
+        cuts.add(cut);
+      }
+    }
+    cuts.add(end);
+    return cuts;
+  }
+
+  /**
+   * Write shards in parallel.<br>
+   *
+   * @param threads
+   *          Number of threads, 1 means shards are written on the calling thread
+   * @return Self object
+   * @throws IllegalArgumentException
+   *           Number of threads is less than 1
+   */
+  public XmlSplitter parallel(int threads) throws IllegalArgumentException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+    }
+    this.threads = threads;
+    return this;
+  }
+
+  /**
+   * Split XML file.<br>
+   * Shards are named "<i>name</i>-<i>index</i>.<i>extension</i>" after the input file. Fewer shards are written
+   * if there aren't enough records.<br>
+   *
+   * @param input
+   *          Input file
+   * @param directory
+   *          Output directory
+   * @param shards
+   *          Maximum number of shards
+   * @return Written shards in document order
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Unsupported encoding or malformed XML
+   * @throws IllegalArgumentException
+   *           Number of shards is less than 1
+   */
+  public List<Path> split(Path input, Path directory, int shards)
+      throws IOException, ParseException, IllegalArgumentException {
+    if (shards < 1) {
+      throw new IllegalArgumentException("Number of shards must be positive: " + shards);
+    }
+    try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+      XmlScanner scanner = new XmlScanner(recordName, shards).scan(in);
+      List<Long> cuts = scanner.isEmptyRoot() ? null : cuts(scanner);
+      String fileName = input.getFileName().toString();
+      int dot = fileName.lastIndexOf('.');
+      String base = dot > 0 ? fileName.substring(0, dot) : fileName;
+      String extension = dot > 0 ? fileName.substring(dot) : "";
+
+      List<Path> paths = new ArrayList<>();
+      List<ShardTask> tasks = new ArrayList<>();
+      int count = cuts != null ? cuts.size() - 1 : 1;
+      for (int i = 0; i < count; i++) {
+        Path path = directory.resolve(base + "-" + i + extension);
+        paths.add(path);
+        tasks.add(cuts != null ? new ShardTask(in, scanner, path, cuts.get(i), cuts.get(i + 1))
+            : new ShardTask(in, scanner, path, -1, -1));
+      }
+
+      if (threads == 1 || tasks.size() == 1) {
+        for (ShardTask task : tasks) {
+          task.call();
+        }
+        return paths;
+      }
+      ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()), runnable -> {
+        Thread thread = new Thread(runnable, "trifulx-splitter");
+        thread.setDaemon(true);
+        return thread;
+      });
+      try {
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+          future.get();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException) e.getCause();
+        }
+        throw new IOException(e.getCause());
+      } finally {
+        executor.shutdownNow();
+      }
+      return paths;
+    }
+  }
+}
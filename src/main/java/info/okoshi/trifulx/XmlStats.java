@@ -0,0 +1,426 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jdom2.Content;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.Text;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Footprint statistics of {@link Xml}.<br>
+ * All values are computed in a single traversal by {@link Xml#stats()}.<br>
+ * The estimated heap size assumes 64-bit JVM with compressed references, and tag and attribute names shared by
+ * the parser, so use it as weight of caches rather than exact size.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+@EqualsAndHashCode
+@ToString
+public final class XmlStats {
+
+  /** Size of array header */
+  private static final int ARRAY_HEADER = 16;
+
+  /** Size of JDOM attribute, 5 references and a boolean */
+  private static final int ATTRIBUTE = 40;
+
+  /** Size of JDOM document */
+  private static final int DOCUMENT = 32;
+
+  /** Size of trifulx JDOM element, 9 references */
+  private static final int ELEMENT = 48;
+
+  /** Size of frozen element, 10 references and a hash code */
+  private static final int FROZEN_ELEMENT = 56;
+
+  /** Size of hash map entry */
+  private static final int HASH_ENTRY = 32;
+
+  /** Size of hash map */
+  private static final int HASH_MAP = 48;
+
+  /** Size of content list and attribute list of JDOM, excluding backing array */
+  private static final int LIST = 40;
+
+  /** Minimum length of backing array of JDOM lists */
+  private static final int LIST_CAPACITY = 4;
+
+  /** Size of frozen comment, processing instruction or CDATA section, 2 references and a type */
+  private static final int MARKUP = 24;
+
+  /** Size of singleton map, key, value and 3 views */
+  private static final int SINGLETON_MAP = 32;
+
+  /** Size of reference */
+  private static final int REFERENCE = 4;
+
+  /** Size of JDOM text, 3 references */
+  private static final int TEXT = 24;
+
+  /** Size of {@link Value} object */
+  private static final int VALUE = 40;
+
+  /**
+   * Align size of object to 8 bytes.<br>
+   *
+   * @param size
+   *          Size of object
+   * @return Aligned size
+   */
+  private static long align(long size) {
+    return (size + 7) & ~7L;
+  }
+
+  /**
+   * Estimate size of reference array.<br>
+   *
+   * @param length
+   *          Length of array
+   * @return Size of array
+   */
+  private static long array(int length) {
+    return align(ARRAY_HEADER + (long) REFERENCE * length);
+  }
+
+  /**
+   * Compute statistics of the document.<br>
+   *
+   * @param document
+   *          JDOM {@link Document} object
+   * @return {@link XmlStats} object
+   */
+  static XmlStats of(Document document) {
+    long elements = 0;
+    long attributes = 0;
+    long texts = 0;
+    long characters = 0;
+    long bytes = DOCUMENT + LIST + array(LIST_CAPACITY);
+    int maxDepth = 0;
+
+    Element[] stack = new Element[16];
+    int[] depths = new int[16];
+    int top = 0;
+    stack[top] = document.getRootElement();
+    depths[top++] = 1;
+    while (top > 0) {
+      Element element = stack[--top];
+      stack[top] = null;
+      int depth = depths[top];
+      elements++;
+      maxDepth = Math.max(maxDepth, depth);
+      bytes += ELEMENT;
+
+      if (element.hasAttributes()) {
+        List<org.jdom2.Attribute> list = element.getAttributes();
+        int size = list.size();
+        attributes += size;
+        bytes += LIST + array(Math.max(size, LIST_CAPACITY));
+        for (org.jdom2.Attribute attribute : list) {
+          int length = attribute.getValue().length();
+          characters += length;
+          bytes += ATTRIBUTE + string(length);
+        }
+      }
+
+      List<Content> contents = element.getContent();
+      int size = contents.size();
+      bytes += LIST + array(Math.max(size, LIST_CAPACITY));
+      for (int i = size - 1; i >= 0; i--) {
+        Content content = contents.get(i);
+        if (content instanceof Element) {
+          if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top * 2);
+            depths = Arrays.copyOf(depths, top * 2);
+          }
+          stack[top] = (Element) content;
+          depths[top++] = depth + 1;
+          continue;
+        }
+        int length = content.getValue().length();
+        bytes += TEXT + string(length);
+        if (content instanceof Text) {
+          texts++;
+          characters += length;
+        }
+      }
+
+      if (element instanceof TrifulxElement) {
+        bytes += cachedText((TrifulxElement) element, contents);
+      }
+    }
+    return new XmlStats(elements, attributes, texts, maxDepth, characters, align(bytes));
+  }
+
+  /**
+   * Estimate size of text cached by the element.<br>
+   * The cached text is counted unless it's the string of the only content, and the cached normalized text is
+   * counted unless it's the cached text itself.<br>
+   *
+   * @param element
+   *          Element
+   * @param contents
+   *          Content of the element
+   * @return Size of cached strings
+   */
+  private static long cachedText(TrifulxElement element, List<Content> contents) {
+    long bytes = 0;
+    String text = element.cachedText();
+    if (text != null && !(contents.size() == 1 && contents.get(0).getValue() == text)) {
+      bytes += string(text.length());
+    }
+    String textNormalize = element.cachedTextNormalize();
+    if (textNormalize != null && textNormalize != text) {
+      bytes += string(textNormalize.length());
+    }
+    return bytes;
+  }
+
+  /**
+   * Compute statistics of the frozen snapshot.<br>
+   * Each run of adjacent text nodes is counted as a text node, since the snapshot merges them. CDATA sections are
+   * counted separately.<br>
+   *
+   * @param root
+   *          Root element data
+   * @return {@link XmlStats} object
+   */
+  static XmlStats of(FrozenElement root) {
+    long elements = 0;
+    long attributes = 0;
+    long texts = 0;
+    long characters = 0;
+    long bytes = 0;
+    int maxDepth = 0;
+
+    Set<String> names = new HashSet<>();
+    FrozenElement[] stack = new FrozenElement[16];
+    int[] depths = new int[16];
+    int top = 0;
+    stack[top] = root;
+    depths[top++] = 1;
+    while (top > 0) {
+      FrozenElement element = stack[--top];
+      stack[top] = null;
+      int depth = depths[top];
+      elements++;
+      maxDepth = Math.max(maxDepth, depth);
+      bytes += FROZEN_ELEMENT;
+
+      int attrSize = element.attrSize();
+      if (attrSize > 0) {
+        attributes += attrSize;
+        // Names, values and namespaces
+        bytes += 3 * array(attrSize);
+        for (int i = 0; i < attrSize; i++) {
+          int length = element.attrValue(i).stringValue().length();
+          characters += length;
+          bytes += VALUE + string(length);
+        }
+      }
+
+      Object[] content = element.content();
+      FrozenElement[] children = element.children();
+      int runs = 0;
+      long text = 0;
+      names.clear();
+      for (int i = content.length - 1; i >= 0; i--) {
+        if (content[i] instanceof FrozenElement) {
+          FrozenElement child = (FrozenElement) content[i];
+          if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top * 2);
+            depths = Arrays.copyOf(depths, top * 2);
+          }
+          stack[top] = child;
+          depths[top++] = depth + 1;
+          names.add(child.name());
+          continue;
+        }
+        if (content[i] instanceof FrozenElement.Markup) {
+          FrozenElement.Markup markup = (FrozenElement.Markup) content[i];
+          bytes += MARKUP + string(markup.length());
+          if (markup.text() != null) {
+            int length = markup.text().length();
+            texts++;
+            runs++;
+            characters += length;
+            text += length;
+          }
+          continue;
+        }
+        int length = ((String) content[i]).length();
+        texts++;
+        runs++;
+        characters += length;
+        text += length;
+        bytes += string(length);
+      }
+
+      // Contents, children and indexes of children by name
+      bytes += content.length == 0 ? 0 : array(content.length);
+      bytes += children.length == 0 ? 0 : array(children.length);
+      if (!names.isEmpty()) {
+        // Empty map is shared, and a singleton map is used for children of the same name
+        bytes += names.size() == 1 ? SINGLETON_MAP
+            : HASH_MAP + array(tableSize(names.size())) + names.size() * HASH_ENTRY;
+        bytes += names.size() * ARRAY_HEADER + align((long) Integer.BYTES * children.length);
+      }
+      if (runs > 0) {
+        // Concatenated text of runs, and normalized text
+        bytes += (runs > 1 ? string(text) : 0) + VALUE + string(text);
+      }
+    }
+    return new XmlStats(elements, attributes, texts, maxDepth, characters, align(bytes));
+  }
+
+  /**
+   * Estimate size of string.<br>
+   *
+   * @param length
+   *          Length of string
+   * @return Size of string and its characters
+   */
+  private static long string(long length) {
+    return 24 + align(ARRAY_HEADER + 2 * length);
+  }
+
+  /**
+   * Get table size of hash map of indexes of children.<br>
+   *
+   * @param size
+   *          Number of names
+   * @return Table size
+   */
+  private static int tableSize(int size) {
+    int capacity = size * 4 / 3 + 1;
+    return Integer.highestOneBit(capacity - 1) << 1;
+  }
+
+  /** Number of attributes */
+  private final long attributes;
+
+  /** Number of characters of text nodes and attribute values */
+  private final long characters;
+
+  /** Number of elements */
+  private final long elements;
+
+  /** Estimated retained heap size in bytes */
+  private final long estimatedBytes;
+
+  /** Maximum depth of elements, 1 means only the root node */
+  private final int maxDepth;
+
+  /** Number of text nodes, including CDATA sections */
+  private final long texts;
+
+  /**
+   * Create {@link XmlStats} instance.<br>
+   *
+   * @param elements
+   *          Number of elements
+   * @param attributes
+   *          Number of attributes
+   * @param texts
+   *          Number of text nodes
+   * @param maxDepth
+   *          Maximum depth of elements
+   * @param characters
+   *          Number of characters
+   * @param estimatedBytes
+   *          Estimated retained heap size in bytes
+   */
+  XmlStats(long elements, long attributes, long texts, int maxDepth, long characters, long estimatedBytes) {
+    this.elements = elements;
+    this.attributes = attributes;
+    this.texts = texts;
+    this.maxDepth = maxDepth;
+    this.characters = characters;
+    this.estimatedBytes = estimatedBytes;
+  }
+
+  /**
+   * Get number of attributes.<br>
+   *
+   * @return Number of attributes
+   */
+  public long attributes() {
+    return attributes;
+  }
+
+  /**
+   * Get number of characters of text nodes and attribute values.<br>
+   *
+   * @return Number of characters
+   */
+  public long characters() {
+    return characters;
+  }
+
+  /**
+   * Get number of elements.<br>
+   *
+   * @return Number of elements
+   */
+  public long elements() {
+    return elements;
+  }
+
+  /**
+   * Get estimated retained heap size of the current backend.<br>
+   * A frozen {@link Xml} retains only the frozen snapshot.<br>
+   *
+   * @return Estimated size in bytes
+   */
+  public long estimatedBytes() {
+    return estimatedBytes;
+  }
+
+  /**
+   * Get maximum depth of elements.<br>
+   *
+   * @return Maximum depth, 1 means only the root node
+   */
+  public int maxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Get number of text nodes, including CDATA sections.<br>
+   *
+   * @return Number of text nodes
+   */
+  public long texts() {
+    return texts;
+  }
+}
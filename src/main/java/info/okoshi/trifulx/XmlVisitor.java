@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+/**
+ * Visitor of node tree.<br>
+ * {@link #enter(Node)} is called before child nodes are visited, and {@link #leave(Node)} is called after
+ * that.<br>
+ * On {@link Node#parallelVisit(java.util.function.Supplier, java.util.function.BinaryOperator)}, a visitor
+ * instance is used by only one thread, and each instance sees a part of the tree in document order. Both
+ * {@link #enter(Node)} and {@link #leave(Node)} of a node are called on the same instance, while some of its
+ * descendants may be visited by other instances.<br>
+ *
+ * <pre>
+ * {@code
+ * long count = root.parallelVisit(() -> new XmlVisitor<Long>() {
+ *   private long count;
+ *
+ *   public boolean enter(Node node) {
+ *     count++;
+ *     return true;
+ *   }
+ *
+ *   public Long result() {
+ *     return count;
+ *   }
+ * }, Long::sum);
+ * }
+ * </pre>
+ *
+ * @param <R>
+ *          Type of result
+ * @version 1.0.0
+ * @author okosheep
+ */
+public interface XmlVisitor<R> {
+
+  /**
+   * Enter the node.<br>
+   *
+   * @param node
+   *          Visiting node
+   * @return <code>true</code> means visit child nodes, <code>false</code> means skip child nodes
+   */
+  boolean enter(Node node);
+
+  /**
+   * Leave the node.<br>
+   * This is called even if {@link #enter(Node)} returned <code>false</code>.<br>
+   *
+   * @param node
+   *          Visited node
+   */
+  default void leave(Node node) {
+  }
+
+  /**
+   * Get result of visiting.<br>
+   *
+   * @return Result
+   */
+  R result();
+}
@@ -0,0 +1,305 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Watch XML file and reload it on change.<br>
+ * Reloaded XML is frozen by {@link Xml#freeze()} and swapped atomically, so readers can use {@link #current()}
+ * without synchronization. Bursts of writes are debounced, and listeners are notified with tag names of changed child
+ * nodes of root.<br>
+ * Failures of reloading, such as a file which is being written, are reported to the uncaught exception handler of
+ * the watching thread, and the previous XML is kept.<br>
+ *
+ * <pre>
+ * {@code
+ * try (XmlWatcher watcher = new XmlWatcher(Paths.get("config.xml"))) {
+ *   watcher.listen((previous, current, names) -> {
+ *     if (names.contains("server")) {
+ *       restartServer(current.root().node("server"));
+ *     }
+ *   });
+ *   ...
+ * }
+ * }
+ * </pre>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class XmlWatcher implements Closeable {
+
+  /** Default quiet period for debouncing in milliseconds */
+  public static final long DEFAULT_DEBOUNCE_MILLIS = 200;
+
+  /**
+   * Get tag names of changed child nodes of root.<br>
+   *
+   * @param previous
+   *          Previous root
+   * @param current
+   *          Current root
+   * @return Changed tag names in document order
+   */
+  static Set<String> changedNames(FrozenElement previous, FrozenElement current) {
+    Map<String, List<FrozenElement>> previousChildren = group(previous);
+    Map<String, List<FrozenElement>> currentChildren = group(current);
+    Set<String> names = new LinkedHashSet<>();
+    for (Map.Entry<String, List<FrozenElement>> entry : currentChildren.entrySet()) {
+      if (!entry.getValue().equals(previousChildren.get(entry.getKey()))) {
+        names.add(entry.getKey());
+      }
+    }
+    for (String name : previousChildren.keySet()) {
+      if (!currentChildren.containsKey(name)) {
+        names.add(name);
+      }
+    }
+    return names;
+  }
+
+  /**
+   * Group child nodes by tag name.<br>
+   *
+   * @param element
+   *          Parent element
+   * @return Child nodes by tag name in document order
+   */
+  private static Map<String, List<FrozenElement>> group(FrozenElement element) {
+    Map<String, List<FrozenElement>> children = new LinkedHashMap<>();
+    for (FrozenElement child : element.children()) {
+      children.computeIfAbsent(child.name(), name -> new ArrayList<>()).add(child);
+    }
+    return children;
+  }
+
+  /** Watched file */
+  private final Path file;
+
+  /** Quiet period for debouncing in milliseconds */
+  private final long debounceMillis;
+
+  /** Current frozen XML */
+  private final AtomicReference<Xml> current = new AtomicReference<>();
+
+  /** Listeners */
+  private final List<XmlChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+  /** Watch service of parent directory */
+  private final WatchService watchService;
+
+  /** Watching thread */
+  private final Thread thread;
+
+  /**
+   * Create {@link XmlWatcher} instance with default debouncing.<br>
+   * The file is loaded at once, and watched on a daemon thread.<br>
+   *
+   * @param file
+   *          XML file
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Exception in parsing
+   */
+  public XmlWatcher(Path file) throws IOException, ParseException {
+    this(file, DEFAULT_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Create {@link XmlWatcher} instance.<br>
+   * The file is loaded at once, and watched on a daemon thread.<br>
+   *
+   * @param file
+   *          XML file
+   * @param debounce
+   *          Quiet period after the last change, before reloading
+   * @param unit
+   *          Time unit of debounce
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Exception in parsing
+   */
+  public XmlWatcher(Path file, long debounce, TimeUnit unit) throws IOException, ParseException {
+    this.file = file.toAbsolutePath();
+    this.debounceMillis = unit.toMillis(debounce);
+    this.current.set(load());
+    this.watchService = this.file.getFileSystem().newWatchService();
+    this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_MODIFY);
+    this.thread = new Thread(this::watch, "trifulx-watcher-" + this.file.getFileName());
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Stop watching.<br>
+   *
+   * @throws IOException
+   *           I/O exception
+   */
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+  /**
+   * Get current XML.<br>
+   *
+   * @return Frozen {@link Xml} object
+   */
+  public Xml current() {
+    return current.get();
+  }
+
+  /**
+   * Add listener of changes.<br>
+   * Listeners are called on the watching thread.<br>
+   *
+   * @param listener
+   *          Listener
+   * @return Self object
+   */
+  public XmlWatcher listen(XmlChangeListener listener) {
+    listeners.add(Objects.requireNonNull(listener));
+    return this;
+  }
+
+  /**
+   * Reload file now, and notify listeners if changed.<br>
+   *
+   * @return Tag names of changed child nodes of root
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Exception in parsing
+   */
+  public synchronized Set<String> reload() throws IOException, ParseException {
+    Xml loaded = load();
+    Xml previous = current.getAndSet(loaded);
+    FrozenElement previousRoot = ((FrozenNodeCreator.FrozenNode) previous.root()).data();
+    FrozenElement loadedRoot = ((FrozenNodeCreator.FrozenNode) loaded.root()).data();
+    if (previousRoot.equals(loadedRoot)) {
+      return Collections.emptySet();
+    }
+    Set<String> names = Collections.unmodifiableSet(changedNames(previousRoot, loadedRoot));
+    for (XmlChangeListener listener : listeners) {
+      try {
+        listener.changed(previous, loaded, names);
+      } catch (RuntimeException e) {
+        report(e);
+      }
+    }
+    return names;
+  }
+
+  /**
+   * Load file as frozen XML.<br>
+   * Only the frozen snapshot is retained, and the parsed document is discarded.<br>
+   *
+   * @return Frozen {@link Xml} object
+   * @throws IOException
+   *           I/O exception
+   * @throws ParseException
+   *           Exception in parsing
+   */
+  private Xml load() throws IOException, ParseException {
+    return new Xml(Files.newInputStream(file)).freeze();
+  }
+
+  /**
+   * Report exception to uncaught exception handler without stopping the thread.<br>
+   *
+   * @param e
+   *          Exception
+   */
+  private void report(Throwable e) {
+    Thread current = Thread.currentThread();
+    current.getUncaughtExceptionHandler().uncaughtException(current, e);
+  }
+
+  /**
+   * Wait for changes of file until closed.<br>
+   */
+  private void watch() {
+    try {
+      while (true) {
+        if (!consume(watchService.take())) {
+          continue;
+        }
+        // Debounce until no more changes in quiet period
+        WatchKey key;
+        while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+          consume(key);
+        }
+        try {
+          reload();
+        } catch (IOException | ParseException e) {
+          report(e);
+        }
+      }
+    } catch (ClosedWatchServiceException | InterruptedException e) {
+      // closed
+    }
+  }
+
+  /**
+   * Consume events of watch key.<br>
+   *
+   * @param key
+   *          Watch key
+   * @return <code>true</code> means the watched file is changed
+   */
+  private boolean consume(WatchKey key) {
+    boolean changed = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+        changed = true;
+      }
+    }
+    key.reset();
+    return changed;
+  }
+}
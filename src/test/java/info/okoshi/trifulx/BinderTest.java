@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.beans.ConstructorProperties;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link info.okoshi.trifulx.Binder Binder} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class BinderTest {
+
+  /**
+   * Sample enum for test.<br>
+   */
+  public enum Role {
+    ADMIN, GUEST
+  }
+
+  /**
+   * Sample class bound by fields.<br>
+   */
+  public static class Config {
+    private String name;
+    private Server server;
+    private List<User> user;
+    private List<String> tag;
+    private transient String ignored = "ignored";
+  }
+
+  /**
+   * Sample class bound by fields.<br>
+   */
+  public static class Server {
+    private String host;
+    private int port;
+    private boolean secure;
+    private Double timeout;
+  }
+
+  /**
+   * Sample class bound by constructor.<br>
+   */
+  public static class User {
+    private final String name;
+    private final Role role;
+    private final long id;
+
+    @ConstructorProperties({ "name", "role", "id" })
+    public User(String name, Role role, long id) {
+      this.name = name;
+      this.role = role;
+      this.id = id;
+    }
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Binder#of(java.lang.Class)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testOf$VALIDATE_UNBINDABLE() throws Exception {
+    Binder.of(Runnable.class);
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Binder#read(info.okoshi.trifulx.Node)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testRead$VALIDATE_BINDING() throws Exception {
+    Xml xml = new Xml("<config name=\"sample\">"
+        + "<server host=\"localhost\" port=\"8080\"><secure>true</secure></server>"
+        + "<user name=\"foo\" role=\"ADMIN\" id=\"9000000000\" /><user name=\"bar\" role=\"GUEST\" />"
+        + "<tag>a</tag><tag>b</tag><ignored>x</ignored></config>");
+    Config config = Binder.of(Config.class).read(xml.root());
+    assertThat(config.name, is("sample"));
+    assertThat(config.server.host, is("localhost"));
+    assertThat(config.server.port, is(8080));
+    assertThat(config.server.secure, is(true));
+    assertThat(config.server.timeout, is(nullValue()));
+    assertThat(config.user.size(), is(2));
+    assertThat(config.user.get(0).name, is("foo"));
+    assertThat(config.user.get(0).role, is(Role.ADMIN));
+    assertThat(config.user.get(0).id, is(9000000000L));
+    assertThat(config.user.get(1).role, is(Role.GUEST));
+    assertThat(config.user.get(1).id, is(0L));
+    assertThat(config.tag.size(), is(2));
+    assertThat(config.tag.get(1), is("b"));
+    assertThat(config.ignored, is("ignored"));
+    assertThat(Binder.of(Config.class).read(xml.freeze().root()).user.get(0).name, is("foo"));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Binder#read(info.okoshi.trifulx.Node)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test(expected = NumberFormatException.class)
+  public void testRead$VALIDATE_MALFORMED() throws Exception {
+    Binder.of(Server.class).read(new Xml("<server port=\"x\" />").root());
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Binder#write(java.lang.Object, info.okoshi.trifulx.Node)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testWrite$VALIDATE_ROUND_TRIP() throws Exception {
+    Config config = new Config();
+    config.name = "sample";
+    config.server = new Server();
+    config.server.host = "localhost";
+    config.server.port = 8080;
+    config.user = Arrays.asList(new User("foo", Role.ADMIN, 1), new User("bar", null, 2));
+    config.tag = new ArrayList<>(Arrays.asList("a", "b"));
+    Xml xml = Binder.of(Config.class).xml(config, "config");
+    assertThat(xml.text(FormatTypes.COMPACT), is("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+        + "<config name=\"sample\"><server host=\"localhost\" port=\"8080\" secure=\"false\" />"
+        + "<user name=\"foo\" role=\"ADMIN\" id=\"1\" /><user name=\"bar\" id=\"2\" />"
+        + "<tag>a</tag><tag>b</tag></config>\r\n"));
+    Config read = Binder.of(Config.class).read(xml.root());
+    assertThat(read.server.port, is(8080));
+    assertThat(read.user.get(1).role, is(nullValue()));
+    assertThat(read.tag, is(config.tag));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Binder#write(java.lang.Iterable, java.lang.String, java.lang.String, java.io.OutputStream, java.nio.charset.Charset)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testWrite$VALIDATE_STREAMING() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Iterable<User> users = () -> IntStream.range(0, 1000).mapToObj(i -> new User("user" + i, Role.GUEST, i)).iterator();
+    Binder.of(User.class).write(users, "users", "user", out, StandardCharsets.UTF_8);
+    Xml xml = new Xml(out.toString("UTF-8"));
+    List<Node> nodes = xml.root().nodes("user");
+    assertThat(nodes.size(), is(1000));
+    User last = Binder.of(User.class).read(nodes.get(999));
+    assertThat(last.name, is("user999"));
+    assertThat(last.id, is(999L));
+    assertThat(last.role, is(Role.GUEST));
+  }
+}
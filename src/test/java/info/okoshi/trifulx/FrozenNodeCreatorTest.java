@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.jdom2.Element;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link info.okoshi.trifulx.FrozenNodeCreator FrozenNodeCreator} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class FrozenNodeCreatorTest {
+
+  /**
+   * Test method for {@link info.okoshi.trifulx.FrozenNodeCreator#create(org.jdom2.Element, boolean)}.
+   */
+  @Test
+  public void testCreate$VALIDATE_ROOT_NODE_CREATION() {
+    NodeCreator creator = new FrozenNodeCreator();
+    Node node = creator.create(new Element("foo"), true);
+    assertThat(node.tagName(), is("foo"));
+  }
+
+  /**
+   * Test method for {@link info.okoshi.trifulx.FrozenNodeCreator.FrozenNode#nodes(java.lang.String)}.
+   *
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testNodesString$VALIDATE_INDEXED_LOOKUP() throws Exception {
+    Node root = new Xml("<root><a id=\"1\" /><b /><a id=\"2\">text</a></root>").freeze().root();
+    List<String> ids = root.nodes("a").stream().map(n -> n.attr("id").getValue().stringValue())
+        .collect(Collectors.toList());
+    assertThat(ids.size(), is(2));
+    assertThat(ids.get(0), is("1"));
+    assertThat(ids.get(1), is("2"));
+    assertThat(root.node("a").attr("id").getValue().stringValue(), is("1"));
+    assertThat(root.nodes("c").isEmpty(), is(true));
+    assertThat(root.tryNode("c", "b").tagName(), is("b"));
+    assertThat(root.tryNode("c").exists(), is(false));
+    assertThat(root.nodes("a").get(1).parent().tagName(), is("root"));
+  }
+
+  /**
+   * Test method for {@link info.okoshi.trifulx.FrozenNodeCreator.FrozenNode#hashCode()}.
+   *
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testHashCode$VALIDATE_STRUCTURAL_EQUALITY() throws Exception {
+    Node root1 = new Xml("<root><a id=\"1\">text</a><b /></root>").freeze().root();
+    Node root2 = new Xml("<root><a id=\"1\">text</a><b /></root>").freeze().root();
+    Node root3 = new Xml("<root><a id=\"2\">text</a><b /></root>").freeze().root();
+    assertThat(root1.hashCode(), is(root2.hashCode()));
+    assertThat(root1, is(root2));
+    assertThat(root1, is(not(root3)));
+    assertThat(root1.node("b"), is(root3.node("b")));
+  }
+
+  /**
+   * Test method for {@link info.okoshi.trifulx.FrozenNodeCreator.FrozenNode#copyTo(info.okoshi.trifulx.Node)}.
+   *
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testCopyTo$VALIDATE_COPY_TO_MUTABLE_NODE() throws Exception {
+    Node frozen = new Xml("<root><a id=\"1\">text<c /></a></root>").freeze().root();
+    Xml xml = new Xml("<root />");
+    frozen.node("a").copyTo(xml.root());
+    assertThat(xml.text(FormatTypes.COMPACT),
+        is("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n<root><a id=\"1\">text<c /></a></root>\r\n"));
+  }
+}
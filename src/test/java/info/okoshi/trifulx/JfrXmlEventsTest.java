@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link info.okoshi.trifulx.JfrXmlEvents JfrXmlEvents} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class JfrXmlEventsTest {
+
+  /**
+   * Test for {@link info.okoshi.trifulx.JfrXmlEvents#endParse(java.lang.Object, long, org.jdom2.Document, java.lang.String)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testEvents$VALIDATE_RECORDING() throws Exception {
+    assertThat(XmlEvents.INSTANCE instanceof JfrXmlEvents, is(true));
+    Path file = Files.createTempFile("trifulx", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("info.okoshi.trifulx.Parse");
+      recording.enable("info.okoshi.trifulx.Serialize");
+      recording.enable("info.okoshi.trifulx.Bulk");
+      recording.start();
+      Xml xml = new Xml("<root><a /><b /></root>");
+      xml.text(FormatTypes.COMPACT, StandardCharsets.UTF_8);
+      xml.save(new ByteArrayOutputStream());
+      xml.root().addChildren("c", 3);
+      recording.stop();
+      recording.dump(file);
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+      RecordedEvent parse = find(events, "info.okoshi.trifulx.Parse", null);
+      assertThat(parse.getLong("size"), is(23L));
+      assertThat(parse.getInt("elements"), is(3));
+      assertThat(parse.getString("charset"), is("UTF-8"));
+      RecordedEvent text = find(events, "info.okoshi.trifulx.Serialize", "text");
+      assertThat(text.getString("format"), is("COMPACT"));
+      assertThat(text.getInt("elements"), is(3));
+      RecordedEvent save = find(events, "info.okoshi.trifulx.Serialize", "save");
+      assertThat(save.getString("format"), is("STANDARD"));
+      RecordedEvent bulk = find(events, "info.okoshi.trifulx.Bulk", "addChildren");
+      assertThat(bulk.getLong("count"), is(3L));
+      assertThat(bulk.getString("node"), is("root"));
+    } finally {
+      Files.delete(file);
+    }
+    assertThat(XmlEvents.INSTANCE.beginParse() == null, is(true));
+  }
+
+  /**
+   * Find event.<br>
+   *
+   * @param events
+   *          Recorded events
+   * @param name
+   *          Event name
+   * @param operation
+   *          Operation, or <code>null</code> for any
+   * @return Found event
+   */
+  private static RecordedEvent find(List<RecordedEvent> events, String name, String operation) {
+    for (RecordedEvent event : events) {
+      if (event.getEventType().getName().equals(name)
+          && (operation == null || operation.equals(event.getString("operation")))) {
+        return event;
+      }
+    }
+    throw new AssertionError("Not recorded: " + name + " " + operation);
+  }
+}
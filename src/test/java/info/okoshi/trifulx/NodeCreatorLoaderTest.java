@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link info.okoshi.trifulx.NodeCreatorLoader NodeCreatorLoader} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class NodeCreatorLoaderTest {
+
+  /**
+   * Test for {@link info.okoshi.trifulx.NodeCreatorLoader#load()}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testLoad$VALIDATE_CACHE() throws Exception {
+    NodeCreator creator = NodeCreatorLoader.load();
+    assertThat(creator, is(instanceOf(NodeImplCreator.class)));
+    assertThat(NodeCreatorLoader.load(), is(sameInstance(creator)));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.NodeCreatorLoader#resolve(java.lang.String)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testResolve$VALIDATE_CLASS_NAME() throws Exception {
+    assertThat(NodeCreatorLoader.resolve(null), is(instanceOf(NodeImplCreator.class)));
+    assertThat(NodeCreatorLoader.resolve(NodeImplCreator.class.getName()), is(instanceOf(NodeImplCreator.class)));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.NodeCreatorLoader#resolve(java.lang.String)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testResolve$VALIDATE_FROZEN_NODE_CREATOR() throws Exception {
+    NodeCreatorLoader.resolve(FrozenNodeCreator.class.getName());
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.NodeCreatorLoader#resolve(java.lang.String)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testResolve$VALIDATE_CONTEXT_CLASS_LOADER_FALLBACK() throws Exception {
+    Thread thread = Thread.currentThread();
+    ClassLoader original = thread.getContextClassLoader();
+    try (URLClassLoader isolated = new URLClassLoader(new URL[0], null)) {
+      thread.setContextClassLoader(isolated);
+      assertThat(NodeCreatorLoader.resolve(null), is(instanceOf(NodeImplCreator.class)));
+      assertThat(NodeCreatorLoader.resolve(NodeImplCreator.class.getName()), is(instanceOf(NodeImplCreator.class)));
+    } finally {
+      thread.setContextClassLoader(original);
+    }
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.NodeCreatorLoader#resolve(java.lang.String)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testResolve$VALIDATE_UNKNOWN_CLASS() throws Exception {
+    NodeCreatorLoader.resolve("info.okoshi.trifulx.UnknownCreator");
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link info.okoshi.trifulx.Primitives Primitives} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class PrimitivesTest {
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Primitives#isBoolean(java.lang.String)}.<br>
+   */
+  @Test
+  public void testIsBoolean$VALIDATE_LITERALS() {
+    assertThat(Primitives.isBoolean("true"), is(true));
+    assertThat(Primitives.isBoolean(" FALSE\n"), is(true));
+    assertThat(Primitives.isBoolean("yes"), is(false));
+    assertThat(Primitives.isBoolean("truest"), is(false));
+    assertThat(Primitives.isBoolean(" "), is(false));
+    assertThat(Primitives.isBoolean(null), is(false));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Primitives#parseBoolean(java.lang.String, boolean, boolean)}.<br>
+   */
+  @Test
+  public void testParseBoolean$VALIDATE_PARSING() {
+    assertThat(Primitives.parseBoolean("true", false, false), is(true));
+    assertThat(Primitives.parseBoolean("TRUE", false, false), is(true));
+    assertThat(Primitives.parseBoolean("yes", false, true), is(false));
+    assertThat(Primitives.parseBoolean(" true ", true, false), is(true));
+    assertThat(Primitives.parseBoolean(" true ", false, false), is(false));
+    assertThat(Primitives.parseBoolean("", false, true), is(true));
+    assertThat(Primitives.parseBoolean(null, false, true), is(true));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Primitives#parseDouble(java.lang.String, double)}.<br>
+   */
+  @Test
+  public void testParseDouble$VALIDATE_PARSING() {
+    assertThat(Primitives.parseDouble("1.5", -1), is(1.5));
+    assertThat(Primitives.parseDouble("-0.05", -1), is(-0.05));
+    assertThat(Primitives.parseDouble("+.5e2", -1), is(50.0));
+    assertThat(Primitives.parseDouble("1E-3", -1), is(0.001));
+    assertThat(Primitives.parseDouble("12345678901234567890", -1), is(12345678901234567890.0));
+    assertThat(Primitives.parseDouble("1e300", -1), is(1e300));
+    assertThat(Double.isNaN(Primitives.parseDouble("NaN", -1)), is(true));
+    assertThat(Primitives.parseDouble("-Infinity", -1), is(Double.NEGATIVE_INFINITY));
+    assertThat(Primitives.parseDouble("1.0d", -1), is(1.0));
+    assertThat(Primitives.parseDouble(" 2 ", -1), is(2.0));
+    assertThat(Primitives.parseDouble("\n 1.5e1\t", -1), is(15.0));
+    assertThat(Primitives.parseDouble("  ", -1), is(-1.0));
+    assertThat(Primitives.parseDouble("abc", -1), is(-1.0));
+    assertThat(Primitives.parseDouble("1.2.3", -1), is(-1.0));
+    assertThat(Primitives.parseDouble("1e", -1), is(-1.0));
+    assertThat(Primitives.parseDouble(".", -1), is(-1.0));
+    assertThat(Primitives.parseDouble("-", -1), is(-1.0));
+    assertThat(Primitives.parseDouble(null, -1), is(-1.0));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Primitives#parseDouble(java.lang.String, double)}.<br>
+   */
+  @Test
+  public void testParseDouble$VALIDATE_SAME_AS_JDK() {
+    Random random = new Random(0);
+    for (int i = 0; i < 100000; i++) {
+      String text;
+      switch (i % 3) {
+      case 0:
+        text = String.valueOf(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+        break;
+      case 1:
+        text = (random.nextLong() % 100000000L) + "." + random.nextInt(100000);
+        break;
+      default:
+        text = random.nextInt(1000000) + "e" + (random.nextInt(60) - 30);
+        break;
+      }
+      assertThat(text, Primitives.parseDouble(text, -1), is(Double.parseDouble(text)));
+    }
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Primitives#parseInt(java.lang.String, boolean, int)}.<br>
+   */
+  @Test
+  public void testParseInt$VALIDATE_PARSING() {
+    assertThat(Primitives.parseInt("123", false, -1), is(123));
+    assertThat(Primitives.parseInt("-2147483648", false, -1), is(Integer.MIN_VALUE));
+    assertThat(Primitives.parseInt("+2147483647", false, -1), is(Integer.MAX_VALUE));
+    assertThat(Primitives.parseInt("2147483648", false, -1), is(-1));
+    assertThat(Primitives.parseInt("-2147483649", false, -1), is(-1));
+    assertThat(Primitives.parseInt("12a", false, -1), is(-1));
+    assertThat(Primitives.parseInt("-", false, -1), is(-1));
+    assertThat(Primitives.parseInt("\n 42\t", true, -1), is(42));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Primitives#parseLong(java.lang.String, boolean, long)}.<br>
+   */
+  @Test
+  public void testParseLong$VALIDATE_PARSING() {
+    assertThat(Primitives.parseLong("9223372036854775807", false, -1), is(Long.MAX_VALUE));
+    assertThat(Primitives.parseLong("-9223372036854775808", false, -1), is(Long.MIN_VALUE));
+    assertThat(Primitives.parseLong("9223372036854775808", false, -1), is(-1L));
+    assertThat(Primitives.parseLong("", false, -1), is(-1L));
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link info.okoshi.trifulx.Value Value} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class ValueTest {
+
+  /**
+   * Sample enum for test.<br>
+   */
+  private enum Color {
+    RED, GREEN
+  }
+
+  /**
+   * Serialize and deserialize.<br>
+   *
+   * @param value
+   *          Value
+   * @return Deserialized value
+   * @throws Exception
+   *           Any exception
+   */
+  private static Value copy(Value value) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(value);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return (Value) in.readObject();
+    }
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Value#activateClass()}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testActivateClass$VALIDATE_CACHE() throws Exception {
+    assertThat(Value.valueOf("java.util.ArrayList").activateClass(), is(sameInstance((Object) ArrayList.class)));
+    assertThat(Value.valueOf("java.util.ArrayList").activateClass(), is(sameInstance((Object) ArrayList.class)));
+    ClassLoader loader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+    assertThat(Value.valueOf("java.util.ArrayList").activateClass(loader), is(sameInstance((Object) ArrayList.class)));
+    assertThat(Value.valueOf(ValueTest.class).activateClass(loader), is(sameInstance((Object) ValueTest.class)));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Value#activateClass()}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test(expected = ClassNotFoundException.class)
+  public void testActivateClass$VALIDATE_NOT_FOUND() throws Exception {
+    Value.valueOf("info.okoshi.trifulx.NotFound").activateClass();
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Value#doubleValue()}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testDoubleValue$VALIDATE_CACHE() throws Exception {
+    Value value = Value.valueOf("2.5");
+    Value other = Value.valueOf("2.5");
+    assertThat(value.doubleValue(), is(2.5));
+    assertThat(value.doubleValue(), is(2.5));
+    assertThat(value.integerValue(-1), is(-1));
+    assertThat(value, is(other));
+    assertThat(value.hashCode(), is(other.hashCode()));
+    assertThat(value.toString(), is(other.toString()));
+    assertThat(copy(value).doubleValue(), is(2.5));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Value#enumValue(java.lang.Class, java.lang.Enum)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testEnumValue$VALIDATE_FALLBACK() throws Exception {
+    assertThat(Value.valueOf("GREEN").enumValue(Color.class, Color.RED), is(Color.GREEN));
+    assertThat(Value.valueOf("BLUE").enumValue(Color.class, Color.RED), is(Color.RED));
+    assertThat(Value.valueOf("green").enumValue(Color.class, null), is((Color) null));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Value#integerValue()}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test(expected = NumberFormatException.class)
+  public void testIntegerValue$VALIDATE_MALFORMED() throws Exception {
+    Value value = Value.valueOf("12x");
+    assertThat(value.tryInteger(), is(OptionalInt.empty()));
+    value.integerValue();
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Value#integerValue()}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testIntegerValue$VALIDATE_RANGE() throws Exception {
+    Value value = Value.valueOf("3000000000");
+    assertThat(value.longValue(), is(3000000000L));
+    assertThat(value.integerValue(-1), is(-1));
+    assertThat(Value.valueOf("-128").byteValue(), is((byte) -128));
+    assertThat(Value.valueOf("300").shortValue(), is((short) 300));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Value#integerValue(int)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testIntegerValue$VALIDATE_DEFAULT() throws Exception {
+    assertThat(Value.valueOf("42").integerValue(-1), is(42));
+    assertThat(Value.valueOf("4x2").integerValue(-1), is(-1));
+    assertThat(Value.valueOf("99999999999").integerValue(-1), is(-1));
+    assertThat(Value.valueOf((String) null).integerValue(-1), is(-1));
+    assertThat(Value.valueOf("7").longValue(-1L), is(7L));
+    assertThat(Value.valueOf(" 1.5 ").doubleValue(-1), is(1.5));
+    assertThat(Value.valueOf("TRUE").booleanValue(false), is(true));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.ParseException#of(java.lang.String)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testParseException$VALIDATE_STACK_TRACE() throws Exception {
+    assertThat(ParseException.of("message").getStackTrace().length > 0, is(true));
+    assertThat(new ParseException("message", false).getStackTrace().length, is(0));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Value#newInstance(java.lang.Class)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testNewInstance$VALIDATE_CACHE() throws Exception {
+    List<?> first = Value.valueOf("java.util.ArrayList").newInstance(List.class);
+    List<?> second = Value.valueOf("java.util.ArrayList").newInstance(List.class);
+    assertThat(first instanceof ArrayList, is(true));
+    assertThat(first, is(not(sameInstance((Object) second))));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Value#newInstance(java.lang.Class)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test(expected = InstantiationException.class)
+  public void testNewInstance$VALIDATE_ABSTRACT() throws Exception {
+    Value.valueOf("java.util.AbstractList").newInstance(List.class);
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Value#valueOf(java.lang.String)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testValueOf$VALIDATE_SHARED() throws Exception {
+    assertThat(Value.valueOf((String) null), is(sameInstance(Value.valueOf((String) null))));
+    assertThat(Value.valueOf(""), is(sameInstance(Value.valueOf(""))));
+    assertThat(Value.valueOf(true), is(sameInstance(Value.valueOf("true"))));
+    assertThat(Value.valueOf(false), is(sameInstance(Value.valueOf("false"))));
+    assertThat(Value.valueOf("TRUE"), is(not(sameInstance(Value.valueOf(true)))));
+    assertThat(Value.valueOf((String) null).exists(), is(false));
+    assertThat(copy(Value.valueOf(true)), is(sameInstance(Value.valueOf(true))));
+    assertThat(copy(Value.valueOf((String) null)), is(sameInstance(Value.valueOf((String) null))));
+    assertThat(copy(Value.valueOf("foo")), is(Value.valueOf("foo")));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Value#tryInteger()}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testTryInteger$VALIDATE_OPTIONAL() throws Exception {
+    assertThat(Value.valueOf("0").tryInteger(), is(OptionalInt.of(0)));
+    assertThat(Value.valueOf("1").tryInteger(), is(OptionalInt.of(1)));
+    assertThat(Value.valueOf("a").tryInteger(), is(OptionalInt.empty()));
+    assertThat(Value.valueOf("").tryInteger(), is(OptionalInt.empty()));
+    assertThat(Value.valueOf("0").tryLong(), is(OptionalLong.of(0)));
+    assertThat(Value.valueOf("b").tryLong(), is(OptionalLong.empty()));
+    assertThat(Value.valueOf("NaN").tryDouble().isPresent(), is(true));
+    assertThat(Value.valueOf("0.25").tryDouble(), is(OptionalDouble.of(0.25)));
+    assertThat(Value.valueOf("c").tryDouble(), is(OptionalDouble.empty()));
+  }
+}
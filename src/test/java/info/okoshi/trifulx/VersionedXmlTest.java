@@ -0,0 +1,184 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.lang.reflect.Proxy;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link info.okoshi.trifulx.VersionedXml VersionedXml} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class VersionedXmlTest {
+
+  /**
+   * Test for {@link info.okoshi.trifulx.VersionedXml#commit(java.util.function.Consumer)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testCommit$VALIDATE_NEW_VERSION() throws Exception {
+    VersionedXml versioned = new VersionedXml(new Xml("<root><a key=\"1\"><c /></a><b>text</b><d /></root>"));
+    VersionedXml.Version first = versioned.current();
+    Node root = first.root();
+
+    VersionedXml.Version second = versioned.commit(batch -> {
+      batch.attr(root.node("a"), "key", Value.valueOf("2")).attr(root.node("a"), "key2", Value.valueOf("3"));
+      batch.remove(root.node("a").node("c"));
+      batch.node(root.node("a"), root.node("b"));
+      batch.value(root.node("b"), Value.valueOf("changed"));
+      batch.remove(root.node("d"));
+    });
+
+    assertThat(second.number(), is(1L));
+    assertThat(versioned.current() == second, is(true));
+    assertThat(second.toXml().text(FormatTypes.COMPACT), is("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+        + "<root><a key=\"2\" key2=\"3\"><b>text</b></a><b>changed</b></root>\r\n"));
+    assertThat(first.toXml().text(FormatTypes.COMPACT), is("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+        + "<root><a key=\"1\"><c /></a><b>text</b><d /></root>\r\n"));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.VersionedXml#commit(java.util.function.Consumer)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testCommit$VALIDATE_APPEND_EDITED_NODE() throws Exception {
+    String text = "<root><a /><b key=\"1\"><c /></b></root>";
+    VersionedXml versioned = new VersionedXml(new Xml(text));
+    Node root = versioned.current().root();
+    VersionedXml.Version version = versioned.commit(batch -> {
+      batch.value(root.node("b").node("c"), Value.valueOf("changed"));
+      batch.attr(root.node("b"), "key", Value.valueOf("2"));
+      batch.node(root.node("a"), root.node("b"));
+      batch.attr(root.node("b"), "key", Value.valueOf("3"));
+    });
+
+    Xml xml = new Xml(text);
+    Node edited = xml.root();
+    edited.edit(batch -> {
+      batch.value(edited.node("b").node("c"), Value.valueOf("changed"));
+      batch.attr(edited.node("b"), "key", Value.valueOf("2"));
+      batch.node(edited.node("a"), edited.node("b"));
+      batch.attr(edited.node("b"), "key", Value.valueOf("3"));
+    });
+    assertThat(version.toXml().text(FormatTypes.COMPACT), is(xml.text(FormatTypes.COMPACT)));
+    assertThat(version.toXml().text(FormatTypes.COMPACT), is("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+        + "<root><a><b key=\"2\"><c>changed</c></b></a><b key=\"3\"><c>changed</c></b></root>\r\n"));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.VersionedXml#commit(java.util.function.Consumer)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testCommit$VALIDATE_UNSUPPORTED_NODE() throws Exception {
+    VersionedXml versioned = new VersionedXml(new Xml("<root />"));
+    Node root = versioned.current().root();
+    Node foreign = (Node) Proxy.newProxyInstance(Node.class.getClassLoader(),
+        new Class<?>[] { Node.class }, (proxy, method, args) -> method.getName().equals("exists") ? true : null);
+    versioned.commit(batch -> batch.node(root, foreign));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.VersionedXml#commit(java.util.function.Consumer)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testCommit$VALIDATE_STRUCTURAL_SHARING() throws Exception {
+    VersionedXml versioned = new VersionedXml(new Xml("<root><a><c /></a><b><d /></b></root>"));
+    VersionedXml.Version first = versioned.current();
+    VersionedXml.Version second = versioned
+        .commit(batch -> batch.attr(first.root().node("a").node("c"), "key", Value.valueOf("value")));
+
+    assertThat(data(second.root().node("b")) == data(first.root().node("b")), is(true));
+    assertThat(data(second.root().node("a")) == data(first.root().node("a")), is(false));
+    assertThat(second.root().node("a").node("c").attr("key").getValue().stringValue(), is("value"));
+    assertThat(first.root().node("a").node("c").tryAttr("key").exists(), is(false));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.VersionedXml#commit(java.util.function.Consumer)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testCommit$VALIDATE_INCREMENTAL_HASH() throws Exception {
+    VersionedXml versioned = new VersionedXml(
+        new Xml("<root x=\"1\">head<a><c key=\"1\" /><c /></a> <b /> <a /> tail</root>"));
+    VersionedXml.Version first = versioned.current();
+    VersionedXml.Version second = versioned.commit(batch -> {
+      batch.attr(first.root().node("a").nodes("c").get(1), "key", Value.valueOf("2"));
+      batch.attr(first.root(), "x", Value.valueOf("2")).attr(first.root(), "y", Value.valueOf("3"));
+      batch.removeAttr(first.root().node("a").node("c"), "key");
+    });
+
+    FrozenElement rebuilt = FrozenElement.of(second.toXml().document().getRootElement());
+    assertThat(data(second.root()).hashCode(), is(rebuilt.hashCode()));
+    assertThat(data(second.root()).equals(rebuilt), is(true));
+    assertThat(data(second.root()).childIndexes("a") == data(first.root()).childIndexes("a"), is(true));
+    assertThat(second.root().value().stringValue(), is("head tail"));
+    assertThat(second.toXml().text(FormatTypes.COMPACT), is("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+        + "<root x=\"2\" y=\"3\">head<a><c /><c key=\"2\" /></a><b /><a />tail</root>\r\n"));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.VersionedXml#commit(java.util.function.Consumer)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testCommit$VALIDATE_STALE_NODE() throws Exception {
+    VersionedXml versioned = new VersionedXml(new Xml("<root><a /></root>"));
+    Node stale = versioned.current().root().node("a");
+    versioned.commit(batch -> batch.attr(stale, "key", Value.valueOf("1")));
+    versioned.commit(batch -> batch.attr(stale, "key", Value.valueOf("2")));
+  }
+
+  /**
+   * Get element data of the node.<br>
+   *
+   * @param node
+   *          Frozen node
+   * @return Element data
+   */
+  private FrozenElement data(Node node) {
+    return ((FrozenNodeCreator.FrozenNode) node).data();
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link info.okoshi.trifulx.XmlConverter XmlConverter} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class XmlConverterTest {
+
+  /** Input document */
+  private static final String INPUT = "<records><meta>ignored</meta>"
+      + "<record id=\"1\" active=\"true\"><name>foo, \"bar\"</name><address><city>Tokyo</city></address>"
+      + "<score>1.5</score></record>"
+      + "<record id=\"x\" active=\"yes\"><name>line\nbreak</name><score>-</score></record>"
+      + "</records>";
+
+  /**
+   * Test for
+   * {@link info.okoshi.trifulx.XmlConverter#toCsv(java.io.InputStream, java.io.OutputStream)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testToCsv$VALIDATE_ROWS() throws Exception {
+    XmlConverter converter = new XmlConverter("record").column("id", "@id").column("name", "name")
+        .column("city", "address/city");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long count = converter.toCsv(new ByteArrayInputStream(INPUT.getBytes(StandardCharsets.UTF_8)), out);
+    assertThat(count, is(2L));
+    assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), is("id,name,city\r\n"
+        + "1,\"foo, \"\"bar\"\"\",Tokyo\r\n"
+        + "x,line break,\r\n"));
+  }
+
+  /**
+   * Test for
+   * {@link info.okoshi.trifulx.XmlConverter#toJsonLines(java.io.InputStream, java.io.OutputStream)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testToJsonLines$VALIDATE_LINES() throws Exception {
+    XmlConverter converter = new XmlConverter("record").column("id", "@id", ColumnTypes.INT)
+        .column("active", "@active", ColumnTypes.BOOLEAN).column("name", "./name")
+        .column("score", "score", ColumnTypes.DOUBLE).column("city", "address/city");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    converter.toJsonLines(new ByteArrayInputStream(INPUT.getBytes(StandardCharsets.UTF_8)), out);
+    assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8),
+        is("{\"id\":1,\"active\":true,\"name\":\"foo, \\\"bar\\\"\",\"score\":1.5,\"city\":\"Tokyo\"}\n"
+            + "{\"id\":null,\"active\":null,\"name\":\"line break\",\"score\":null,\"city\":null}\n"));
+  }
+
+  /**
+   * Test for
+   * {@link info.okoshi.trifulx.XmlConverter#toJsonLines(java.io.InputStream, java.io.OutputStream)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testToJsonLines$VALIDATE_PARALLEL_ORDER() throws Exception {
+    StringBuilder input = new StringBuilder("<records>");
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      input.append("<record id=\"").append(i).append("\"/>");
+      if (i % 2 == 0) {
+        expected.append("{\"id\":").append(i).append("}\n");
+      }
+    }
+    input.append("</records>");
+    XmlConverter converter = new XmlConverter(new XmlPipeline("record").filter(node -> node.attrInt("id", 0) % 2 == 0)
+        .parallel(4)).column("id", "@id", ColumnTypes.LONG);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long count = converter.toJsonLines(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)),
+        out);
+    assertThat(count, is(1000L));
+    assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), is(expected.toString()));
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link info.okoshi.trifulx.XmlExtractor XmlExtractor} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class XmlExtractorTest {
+
+  /** Input document */
+  private static final String INPUT = "<data><orders>"
+      + "<order id=\"1\" paid=\"true\"><amount> 10.5 </amount><customer><name>foo</name></customer></order>"
+      + "<order id=\"2\" paid=\"false\"><amount>x</amount><customer><name>bar</name></customer></order>"
+      + "<order id=\"99999999999\" paid=\"yes\"><customer><name>foo</name></customer><amount>3</amount></order>"
+      + "</orders><archive><order id=\"4\"/></archive></data>";
+
+  /**
+   * Create extractor for test.<br>
+   *
+   * @return Extractor
+   */
+  private static XmlExtractor extractor() {
+    return new XmlExtractor("orders/order").column("id", "@id", ColumnTypes.INT)
+        .column("bigId", "@id", ColumnTypes.LONG).column("paid", "@paid", ColumnTypes.BOOLEAN)
+        .column("amount", "amount", ColumnTypes.DOUBLE).column("name", "customer/name", ColumnTypes.STRING);
+  }
+
+  /**
+   * Validate extracted columns.<br>
+   *
+   * @param columns
+   *          Columns
+   */
+  private static void validate(XmlColumns columns) {
+    assertThat(columns.size(), is(3));
+    assertThat(columns.names(), is(Arrays.asList("id", "bigId", "paid", "amount", "name")));
+    assertThat(columns.ints("id")[0], is(1));
+    assertThat(columns.ints("id")[1], is(2));
+    assertThat(columns.presence("id").toString(), is("{0, 1}"));
+    assertThat(columns.longs("bigId")[2], is(99999999999L));
+    assertThat(columns.presence("bigId").cardinality(), is(3));
+    assertThat(columns.booleans("paid").toString(), is("{0}"));
+    assertThat(columns.presence("paid").toString(), is("{0, 1}"));
+    assertThat(columns.doubles("amount")[0], is(10.5));
+    assertThat(columns.doubles("amount")[2], is(3.0));
+    assertThat(columns.presence("amount").toString(), is("{0, 2}"));
+    assertThat(columns.codes("name")[0], is(0));
+    assertThat(columns.codes("name")[1], is(1));
+    assertThat(columns.codes("name")[2], is(0));
+    assertThat(columns.dictionary("name"), is(Arrays.asList("foo", "bar")));
+    assertThat(columns.string("name", 1), is("bar"));
+  }
+
+  /**
+   * Test for
+   * {@link info.okoshi.trifulx.XmlExtractor#column(java.lang.String, java.lang.String, info.okoshi.trifulx.ColumnTypes)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testColumn$VALIDATE_DUPLICATE_NAME() throws Exception {
+    new XmlExtractor("order").column("id", "@id", ColumnTypes.INT).column("id", "@id", ColumnTypes.LONG);
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlExtractor#extract(java.io.InputStream)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testExtractInputStream$VALIDATE_COLUMNS() throws Exception {
+    validate(extractor().extract(new ByteArrayInputStream(INPUT.getBytes(StandardCharsets.UTF_8))));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlExtractor#extract(java.io.InputStream)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testExtractInputStream$VALIDATE_MISSING() throws Exception {
+    XmlColumns columns = new XmlExtractor("order").column("name", "customer/name", ColumnTypes.STRING)
+        .extract(new ByteArrayInputStream(INPUT.getBytes(StandardCharsets.UTF_8)));
+    assertThat(columns.size(), is(4));
+    assertThat(columns.codes("name")[3], is(-1));
+    assertThat(columns.string("name", 3), is(nullValue()));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlExtractor#extract(info.okoshi.trifulx.Xml)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testExtractXml$VALIDATE_COLUMNS() throws Exception {
+    validate(extractor().extract(new Xml(INPUT)));
+    validate(extractor().extract(new Xml(INPUT).freeze()));
+  }
+}
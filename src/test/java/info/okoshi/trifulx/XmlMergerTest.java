@@ -0,0 +1,212 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link info.okoshi.trifulx.XmlMerger XmlMerger} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class XmlMergerTest {
+
+  /**
+   * Delete directory and files in it.<br>
+   *
+   * @param directory
+   *          Directory
+   * @throws Exception
+   *           Any exception
+   */
+  private static void delete(Path directory) throws Exception {
+    for (Path file : Files.newDirectoryStream(directory)) {
+      Files.delete(file);
+    }
+    Files.delete(directory);
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlMerger#merge(java.util.List, java.lang.String, java.nio.file.Path)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testMerge$VALIDATE_NAMESPACES() throws Exception {
+    Path directory = Files.createTempDirectory("trifulx");
+    try {
+      Path first = directory.resolve("first.xml");
+      Files.write(first, "<r xmlns='urn:d' xmlns:p=\"urn:p\" id=\"1\"><p:y/></r>".getBytes(StandardCharsets.UTF_8));
+      Path second = directory.resolve("second.xml");
+      Files.write(second, "<r xmlns:q='urn:q' xmlns=\"urn:d\" xmlns:p='urn:p'><z/></r>"
+          .getBytes(StandardCharsets.UTF_8));
+      Path output = directory.resolve("merged.xml");
+      new XmlMerger().merge(Arrays.asList(first, second), null, output);
+      assertThat(new String(Files.readAllBytes(output), StandardCharsets.UTF_8),
+          is("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+              + "<r xmlns=\"urn:d\" xmlns:p=\"urn:p\" xmlns:q=\"urn:q\"><p:y/><z/></r>\r\n"));
+      assertThat(new Xml(Files.newInputStream(output)).root().tagName(), is("r"));
+
+      Path conflict = directory.resolve("conflict.xml");
+      Files.write(conflict, "<r xmlns:p=\"urn:q\" xmlns=\"urn:d\"><p:y/></r>".getBytes(StandardCharsets.UTF_8));
+      try {
+        new XmlMerger().merge(Arrays.asList(first, conflict), null, output);
+        throw new AssertionError("Not rejected");
+      } catch (ParseException e) {
+        assertThat(e.getMessage().startsWith("Conflicting xmlns:p: \"urn:p\" and \"urn:q\""), is(true));
+      }
+
+      Path qualified = directory.resolve("qualified.xml");
+      Files.write(qualified, "<root xmlns=\"urn:x\"><r>1</r></root>".getBytes(StandardCharsets.UTF_8));
+      Path unqualified = directory.resolve("unqualified.xml");
+      Files.write(unqualified, "<root><r>2</r></root>".getBytes(StandardCharsets.UTF_8));
+      try {
+        new XmlMerger().merge(Arrays.asList(qualified, unqualified), null, output);
+        throw new AssertionError("Not rejected");
+      } catch (ParseException e) {
+        assertThat(e.getMessage().startsWith("Conflicting default namespace: \"urn:x\" and \"\""), is(true));
+      }
+      Files.write(qualified, "<root xmlns=\"\"><r>1</r></root>".getBytes(StandardCharsets.UTF_8));
+      new XmlMerger().merge(Arrays.asList(qualified, unqualified), null, output);
+      assertThat(new String(Files.readAllBytes(output), StandardCharsets.UTF_8),
+          is("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n<root><r>1</r><r>2</r></root>\r\n"));
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlMerger#merge(java.util.List, java.lang.String, java.nio.file.Path)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testMerge$VALIDATE_ORDER() throws Exception {
+    Path directory = Files.createTempDirectory("trifulx");
+    try {
+      List<Path> inputs = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        Path input = directory.resolve("part-" + i + ".xml");
+        Files.write(input, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<part id=\"" + i + "\"><item index=\"" + i
+            + "\"/><item index=\"" + i + "\"/></part>\n").getBytes(StandardCharsets.UTF_8));
+        inputs.add(input);
+      }
+      Path output = directory.resolve("merged.xml");
+      new XmlMerger().parallel(4).merge(inputs, null, output);
+
+      Node root = new Xml(Files.newInputStream(output)).root();
+      assertThat(root.tagName(), is("part"));
+      List<Node> items = root.nodes("item");
+      assertThat(items.size(), is(100));
+      for (int i = 0; i < items.size(); i++) {
+        assertThat(items.get(i).attrInt("index", -1), is(i / 2));
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Test for
+   * {@link info.okoshi.trifulx.XmlMerger#merge(java.util.List, java.lang.String, java.nio.file.Path, java.nio.charset.Charset)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testMerge$VALIDATE_TRANSCODING() throws Exception {
+    Path directory = Files.createTempDirectory("trifulx");
+    try {
+      Path utf8 = directory.resolve("utf8.xml");
+      Files.write(utf8, "<root><item>café 日本</item></root>".getBytes(StandardCharsets.UTF_8));
+      Path latin1 = directory.resolve("latin1.xml");
+      Files.write(latin1, "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><root><item>naïve</item></root>"
+          .getBytes(StandardCharsets.ISO_8859_1));
+      Path empty = directory.resolve("empty.xml");
+      Files.write(empty, "<root/>".getBytes(StandardCharsets.UTF_8));
+
+      Path output = directory.resolve("merged.xml");
+      new XmlMerger().merge(Arrays.asList(utf8, empty, latin1), "all", output, StandardCharsets.ISO_8859_1);
+      String text = new String(Files.readAllBytes(output), StandardCharsets.ISO_8859_1);
+      assertThat(text, is("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\r\n"
+          + "<all><item>café &#26085;&#26412;</item><item>naïve</item></all>\r\n"));
+
+      List<Node> items = new Xml(Files.newInputStream(output)).root().nodes("item");
+      assertThat(items.get(0).value().stringValue(), is("café 日本"));
+      assertThat(items.get(1).value().stringValue(), is("naïve"));
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Test for
+   * {@link info.okoshi.trifulx.XmlMerger#merge(java.util.List, java.lang.String, java.nio.file.Path, java.nio.charset.Charset)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testMerge$VALIDATE_TRANSCODING_MARKUP() throws Exception {
+    Path directory = Files.createTempDirectory("trifulx");
+    try {
+      Path cdata = directory.resolve("cdata.xml");
+      Files.write(cdata, "<r><x a=\"é\"><![CDATA[café]]></x></r>".getBytes(StandardCharsets.UTF_8));
+      Path output = directory.resolve("merged.xml");
+      new XmlMerger().merge(Arrays.asList(cdata), null, output, StandardCharsets.US_ASCII);
+      String text = new String(Files.readAllBytes(output), StandardCharsets.US_ASCII);
+      assertThat(text, is("<?xml version=\"1.0\" encoding=\"US-ASCII\"?>\r\n"
+          + "<r><x a=\"&#233;\"><![CDATA[caf]]>&#233;<![CDATA[]]></x></r>\r\n"));
+      Node x = new Xml(Files.newInputStream(output)).root().node("x");
+      assertThat(x.value().stringValue(), is("café"));
+      assertThat(x.attr("a").getValue().stringValue(), is("é"));
+
+      for (String markup : new String[] { "<r><!-- é --></r>", "<r><?pi é?></r>", "<r><é/></r>" }) {
+        Path input = directory.resolve("markup.xml");
+        Files.write(input, markup.getBytes(StandardCharsets.UTF_8));
+        try {
+          new XmlMerger().merge(Arrays.asList(input), null, output, StandardCharsets.US_ASCII);
+          throw new AssertionError("Not rejected: " + markup);
+        } catch (ParseException e) {
+          assertThat(e.getMessage().startsWith("Can't encode U+E9 in "), is(true));
+        }
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link info.okoshi.trifulx.XmlMetrics XmlMetrics} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class XmlMetricsTest {
+
+  /**
+   * Reset metrics.<br>
+   */
+  @Before
+  public void setUp() {
+    XmlMetrics.get().reset();
+  }
+
+  /**
+   * Disable metrics.<br>
+   */
+  @After
+  public void tearDown() {
+    XmlMetrics.get().setEnabled(false);
+    XmlMetrics.get().reset();
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlMetrics#registerMBean()}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testRegisterMBean$VALIDATE_ATTRIBUTES() throws Exception {
+    XmlMetrics.registerMBean();
+    try {
+      XmlMetrics.get().setEnabled(true);
+      new Xml("<root />");
+      ObjectName name = new ObjectName(XmlMetrics.OBJECT_NAME);
+      Object count = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "ParseCount");
+      assertThat(count, is((Object) 1L));
+      assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Enabled"), is((Object) true));
+    } finally {
+      XmlMetrics.unregisterMBean();
+    }
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlMetrics#setEnabled(boolean)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testSetEnabled$VALIDATE_COUNTERS() throws Exception {
+    XmlMetrics metrics = XmlMetrics.get();
+    List<String> misses = new ArrayList<>();
+    XmlMetricsListener listener = new XmlMetricsListener() {
+
+      @Override
+      public void lookupMissed(String name) {
+        misses.add(name);
+      }
+    };
+    XmlMetrics.addListener(listener);
+    try {
+      new Xml("<root><a /></root>").root().tryNode("none");
+      assertThat(metrics.getParseCount(), is(0L));
+      assertThat(misses.size(), is(0));
+
+      metrics.setEnabled(true);
+      Xml xml = new Xml("<root><a /><b /></root>");
+      assertThat(metrics.getParseCount(), is(1L));
+      assertThat(metrics.getParseBytes(), is(23L));
+      assertThat(metrics.getElementsCreated(), is(3L));
+      long[] histogram = metrics.getParseLatencyHistogram();
+      long sum = 0;
+      for (long count : histogram) {
+        sum += count;
+      }
+      assertThat(sum, is(1L));
+
+      Node root = xml.root();
+      root.tryNode("none");
+      root.node("a");
+      assertThat(metrics.getLookupMisses(), is(1L));
+      assertThat(misses.get(0), is("none"));
+      assertThat(metrics.getWrappersCreated(), is(3L));
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      xml.save(out);
+      String text = xml.text();
+      assertThat(metrics.getSerializeCount(), is(2L));
+      assertThat(metrics.getSerializeBytes(), is((long) (out.size() + text.length())));
+    } finally {
+      XmlMetrics.removeListener(listener);
+    }
+  }
+}
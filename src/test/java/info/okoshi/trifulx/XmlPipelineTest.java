@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link info.okoshi.trifulx.XmlPipeline XmlPipeline} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class XmlPipelineTest {
+
+  /** Input document */
+  private static final String INPUT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+      + "<data version=\"2\" secret=\"x\"><!-- records --><header>h</header>\n"
+      + "<record id=\"1\" secret=\"a\"><name>foo</name></record>\n"
+      + "<record id=\"2\" secret=\"b\"><name>bar</name></record>\n"
+      + "<record id=\"3\" secret=\"c\"><name>baz</name></record>\n"
+      + "</data>";
+
+  /**
+   * Transform input document.<br>
+   *
+   * @param pipeline
+   *          Pipeline
+   * @param text
+   *          Input document
+   * @return Output document
+   * @throws Exception
+   *           Any exception
+   */
+  private static String transform(XmlPipeline pipeline, String text) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pipeline.transform(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), out);
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlPipeline#parallel(int)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testParallel$VALIDATE_ORDER() throws Exception {
+    StringBuilder input = new StringBuilder("<data>");
+    StringBuilder expected = new StringBuilder("<data>");
+    for (int i = 0; i < 1000; i++) {
+      input.append("<record id=\"").append(i).append("\"/>\n");
+      if (i % 3 != 0) {
+        expected.append("<record id=\"").append(i).append("\" twice=\"").append(i * 2).append("\"/>\n");
+      } else {
+        expected.append("\n");
+      }
+    }
+    input.append("</data>");
+    expected.append("</data>");
+
+    XmlPipeline pipeline = new XmlPipeline("record").filter(node -> node.attrInt("id", 0) % 3 != 0)
+        .map(node -> node.attr("twice", Value.valueOf(node.attrInt("id", 0) * 2))).parallel(4);
+    String output = transform(pipeline, input.toString());
+    assertThat(output.substring(output.indexOf("<data>")), is(expected.toString()));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlPipeline#map(java.util.function.UnaryOperator)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testMap$VALIDATE_UNSUPPORTED_NODE() throws Exception {
+    Node foreign = (Node) Proxy.newProxyInstance(Node.class.getClassLoader(),
+        new Class<?>[] { Node.class }, (proxy, method, args) -> method.getName().equals("exists") ? true : null);
+    transform(new XmlPipeline("record").map(node -> foreign), INPUT);
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlPipeline#rename(String, String)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testRename$VALIDATE_ORDER() throws Exception {
+    String input = "<data><a /><record><a /></record></data>";
+    String chained = transform(new XmlPipeline("record").rename("a", "b").rename("b", "c"), input);
+    assertThat(chained.substring(chained.indexOf("<data")), is("<data><c></c><record><c/></record></data>"));
+    String first = transform(new XmlPipeline("record").rename("a", "x").rename("a", "y"), input);
+    assertThat(first.substring(first.indexOf("<data")), is("<data><x></x><record><x/></record></data>"));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlPipeline#transform(java.io.InputStream, java.io.OutputStream)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testTransform$VALIDATE_STAGES() throws Exception {
+    XmlPipeline pipeline = new XmlPipeline("record").filter(node -> node.attrInt("id", 0) != 2).map(node -> {
+      Node name = node.node("name");
+      name.value(Value.valueOf(name.value().stringValue().toUpperCase()));
+      return node;
+    }).rename("record", "item").rename("name", "title").dropAttrs("secret");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long count = pipeline.transform(new ByteArrayInputStream(INPUT.getBytes(StandardCharsets.UTF_8)), out);
+    assertThat(count, is(2L));
+
+    Xml xml = new Xml(new ByteArrayInputStream(out.toByteArray()));
+    Node root = xml.root();
+    assertThat(root.attrNames().size(), is(1));
+    assertThat(root.node("header").value().stringValue(), is("h"));
+    assertThat(root.nodes("record").size(), is(0));
+    assertThat(root.nodes("item").size(), is(2));
+    assertThat(root.nodes("item").get(0).attrInt("id", 0), is(1));
+    assertThat(root.nodes("item").get(0).attrNames().size(), is(1));
+    assertThat(root.nodes("item").get(0).node("title").value().stringValue(), is("FOO"));
+    assertThat(root.nodes("item").get(1).node("title").value().stringValue(), is("BAZ"));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlPipeline#transform(java.io.InputStream, java.io.OutputStream)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testTransform$VALIDATE_UNCHANGED() throws Exception {
+    String output = transform(new XmlPipeline("record"), INPUT);
+    assertThat(output.substring(output.indexOf("<data")), is(INPUT.substring(INPUT.indexOf("<data"))));
+  }
+}
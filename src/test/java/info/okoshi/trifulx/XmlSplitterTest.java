@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link info.okoshi.trifulx.XmlSplitter XmlSplitter} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class XmlSplitterTest {
+
+  /**
+   * Delete directory and files in it.<br>
+   *
+   * @param directory
+   *          Directory
+   * @throws Exception
+   *           Any exception
+   */
+  private static void delete(Path directory) throws Exception {
+    for (Path file : Files.newDirectoryStream(directory)) {
+      Files.delete(file);
+    }
+    Files.delete(directory);
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlSplitter#split(java.nio.file.Path, java.nio.file.Path, int)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testSplit$VALIDATE_FEW_RECORDS() throws Exception {
+    Path directory = Files.createTempDirectory("trifulx");
+    try {
+      Path input = directory.resolve("data.xml");
+      Files.write(input, "<data><record id=\"1\"/><record id=\"2\"/></data>".getBytes(StandardCharsets.UTF_8));
+      List<Path> shards = new XmlSplitter("record").split(input, directory, 4);
+      assertThat(shards.size(), is(2));
+      assertThat(new String(Files.readAllBytes(shards.get(1)), StandardCharsets.UTF_8),
+          is("<data><record id=\"2\"/></data>"));
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlSplitter#split(java.nio.file.Path, java.nio.file.Path, int)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testSplit$VALIDATE_LARGE_RECORD() throws Exception {
+    StringBuilder text = new StringBuilder("<data><record>");
+    for (int i = 0; i < 1000; i++) {
+      text.append('x');
+    }
+    text.append("</record><record/><record/></data>");
+    Path directory = Files.createTempDirectory("trifulx");
+    try {
+      Path input = directory.resolve("data.xml");
+      Files.write(input, text.toString().getBytes(StandardCharsets.UTF_8));
+      List<Path> shards = new XmlSplitter("record").split(input, directory, 4);
+      assertThat(shards.size(), is(2));
+      assertThat(new String(Files.readAllBytes(shards.get(1)), StandardCharsets.UTF_8),
+          is("<data><record/><record/></data>"));
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlSplitter#split(java.nio.file.Path, java.nio.file.Path, int)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testSplit$VALIDATE_SHARDS() throws Exception {
+    StringBuilder text = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!DOCTYPE data [\n"
+        + "<!ELEMENT data ANY>]>\n<data kind=\"a>b\">\n<header>h</header>\n");
+    for (int i = 0; i < 1000; i++) {
+      text.append("  <record id=\"").append(i).append("\" note='/>'><!-- </record> --><![CDATA[</data>]]>"
+          + "<record nested=\"true\"/><?pi </record>?></record>\n");
+    }
+    text.append("</data>\n<!-- end -->\n");
+    Path directory = Files.createTempDirectory("trifulx");
+    try {
+      Path input = directory.resolve("data.xml");
+      Files.write(input, text.toString().getBytes(StandardCharsets.UTF_8));
+      List<Path> shards = new XmlSplitter("record").parallel(3).split(input, directory, 4);
+      assertThat(shards.size(), is(4));
+
+      int records = 0;
+      int expected = 0;
+      for (Path shard : shards) {
+        Node root = new Xml(Files.newInputStream(shard)).root();
+        assertThat(root.tagName(), is("data"));
+        assertThat(root.attr("kind").getValue().stringValue(), is("a>b"));
+        for (Node record : root.nodes("record")) {
+          assertThat(record.attrInt("id", -1), is(expected++));
+          assertThat(record.nodes("record").size(), is(1));
+        }
+        records += root.nodes("record").size();
+        assertThat(root.nodes("record").size() > 200, is(true));
+      }
+      assertThat(records, is(1000));
+      assertThat(new Xml(Files.newInputStream(shards.get(0))).root().node("header").value().stringValue(),
+          is("h"));
+    } finally {
+      delete(directory);
+    }
+  }
+}
@@ -30,6 +30,8 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.nio.charset.StandardCharsets;
 
+import org.jdom2.Document;
+import org.jdom2.Element;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -43,6 +45,112 @@ import static org.junit.Assert.assertThat;
  */
 public class XmlTest {
 
+  /**
+   * Test for {@link info.okoshi.trifulx.Xml#create(java.lang.String)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testCreate$VALIDATE_BUILDING() throws Exception {
+    Xml xml = Xml.create("root");
+    Node root = xml.root();
+    root.addChild("data").value(Value.valueOf("foobar"));
+    for (Node item : root.addChildren("item", 2)) {
+      item.attr("key", Value.valueOf("value"));
+    }
+    assertThat(xml.text(FormatTypes.COMPACT), is("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+        + "<root><data>foobar</data><item key=\"value\" /><item key=\"value\" /></root>\r\n"));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Xml#creator(info.okoshi.trifulx.NodeCreator)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testCreator$VALIDATE_PER_DOCUMENT() throws Exception {
+    Xml xml = new Xml("<root><data>foo</data></root>");
+    assertThat(xml.root() instanceof NodeImplCreator.NodeImpl, is(true));
+    xml.creator(new FrozenNodeCreator());
+    assertThat(xml.root() instanceof FrozenNodeCreator.FrozenNode, is(true));
+    assertThat(xml.root().node("data").value().stringValue(), is("foo"));
+    xml.creator(null);
+    assertThat(xml.root() instanceof NodeImplCreator.NodeImpl, is(true));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Xml#freeze()}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testFreeze$VALIDATE_SNAPSHOT() throws Exception {
+    Xml xml = new Xml("<root><data key=\"value\">  foo   bar </data></root>");
+    Xml frozen = xml.freeze();
+    xml.root().node("data").value(Value.valueOf("changed"));
+
+    assertThat(frozen.isFrozen(), is(true));
+    assertThat(frozen.freeze() == frozen, is(true));
+    assertThat(frozen.root().node("data").value().stringValue(), is("foo bar"));
+    assertThat(frozen.root().node("data").attr("key").getValue().stringValue(), is("value"));
+    assertThat(frozen.text(FormatTypes.COMPACT), is(
+        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n<root><data key=\"value\">foo bar</data></root>\r\n"));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Xml#freeze()}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testFreeze$VALIDATE_DEEP_DOCUMENT() throws Exception {
+    // Build from the leaf, since JDOM walks ancestors on each append
+    Element element = new TrifulxElement("child").setText("leaf");
+    for (int i = 1; i < 100000; i++) {
+      element = new TrifulxElement("child").addContent(element);
+    }
+    Xml xml = new Xml(new Document(new TrifulxElement("root").addContent(element)));
+    Xml frozen = xml.freeze();
+    assertThat(frozen.root().equals(xml.freeze().root()), is(true));
+    assertThat(frozen.stats().maxDepth(), is(100001));
+    assertThat(frozen.document().getRootElement().getChild("child") != null, is(true));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Xml#freeze()}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testFreeze$VALIDATE_ROUND_TRIP() throws Exception {
+    Xml xml = new Xml("<!DOCTYPE root><!-- head --><root><?target data?><data>foo<!-- comment -->"
+        + "<![CDATA[<bar>]]></data></root><!-- tail -->");
+    Xml frozen = xml.freeze();
+    assertThat(frozen.text(), is(xml.text()));
+    assertThat(frozen.text(FormatTypes.COMPACT), is(xml.text(FormatTypes.COMPACT)));
+    assertThat(frozen.text(FormatTypes.COMPACT), is("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+        + "<!DOCTYPE root><!-- head --><root><?target data?><data>foo<!-- comment --><![CDATA[<bar>]]>"
+        + "</data></root><!-- tail -->\r\n"));
+    assertThat(frozen.root().node("data").value().stringValue(), is("foo<bar>"));
+    assertThat(frozen.root().equals(frozen.freeze().root()), is(true));
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.Xml#freeze()}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testFreeze$VALIDATE_REJECT_MODIFICATION() throws Exception {
+    new Xml("<root><data /></root>").freeze().root().node("data").value(Value.valueOf("changed"));
+  }
+
   /**
    * Test for {@link info.okoshi.trifulx.Xml#root()}.<br>
    * 
@@ -97,6 +205,37 @@ public class XmlTest {
     }
   }
 
+  /**
+   * Test for {@link info.okoshi.trifulx.Xml#stats()}.<br>
+   *
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testStats$VALIDATE_FOOTPRINT() throws Exception {
+    Xml xml = new Xml("<root a=\"12\"><data b=\"x\">foo<![CDATA[bar]]></data><list><item>1</item></list></root>");
+    XmlStats stats = xml.stats();
+    assertThat(stats.elements(), is(4L));
+    assertThat(stats.attributes(), is(2L));
+    assertThat(stats.texts(), is(3L));
+    assertThat(stats.maxDepth(), is(3));
+    assertThat(stats.characters(), is(10L));
+    assertThat(stats.estimatedBytes() > 0, is(true));
+
+    XmlStats frozen = xml.freeze().stats();
+    assertThat(frozen.elements(), is(4L));
+    assertThat(frozen.estimatedBytes() > stats.estimatedBytes(), is(true));
+
+    xml.root().addChildren("item", 10);
+    assertThat(xml.stats().elements(), is(14L));
+    assertThat(xml.stats().estimatedBytes() > stats.estimatedBytes(), is(true));
+
+    Xml cached = new Xml("<root><data>foo<![CDATA[bar]]></data></root>");
+    long uncached = cached.stats().estimatedBytes();
+    assertThat(cached.root().node("data").value().stringValue(), is("foobar"));
+    assertThat(cached.stats().estimatedBytes() > uncached, is(true));
+  }
+
   /**
    * Test for {@link info.okoshi.trifulx.Xml#text()}.<br>
    * 
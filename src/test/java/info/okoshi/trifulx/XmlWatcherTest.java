@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 okosheep
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package info.okoshi.trifulx;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link info.okoshi.trifulx.XmlWatcher XmlWatcher} unit test.<br>
+ *
+ * @version 1.0.0
+ * @author okosheep
+ */
+public class XmlWatcherTest {
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlWatcher#listen(info.okoshi.trifulx.XmlChangeListener)}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testListen$VALIDATE_NOTIFICATION() throws Exception {
+    Path file = Files.createTempFile("trifulx", ".xml");
+    try {
+      write(file, "<root><a /><b /></root>");
+      try (XmlWatcher watcher = new XmlWatcher(file, 50, TimeUnit.MILLISECONDS)) {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Set<String>> changed = new AtomicReference<>();
+        watcher.listen((previous, current, names) -> {
+          changed.set(names);
+          latch.countDown();
+        });
+        write(file, "<root><a /><b>changed</b></root>");
+        assertThat(latch.await(30, TimeUnit.SECONDS), is(true));
+        assertThat(changed.get(), is(new HashSet<>(Arrays.asList("b"))));
+        assertThat(watcher.current().root().node("b").value().stringValue(), is("changed"));
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Test for {@link info.okoshi.trifulx.XmlWatcher#reload()}.<br>
+   * 
+   * @throws Exception
+   *           Any exception
+   */
+  @Test
+  public void testReload$VALIDATE_CHANGED_NAMES() throws Exception {
+    Path file = Files.createTempFile("trifulx", ".xml");
+    try {
+      write(file, "<root><a x=\"1\" /><b /><b /><c /></root>");
+      try (XmlWatcher watcher = new XmlWatcher(file, 1, TimeUnit.HOURS)) {
+        Xml first = watcher.current();
+        assertThat(first.isFrozen(), is(true));
+        assertThat(watcher.reload().isEmpty(), is(true));
+
+        write(file, "<root><a x=\"2\" /><b /><d /><c /></root>");
+        Set<String> names = watcher.reload();
+        assertThat(names, is(new HashSet<>(Arrays.asList("a", "b", "d"))));
+        assertThat(watcher.current().root().node("a").attr("x").getValue().integerValue(), is(2));
+        assertThat(first.root().node("a").attr("x").getValue().integerValue(), is(1));
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Write text to file.<br>
+   *
+   * @param file
+   *          File
+   * @param text
+   *          Text
+   * @throws Exception
+   *           Any exception
+   */
+  private static void write(Path file, String text) throws Exception {
+    Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+  }
+}